@@ -0,0 +1,78 @@
+package com.example.project.metrics;
+
+import com.example.project.twi.TwiMetrics;
+import com.example.project.twi.driver.TwiMemoryDriver;
+import com.example.project.twi.exception.TwiDriverException;
+import com.example.project.twi.exception.TwiTransactionException;
+import com.example.project.twi.transaction.TwiTransaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the metrics primitives and of what a driver records per transaction,
+ * next to a submit on {@link TwiMemoryDriver}, the cheapest transaction there is.
+ * The end-to-end share is below what JMH resolves on a pipeline epoch, compare UbxPipelineBenchmark epochs of this build
+ * and of one with the recording stubbed out, interleaved in one JVM with a class loader each and both load orders averaged.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+    private static final int ADDRESS = 0x42;
+
+    private Counter counter;
+    private Histogram histogram;
+    private TwiMetrics.Recorder recorder;
+    private TwiMemoryDriver driver;
+    private TwiTransaction transaction;
+
+    @Setup
+    public void setup() {
+        MetricsRegistry registry = new MetricsRegistry();
+        this.counter = registry.counter("counter");
+        this.histogram = registry.histogram("histogram");
+        this.recorder = TwiMetrics.create(registry, "twi").recorder();
+        this.driver = new TwiMemoryDriver().attach(ADDRESS, new byte[256]);
+        this.transaction = TwiTransaction.builder(ADDRESS)
+                .write(0x00)
+                .read(28)
+                .build();
+    }
+
+    @Benchmark
+    public void counterIncrement() {
+        this.counter.increment();
+    }
+
+    @Benchmark
+    public void histogramRecord() {
+        this.histogram.record(12_345);
+    }
+
+    // What a driver adds to each transaction, timing and publishing included on one in TIMING_INTERVAL
+    @Benchmark
+    public void driverRecording() {
+        long start = this.recorder.start();
+        this.recorder.completed(1, 28, start);
+    }
+
+    @Benchmark
+    public TwiTransaction memorySubmit() throws TwiDriverException, TwiTransactionException {
+        return this.transaction.submit(this.driver);
+    }
+
+}
@@ -0,0 +1,142 @@
+package com.example.project.twi.driver;
+
+import com.example.project.twi.exception.TwiDriverException;
+import com.example.project.twi.exception.TwiTransactionException;
+import com.example.project.twi.transaction.TwiTransaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TwiMemoryDriver} against a byte-wise {@link TwiGenericDriver} with the same register file semantics.
+ * Both drivers hand the same transactions to the same memory, the difference is the per-byte primitive dispatch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TwiBlockDriverBenchmark {
+
+    private static final int ADDRESS = 0x42;
+
+    // Byte-wise twin of TwiMemoryDriver for a single device
+    private static final class GenericMemoryDriver extends TwiGenericDriver {
+
+        private final byte[] registers;
+        private int pointer = 0;
+        private boolean addressed = false;
+        private boolean firstByte = false;
+
+        private GenericMemoryDriver(byte[] registers) {
+            this.registers = registers;
+        }
+
+        @Override
+        public void open() {
+
+        }
+
+        @Override
+        public void close() {
+            this.flushMetrics();
+        }
+
+        @Override
+        protected void createStartCondition() {
+            this.addressed = false;
+        }
+
+        @Override
+        protected void createStopCondition() {
+            this.addressed = false;
+        }
+
+        @Override
+        protected boolean writeAddressByte(int address, boolean isRead) {
+            this.addressed = address == ADDRESS;
+            this.firstByte = !isRead;
+            return this.addressed;
+        }
+
+        @Override
+        protected boolean writeByte(byte data) {
+            if(this.firstByte) {
+                this.firstByte = false;
+                this.pointer = data & 0xFF;
+                return true;
+            }
+            if(this.pointer >= this.registers.length) {
+                return false;
+            }
+            this.registers[this.pointer++] = data;
+            return true;
+        }
+
+        @Override
+        protected byte readByte(boolean ack) {
+            if(this.pointer >= this.registers.length) {
+                return (byte) 0xFF;
+            }
+            return this.registers[this.pointer++];
+        }
+
+    }
+
+    @Param({"2", "28", "255"})
+    public int payloadSize;
+
+    private TwiMemoryDriver block;
+    private GenericMemoryDriver generic;
+    private TwiTransaction read;
+    private TwiTransaction write;
+
+    @Setup
+    public void setup() {
+        this.block = new TwiMemoryDriver().attach(ADDRESS, new byte[256]);
+        this.generic = new GenericMemoryDriver(new byte[256]);
+        this.read = TwiTransaction.builder(ADDRESS)
+                .write(0x00)
+                .read(this.payloadSize)
+                .build();
+        byte[] data = new byte[1 + this.payloadSize];
+        for(int i = 1; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        this.write = TwiTransaction.builder(ADDRESS)
+                .write(data)
+                .build();
+    }
+
+    @Benchmark
+    public TwiTransaction blockRead() throws TwiDriverException, TwiTransactionException {
+        return this.read.submit(this.block);
+    }
+
+    @Benchmark
+    public TwiTransaction genericRead() throws TwiDriverException, TwiTransactionException {
+        return this.read.submit(this.generic);
+    }
+
+    @Benchmark
+    public TwiTransaction blockWrite() throws TwiDriverException, TwiTransactionException {
+        return this.write.submit(this.block);
+    }
+
+    @Benchmark
+    public TwiTransaction genericWrite() throws TwiDriverException, TwiTransactionException {
+        return this.write.submit(this.generic);
+    }
+
+}
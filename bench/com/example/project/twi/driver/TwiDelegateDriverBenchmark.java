@@ -0,0 +1,85 @@
+package com.example.project.twi.driver;
+
+import com.example.project.twi.exception.TwiDriverException;
+import com.example.project.twi.exception.TwiTransactionException;
+import com.example.project.twi.trace.TwiTraceRecorder;
+import com.example.project.twi.transaction.TwiTransaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Cost of tracing in {@link TwiDelegateDriver}: string logging into a discarding handler versus the binary trace recorder.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TwiDelegateDriverBenchmark {
+
+    @Param({"2", "28", "256"})
+    public int payloadSize;
+
+    private TwiDelegateDriver logging;
+    private TwiDelegateDriver tracing;
+    private TwiTransaction transaction;
+
+    @Setup
+    public void setup() {
+        Logger silent = Logger.getLogger("bench.silent");
+        silent.setUseParentHandlers(false);
+        silent.setLevel(Level.OFF);
+        Logger discarding = Logger.getLogger("bench.discarding");
+        discarding.setUseParentHandlers(false);
+        discarding.setLevel(Level.INFO);
+        discarding.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+
+            }
+
+            @Override
+            public void flush() {
+
+            }
+
+            @Override
+            public void close() {
+
+            }
+        });
+        this.logging = new TwiDelegateDriver(new TwiDummyDriver("Dummy", silent), "Logging", discarding);
+        this.tracing = new TwiDelegateDriver(new TwiDummyDriver("Dummy", silent), "Tracing", silent, new TwiTraceRecorder());
+        this.transaction = TwiTransaction.builder(0x42)
+                .write(0xFF)
+                .read(this.payloadSize)
+                .build();
+    }
+
+    @Benchmark
+    public TwiTransaction stringLogging() throws TwiDriverException, TwiTransactionException {
+        return this.transaction.submit(this.logging);
+    }
+
+    @Benchmark
+    public TwiTransaction binaryTrace() throws TwiDriverException, TwiTransactionException {
+        return this.transaction.submit(this.tracing);
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.example.project.twi.driver;
+
+import com.example.project.twi.exception.TwiDriverException;
+import com.example.project.twi.exception.TwiTransactionException;
+import com.example.project.twi.transaction.TwiTransaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TwiGenericDriver#submit(TwiTransaction)} overhead against a driver whose primitives do nothing.
+ * Covers both a prebuilt transaction and the build-then-submit pattern used by the UBX transport.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TwiGenericDriverBenchmark {
+
+    private static final class NoopDriver extends TwiGenericDriver {
+
+        @Override
+        public void open() {
+
+        }
+
+        @Override
+        public void close() {
+            this.flushMetrics();
+        }
+
+        @Override
+        protected void createStartCondition() {
+
+        }
+
+        @Override
+        protected void createStopCondition() {
+
+        }
+
+        @Override
+        protected boolean writeByte(byte data) {
+            return true;
+        }
+
+        @Override
+        protected byte readByte(boolean ack) {
+            return 0x55;
+        }
+
+    }
+
+    @Param({"2", "28", "1024"})
+    public int payloadSize;
+
+    private NoopDriver driver;
+    private TwiTransaction prebuilt;
+
+    @Setup
+    public void setup() {
+        this.driver = new NoopDriver();
+        this.prebuilt = TwiTransaction.builder(0x42)
+                .write(0xFF)
+                .read(this.payloadSize)
+                .build();
+    }
+
+    @Benchmark
+    public TwiTransaction submitPrebuilt() throws TwiDriverException, TwiTransactionException {
+        return this.prebuilt.submit(this.driver);
+    }
+
+    @Benchmark
+    public TwiTransaction buildAndSubmit() throws TwiDriverException, TwiTransactionException {
+        return TwiTransaction.builder(0x42)
+                .write(0xFF)
+                .read(this.payloadSize)
+                .build()
+                .submit(this.driver);
+    }
+
+}
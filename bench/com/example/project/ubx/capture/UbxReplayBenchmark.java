@@ -0,0 +1,93 @@
+package com.example.project.ubx.capture;
+
+import com.example.project.ubx.frame.UbxFrame;
+import com.example.project.ubx.frame.exception.UbxTransportException;
+import com.example.project.ubx.frame.transport.UbxTransport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Replays a 32 MiB capture through {@link UbxReplayTransport} as fast as possible.
+ * One operation serves every frame of the capture, so throughput is 32 MiB divided by the score.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UbxReplayBenchmark {
+
+    private static final long CAPTURE_SIZE = 32L << 20;
+
+    @Param({"28", "1024"})
+    public int payloadSize;
+
+    private Path directory;
+    private UbxReplayTransport replay;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, UbxTransportException {
+        this.directory = Files.createTempDirectory("ubx-replay-bench");
+        UbxFrame frame = new UbxFrame(0x01, 0x35, new byte[this.payloadSize]);
+        UbxTransport source = new UbxTransport() {
+
+            @Override
+            public void send(UbxFrame frame) {
+
+            }
+
+            @Override
+            public Optional<UbxFrame> poll() {
+                return Optional.of(frame);
+            }
+
+        };
+        try (UbxCaptureTransport capture = UbxCaptureTransport.builder(source, this.directory).segmentSize(8L << 20).build()) {
+            while(capture.bytes() < CAPTURE_SIZE) {
+                capture.poll();
+            }
+        }
+        this.replay = UbxReplayTransport.builder(this.directory).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.replay.close();
+        try (Stream<Path> files = Files.walk(this.directory)) {
+            for(Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public long replayAll() {
+        this.replay.rewind();
+        long frames = 0;
+        while(this.replay.poll().isPresent()) {
+            frames++;
+        }
+        return frames;
+    }
+
+}
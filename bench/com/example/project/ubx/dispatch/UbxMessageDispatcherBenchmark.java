@@ -0,0 +1,76 @@
+package com.example.project.ubx.dispatch;
+
+import com.example.project.ubx.frame.UbxFrame;
+import com.example.project.ubx.message.UbxMessage;
+import com.example.project.ubx.message.UbxMessageFactory;
+import com.example.project.ubx.message.type.nav.UbxMsgNavPosllh;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fanning one NAV-POSLLH frame out to five consumers.
+ * The dispatcher decodes once and hands the message to five subscriber threads,
+ * the baseline decodes it once per consumer, as every consumer calling the factory itself does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UbxMessageDispatcherBenchmark {
+
+    private static final int CONSUMERS = 5;
+
+    @Param({"BLOCK", "DROP"})
+    public UbxMessageDispatcher.Policy policy;
+
+    private UbxFrame frame;
+    private UbxMessageDispatcher dispatcher;
+
+    @Setup
+    public void setup() {
+        this.frame = new UbxMsgNavPosllh(123456000L, 1_139_000_000, 481_000_000, 500_000, 450_000, 1500, 2500).flatten();
+        this.dispatcher = new UbxMessageDispatcher(4096);
+        for(int i = 0; i < CONSUMERS; i++) {
+            this.dispatcher.subscribe("consumer-" + i, this.policy, message -> {
+
+            }, UbxMsgNavPosllh.Type.INSTANCE);
+        }
+        this.dispatcher.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.dispatcher.close();
+    }
+
+    @Benchmark
+    public boolean dispatch() {
+        return this.dispatcher.publish(this.frame);
+    }
+
+    // Consumers keep their messages, so they have to be materialized
+    @Benchmark
+    public void decodePerConsumer(Blackhole blackhole) {
+        for(int i = 0; i < CONSUMERS; i++) {
+            Optional<UbxMessage> message = UbxMessageFactory.unflatten(this.frame);
+            blackhole.consume(message.orElseThrow());
+        }
+    }
+
+}
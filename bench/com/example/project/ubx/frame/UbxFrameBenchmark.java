@@ -0,0 +1,54 @@
+package com.example.project.ubx.frame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole-frame {@link UbxFrame#deserialize(byte[])} and {@link UbxFrame#serialize()}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UbxFrameBenchmark {
+
+    @Param({"0", "28", "1024", "8192"})
+    public int payloadSize;
+
+    private byte[] payload;
+    private byte[] frame;
+
+    @Setup
+    public void setup() {
+        this.payload = new byte[this.payloadSize];
+        new Random(42).nextBytes(this.payload);
+        this.frame = new UbxFrame(0x01, 0x02, this.payload).serialize();
+    }
+
+    @Benchmark
+    public Optional<UbxFrame> deserialize() {
+        return UbxFrame.deserialize(this.frame);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        // Fresh frame each time, serialize() caches its result
+        return new UbxFrame(0x01, 0x02, this.payload).serialize();
+    }
+
+}
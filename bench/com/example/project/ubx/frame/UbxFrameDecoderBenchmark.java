@@ -0,0 +1,82 @@
+package com.example.project.ubx.frame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UbxFrameDecoder} throughput in frames per second.
+ * The stream holds {@value #FRAMES} frames with optional garbage between them and is fed in fixed-size reads,
+ * so frames regularly straddle read boundaries.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UbxFrameDecoderBenchmark {
+
+    private static final int FRAMES = 256;
+
+    @Param({"28", "256", "2048"})
+    public int payloadSize;
+
+    @Param({"256", "4096"})
+    public int readSize;
+
+    @Param({"false", "true"})
+    public boolean garbage;
+
+    private byte[] stream;
+    private UbxFrameDecoder decoder;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for(int i = 0; i < FRAMES; i++) {
+            if(this.garbage) {
+                byte[] noise = new byte[random.nextInt(32)];
+                random.nextBytes(noise);
+                out.writeBytes(noise);
+            }
+            byte[] payload = new byte[this.payloadSize];
+            random.nextBytes(payload);
+            out.writeBytes(new UbxFrame(0x01, i & 0xFF, payload).serialize());
+        }
+        this.stream = out.toByteArray();
+        this.decoder = new UbxFrameDecoder(this.readSize);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public void decode(Blackhole bh) {
+        UbxFrameDecoder decoder = this.decoder;
+        decoder.reset();
+        int position = 0;
+        while(position < this.stream.length) {
+            position += decoder.feed(this.stream, position, Math.min(this.readSize, this.stream.length - position));
+            Optional<UbxFrame> frame;
+            while((frame = decoder.next()).isPresent()) {
+                bh.consume(frame.get());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.example.project.ubx.frame.transport;
+
+import com.example.project.ubx.frame.UbxFrame;
+import com.example.project.ubx.message.type.nav.UbxMsgNavPosllh;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clock-injected check that {@link UbxAdaptivePoller} locks onto the epoch phase.
+ * A simulated 10 Hz receiver makes each epoch readable at a fixed phase, the poller starts at different offsets to it,
+ * and the lag between an epoch becoming readable and the poll that finds it must end up within two guards.
+ * Run the main method, it throws on failure.
+ */
+public final class UbxAdaptivePollerConvergence {
+
+    private static final long PERIOD = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long GUARD = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final int EPOCHS = 600;
+
+    // Receiver whose epoch k becomes readable at phase + k * PERIOD, as two NAV frames half a millisecond apart
+    private static final class SimulatedReceiver implements UbxTransport {
+
+        private final long phase;
+        private long now = 0;
+        private int epoch = 0; // Next epoch to serve
+        private int frame = 0; // Next frame of that epoch
+        private long lag = -1; // Of the last epoch, from readable to found
+
+        private SimulatedReceiver(long phase) {
+            this.phase = phase;
+        }
+
+        private long readyTime(int epoch, int frame) {
+            return this.phase + epoch * PERIOD + frame * TimeUnit.MICROSECONDS.toNanos(500);
+        }
+
+        @Override
+        public void send(@NotNull UbxFrame frame) {
+
+        }
+
+        @Override
+        public @NotNull Optional<UbxFrame> poll() {
+            if(this.readyTime(this.epoch, this.frame) > this.now) {
+                return Optional.empty();
+            }
+            if(this.frame == 0) {
+                this.lag = this.now - this.readyTime(this.epoch, 0);
+            }
+            UbxFrame frame = new UbxMsgNavPosllh(this.epoch * 100L, 0, 0, 0, 0, 0, 0).flatten();
+            if(++this.frame == 2) {
+                this.frame = 0;
+                this.epoch++;
+            }
+            return Optional.of(frame);
+        }
+
+    }
+
+    public static void main(String[] args) throws Exception {
+        for(long offset : new long[]{3_000_000L, 7_500_000L, 9_900_000L, 55_000_000L}) {
+            SimulatedReceiver receiver = new SimulatedReceiver(PERIOD + offset);
+            UbxAdaptivePoller poller = new UbxAdaptivePoller(receiver, () -> receiver.now, GUARD, TimeUnit.MILLISECONDS.toNanos(10));
+            int converged = -1;
+            long maxLag = 0;
+            while(receiver.epoch < EPOCHS) {
+                receiver.now = Math.max(receiver.now, poller.nextPollTime());
+                int before = receiver.epoch;
+                poller.drain(frame -> { });
+                if(receiver.epoch > before && receiver.lag >= 0) {
+                    if(converged < 0 && receiver.lag <= 2 * GUARD) {
+                        converged = before;
+                    }
+                    if(converged >= 0 && receiver.epoch > EPOCHS / 2) {
+                        maxLag = Math.max(maxLag, receiver.lag);
+                    }
+                }
+            }
+            double pollsPerEpoch = (double) poller.polls() / EPOCHS;
+            System.out.printf("offset %.1f ms: converged after %d epochs, lag %.2f ms at most after that, %.1f polls per epoch%n",
+                    offset / 1e6, converged, maxLag / 1e6, pollsPerEpoch);
+            if(converged < 0 || converged > 20 || maxLag > 2 * GUARD) {
+                throw new AssertionError("Poll phase did not converge for offset " + offset);
+            }
+        }
+    }
+
+}
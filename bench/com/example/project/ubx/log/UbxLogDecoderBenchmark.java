@@ -0,0 +1,80 @@
+package com.example.project.ubx.log;
+
+import com.example.project.ubx.message.type.nav.UbxMsgNavPosllh;
+import com.example.project.ubx.message.type.nav.UbxMsgNavSat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes a 64 MiB log of NAV-POSLLH and NAV-SAT frames with a pool of the given parallelism.
+ * Throughput is 64 MiB divided by the score, compare the parallelism values on a machine with as many cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UbxLogDecoderBenchmark {
+
+    private static final long LOG_SIZE = 64L << 20;
+
+    @Param({"1", "2", "4"})
+    public int parallelism;
+
+    private Path file;
+    private ForkJoinPool pool;
+    private UbxLogDecoder decoder;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        byte[] posllh = new UbxMsgNavPosllh(1000, 2, 3, 4, 5, 6, 7).flatten().serialize();
+        List<UbxMsgNavSat.Sat> sats = new ArrayList<>();
+        for(int i = 0; i < 32; i++) {
+            sats.add(new UbxMsgNavSat.Sat(i % 7, i + 1, 30 + i % 20, 45, 180 + i, -12, 0x1F));
+        }
+        byte[] sat = new UbxMsgNavSat(1000, 1, sats).flatten().serialize();
+        this.file = Files.createTempFile("ubx-log-bench", ".ubx");
+        try (OutputStream out = Files.newOutputStream(this.file)) {
+            for(long written = 0; written < LOG_SIZE; written += posllh.length + sat.length) {
+                out.write(posllh);
+                out.write(sat);
+            }
+        }
+        this.pool = new ForkJoinPool(this.parallelism);
+        this.decoder = UbxLogDecoder.builder().pool(this.pool).chunkSize(4 << 20).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.pool.shutdown();
+        Files.delete(this.file);
+    }
+
+    @Benchmark
+    public long decode(Blackhole blackhole) throws IOException {
+        return this.decoder.decode(this.file, blackhole::consume).messages();
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.example.project.ubx.message;
+
+import com.example.project.ubx.frame.UbxFrame;
+import com.example.project.ubx.message.type.nav.UbxMsgNavPosllh;
+import com.example.project.ubx.message.type.nav.UbxMsgNavSat;
+import com.example.project.util.PackedReader;
+import com.example.project.util.PackedWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Message dispatch through {@link UbxMessageFactory}, direct NAV-POSLLH decoding and the flyweight view.
+ * The encode benchmarks compare building a frame through serializePayload with encoding in place into a reused buffer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UbxMessageBenchmark {
+
+    private UbxFrame posllh;
+    private UbxFrame unknown;
+    private byte[] payload;
+    private final UbxMsgNavPosllh.View view = new UbxMsgNavPosllh.View();
+    private UbxMessage posllhMessage;
+    private UbxMessage satMessage;
+    private final byte[] frameBuffer = new byte[1024];
+
+    @Setup
+    public void setup() {
+        PackedWriter writer = new PackedWriter(28);
+        writer.writeU4(123456000L);
+        writer.writeI4(1_139_000_000);
+        writer.writeI4(481_000_000);
+        writer.writeI4(500_000);
+        writer.writeI4(450_000);
+        writer.writeU4(1500);
+        writer.writeU4(2500);
+        this.payload = writer.data();
+        this.posllh = UbxFrame.deserialize(new UbxFrame(0x01, 0x02, this.payload).serialize()).orElseThrow();
+        this.unknown = UbxFrame.deserialize(new UbxFrame(0x0A, 0x7F, this.payload).serialize()).orElseThrow();
+
+        this.posllhMessage = new UbxMsgNavPosllh(123456000L, 1_139_000_000, 481_000_000, 500_000, 450_000, 1500, 2500);
+        List<UbxMsgNavSat.Sat> sats = new ArrayList<>();
+        for(int i = 0; i < 32; i++) {
+            sats.add(new UbxMsgNavSat.Sat(i % 7, i + 1, 30 + i % 20, 45, 180 + i, -12, 0x1F));
+        }
+        this.satMessage = new UbxMsgNavSat(123456000L, 1, sats);
+    }
+
+    @Benchmark
+    public Optional<UbxMessage> factoryUnflatten() {
+        return UbxMessageFactory.unflatten(this.posllh);
+    }
+
+    @Benchmark
+    public Optional<UbxMessage> factoryUnflattenUnknown() {
+        return UbxMessageFactory.unflatten(this.unknown);
+    }
+
+    @Benchmark
+    public Optional<UbxMessage> posllhUnflatten() {
+        return UbxMsgNavPosllh.Type.INSTANCE.unflatten(new PackedReader(this.payload));
+    }
+
+    @Benchmark
+    public long posllhViewLatLon() {
+        if(!this.view.bind(this.posllh)) {
+            return 0;
+        }
+        return this.view.lat() + (long) this.view.lon();
+    }
+
+    // Payload array, then a frame array with the payload copied in and checksummed
+    @Benchmark
+    public byte[] posllhSerializeFrame() {
+        return new UbxFrame(0x01, 0x02, this.posllhMessage.serializePayload()).serialize();
+    }
+
+    @Benchmark
+    public int posllhEncodeInPlace() {
+        return UbxFrame.encode(this.posllhMessage, this.frameBuffer, 0);
+    }
+
+    @Benchmark
+    public byte[] satSerializeFrame() {
+        return new UbxFrame(0x01, 0x35, this.satMessage.serializePayload()).serialize();
+    }
+
+    @Benchmark
+    public int satEncodeInPlace() {
+        return UbxFrame.encode(this.satMessage, this.frameBuffer, 0);
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.example.project.ubx.simulator;
+
+import com.example.project.ubx.frame.UbxFrame;
+import com.example.project.ubx.frame.exception.UbxTransportException;
+import com.example.project.ubx.frame.transport.UbxTwiTransport;
+import com.example.project.ubx.message.UbxMessageFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full receive pipeline against {@link UbxSimulatedDevice}: DDC bus primitives, {@link UbxTwiTransport} and {@link UbxMessageFactory}.
+ * Each invocation advances the simulated clock by one epoch and drains the device, so the score is time per epoch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UbxPipelineBenchmark {
+
+    private static final long EPOCH = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Param({"0", "8"})
+    public int fillerFrames;
+
+    @Param({"64", "512"})
+    public int fillerPayloadLength;
+
+    @Param({"0", "0.01"})
+    public double corruptionRate;
+
+    @Param({"false", "true"})
+    public boolean speculative;
+
+    private long now = 0;
+    private UbxTwiTransport transport;
+
+    @Setup
+    public void setup() {
+        UbxSimulatedDevice device = UbxSimulatedDevice.builder(0x42)
+                .epochRate(10)
+                .fillerFrames(this.fillerFrames, this.fillerPayloadLength)
+                .txBufferSize(65536)
+                .corruptionRate(this.corruptionRate)
+                .clock(() -> this.now)
+                .seed(42)
+                .build();
+        UbxTwiTransport.Builder builder = UbxTwiTransport.builder(device, 0x42);
+        if(this.speculative) {
+            builder.speculativeRead(64, 1024);
+        }
+        this.transport = builder.build();
+    }
+
+    @Benchmark
+    public void epoch(Blackhole bh) throws UbxTransportException {
+        this.now += EPOCH;
+        Optional<UbxFrame> frame;
+        while((frame = this.transport.poll()).isPresent()) {
+            bh.consume(UbxMessageFactory.unflatten(frame.get()));
+        }
+    }
+
+}
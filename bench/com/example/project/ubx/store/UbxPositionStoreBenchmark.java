@@ -0,0 +1,87 @@
+package com.example.project.ubx.store;
+
+import com.example.project.ubx.message.type.nav.UbxMsgNavPosllh;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A one hour window out of a day of 10 Hz fixes: time lookup, bounding box and accuracy count,
+ * from {@link UbxPositionStore} against a list of decoded messages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UbxPositionStoreBenchmark {
+
+    private static final int FIXES = 24 * 3600 * 10;
+    private static final long WINDOW_START = 10 * 3600_000L;
+    private static final long WINDOW_END = 11 * 3600_000L;
+
+    private UbxPositionStore store;
+    private List<UbxMsgNavPosllh> list;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        this.store = new UbxPositionStore();
+        this.list = new ArrayList<>(FIXES);
+        for(int i = 0; i < FIXES; i++) {
+            UbxMsgNavPosllh fix = new UbxMsgNavPosllh(i * 100L, 114_000_000 + random.nextInt(100_000), 481_000_000 + random.nextInt(100_000),
+                    500_000 + random.nextInt(1000), 450_000 + random.nextInt(1000), random.nextInt(5000), random.nextInt(8000));
+            this.store.append(fix);
+            this.list.add(fix);
+        }
+    }
+
+    @Benchmark
+    public long storeWindow() {
+        int from = this.store.search(WINDOW_START);
+        int to = this.store.search(WINDOW_END);
+        UbxPositionStore.Extent extent = this.store.extent(from, to);
+        int accurate = this.store.countAccurate(UbxPositionStore.Column.HACC, from, to, 2500);
+        return (long) extent.maxLon() - extent.minLon() + extent.maxLat() - extent.minLat() + accurate;
+    }
+
+    @Benchmark
+    public long listWindow() {
+        int from = lowerBound(this.list, WINDOW_START);
+        int to = lowerBound(this.list, WINDOW_END);
+        int minLon = Integer.MAX_VALUE;
+        int maxLon = Integer.MIN_VALUE;
+        int minLat = Integer.MAX_VALUE;
+        int maxLat = Integer.MIN_VALUE;
+        int accurate = 0;
+        for(UbxMsgNavPosllh fix : this.list.subList(from, to)) {
+            minLon = Math.min(minLon, fix.lon);
+            maxLon = Math.max(maxLon, fix.lon);
+            minLat = Math.min(minLat, fix.lat);
+            maxLat = Math.max(maxLat, fix.lat);
+            accurate += fix.hAcc <= 2500 ? 1 : 0;
+        }
+        return (long) maxLon - minLon + maxLat - minLat + accurate;
+    }
+
+    private static int lowerBound(List<UbxMsgNavPosllh> list, long iTOW) {
+        int index = Collections.binarySearch(list, null, (fix, ignored) -> fix.iTOW < iTOW ? -1 : 1);
+        return -index - 1;
+    }
+
+}
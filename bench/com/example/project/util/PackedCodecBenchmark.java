@@ -0,0 +1,129 @@
+package com.example.project.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PackedReader} and {@link PackedWriter} primitives, sweeping a whole buffer per invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackedCodecBenchmark {
+
+    @Param({"28", "256", "4096"})
+    public int payloadSize;
+
+    private byte[] data;
+    private PackedWriter writer;
+    private int[] ints;
+    private double[] doubles;
+
+    @Setup
+    public void setup() {
+        this.data = new byte[this.payloadSize];
+        new Random(42).nextBytes(this.data);
+        this.writer = new PackedWriter(this.payloadSize);
+        this.ints = new int[this.payloadSize / 4];
+        this.doubles = new double[this.payloadSize / 8];
+    }
+
+    @Benchmark
+    public void readU1(Blackhole bh) {
+        PackedReader reader = new PackedReader(this.data);
+        for(int i = 0; i < this.payloadSize; i++) {
+            bh.consume(reader.readU1());
+        }
+    }
+
+    @Benchmark
+    public void readU2(Blackhole bh) {
+        PackedReader reader = new PackedReader(this.data);
+        for(int i = 0; i + 2 <= this.payloadSize; i += 2) {
+            bh.consume(reader.readU2());
+        }
+    }
+
+    @Benchmark
+    public void readI4(Blackhole bh) {
+        PackedReader reader = new PackedReader(this.data);
+        for(int i = 0; i + 4 <= this.payloadSize; i += 4) {
+            bh.consume(reader.readI4());
+        }
+    }
+
+    @Benchmark
+    public void readU4(Blackhole bh) {
+        PackedReader reader = new PackedReader(this.data);
+        for(int i = 0; i + 4 <= this.payloadSize; i += 4) {
+            bh.consume(reader.readU4());
+        }
+    }
+
+    @Benchmark
+    public void readR8(Blackhole bh) {
+        PackedReader reader = new PackedReader(this.data);
+        for(int i = 0; i + 8 <= this.payloadSize; i += 8) {
+            bh.consume(reader.readR8());
+        }
+    }
+
+    @Benchmark
+    public int[] readI4Array() {
+        new PackedReader(this.data).readI4Array(this.ints, 0, this.ints.length);
+        return this.ints;
+    }
+
+    @Benchmark
+    public double[] readR8Array() {
+        new PackedReader(this.data).readR8Array(this.doubles, 0, this.doubles.length);
+        return this.doubles;
+    }
+
+    @Benchmark
+    public byte[] writeU1() {
+        PackedWriter writer = this.writer;
+        writer.reset();
+        for(int i = 0; i < this.payloadSize; i++) {
+            writer.writeU1(i);
+        }
+        return writer.data();
+    }
+
+    @Benchmark
+    public byte[] writeI4() {
+        PackedWriter writer = this.writer;
+        writer.reset();
+        for(int i = 0; i + 4 <= this.payloadSize; i += 4) {
+            writer.writeI4(i);
+        }
+        return writer.data();
+    }
+
+    @Benchmark
+    public byte[] writeR8() {
+        PackedWriter writer = this.writer;
+        writer.reset();
+        for(int i = 0; i + 8 <= this.payloadSize; i += 8) {
+            writer.writeR8(i);
+        }
+        return writer.data();
+    }
+
+}
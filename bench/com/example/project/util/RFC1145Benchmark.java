@@ -0,0 +1,67 @@
+package com.example.project.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-byte versus bulk Fletcher checksum.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RFC1145Benchmark {
+
+    @Param({"28", "1024", "16384"})
+    public int payloadSize;
+
+    private byte[] data;
+    private ByteBuffer direct;
+
+    @Setup
+    public void setup() {
+        this.data = new byte[this.payloadSize];
+        new Random(42).nextBytes(this.data);
+        this.direct = ByteBuffer.allocateDirect(this.payloadSize);
+        this.direct.put(this.data).flip();
+    }
+
+    @Benchmark
+    public int update8() {
+        RFC1145 checksum = new RFC1145();
+        for(byte b : this.data) {
+            checksum.update8(b & 0xFF);
+        }
+        return checksum.get();
+    }
+
+    @Benchmark
+    public int updateArray() {
+        RFC1145 checksum = new RFC1145();
+        checksum.update(this.data, 0, this.data.length);
+        return checksum.get();
+    }
+
+    @Benchmark
+    public int updateDirectBuffer() {
+        RFC1145 checksum = new RFC1145();
+        checksum.update(this.direct.duplicate());
+        return checksum.get();
+    }
+
+}
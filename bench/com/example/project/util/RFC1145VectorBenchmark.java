@@ -0,0 +1,61 @@
+package com.example.project.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fletcher checksum on jdk.incubator.vector, the fork runs with the incubator module added.
+ * RFC1145.update hands blocks from VECTOR_THRESHOLD on to the vector variant here,
+ * compare with RFC1145Benchmark.updateArray for the scalar loop.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class RFC1145VectorBenchmark {
+
+    @Param({"28", "1024", "16384"})
+    public int payloadSize;
+
+    private byte[] data;
+    private RFC1145Vector vector;
+
+    @Setup
+    public void setup() {
+        this.data = new byte[this.payloadSize];
+        new Random(42).nextBytes(this.data);
+        this.vector = new RFC1145Vector();
+        if(!RFC1145.vectorized()) {
+            throw new IllegalStateException("RFC1145 does not dispatch to the vector variant");
+        }
+    }
+
+    @Benchmark
+    public int updateArray() {
+        RFC1145 checksum = new RFC1145();
+        checksum.update(this.data, 0, this.data.length);
+        return checksum.get();
+    }
+
+    @Benchmark
+    public int updateVector() {
+        RFC1145 checksum = new RFC1145();
+        this.vector.update(checksum, this.data, 0, this.data.length);
+        return checksum.get();
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.example.project.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic counter, striped so that concurrent increments do not contend on a single cache line.
+ * Reading sums the stripes and is meant for snapshots, not for the hot path.
+ */
+public final class Counter {
+
+    private final @NotNull String name;
+    private final @NotNull LongAdder value = new LongAdder();
+
+    Counter(@NotNull String name) {
+        this.name = name;
+    }
+
+    public @NotNull String name() {
+        return this.name;
+    }
+
+    public void increment() {
+        this.value.increment();
+    }
+
+    public void add(long delta) {
+        this.value.add(delta);
+    }
+
+    public long sum() {
+        return this.value.sum();
+    }
+
+}
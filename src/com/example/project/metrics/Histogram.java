@@ -0,0 +1,114 @@
+package com.example.project.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative values, e.g. latencies in nanoseconds, in power-of-two buckets.
+ * Bucket 0 counts zeros, bucket i counts values from 2^(i-1) to 2^i - 1.
+ * Recording is a bucket increment and a striped sum, no locks and no allocation.
+ * Percentiles are exact to the bucket, i.e. within a factor of two.
+ */
+public final class Histogram {
+
+    static final int BUCKETS = 64;
+
+    private final @NotNull String name;
+    private final @NotNull AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final @NotNull LongAdder sum = new LongAdder();
+
+    Histogram(@NotNull String name) {
+        this.name = name;
+    }
+
+    public @NotNull String name() {
+        return this.name;
+    }
+
+    // Negative values are recorded as zero
+    public void record(long value) {
+        long clamped = Math.max(value, 0);
+        this.buckets.getAndIncrement(Math.min(BUCKETS - Long.numberOfLeadingZeros(clamped), BUCKETS - 1));
+        this.sum.add(clamped);
+    }
+
+    /**
+     * Copies the buckets. Concurrent recordings may be only partly visible,
+     * count and sum of a snapshot can disagree by the values recorded meanwhile.
+     */
+    public @NotNull Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        for(int i = 0; i < BUCKETS; i++) {
+            counts[i] = this.buckets.get(i);
+        }
+        return new Snapshot(counts, this.sum.sum());
+    }
+
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+
+        private Snapshot(long[] counts, long sum) {
+            this.counts = counts;
+            long count = 0;
+            for(long bucket : counts) {
+                count += bucket;
+            }
+            this.count = count;
+            this.sum = sum;
+        }
+
+        public long count() {
+            return this.count;
+        }
+
+        public long sum() {
+            return this.sum;
+        }
+
+        public double mean() {
+            return this.count == 0 ? 0 : (double) this.sum / this.count;
+        }
+
+        // Recordings in the bucket, see the class comment for the bucket bounds
+        public long bucket(int index) {
+            return this.counts[index];
+        }
+
+        // Upper bound of the bucket holding the given quantile, 0 when empty
+        public long quantile(double quantile) {
+            if(quantile < 0 || quantile > 1) {
+                throw new IllegalArgumentException("Quantile out of range: " + quantile);
+            }
+            long rank = (long) Math.ceil(quantile * this.count);
+            long seen = 0;
+            for(int i = 0; i < BUCKETS; i++) {
+                seen += this.counts[i];
+                if(seen >= rank && seen > 0) {
+                    return upperBound(i);
+                }
+            }
+            return 0;
+        }
+
+        // Upper bound of the highest non-empty bucket
+        public long max() {
+            for(int i = BUCKETS - 1; i >= 0; i--) {
+                if(this.counts[i] > 0) {
+                    return upperBound(i);
+                }
+            }
+            return 0;
+        }
+
+        private static long upperBound(int bucket) {
+            return bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+        }
+
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.example.project.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Named counters and histograms.
+ * Components look their metrics up once, when they are built, and keep the references for the hot path.
+ * Asking twice for the same name returns the same metric, so instances sharing a registry add up.
+ * The global registry collects everything not given a registry of its own.
+ */
+public final class MetricsRegistry {
+
+    private static final @NotNull MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    public static @NotNull MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    private final @NotNull ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final @NotNull ConcurrentHashMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    public @NotNull Counter counter(@NotNull String name) {
+        return this.counters.computeIfAbsent(name, Counter::new);
+    }
+
+    public @NotNull Histogram histogram(@NotNull String name) {
+        return this.histograms.computeIfAbsent(name, Histogram::new);
+    }
+
+    // Current values, sorted by name
+    public @NotNull MetricsSnapshot snapshot() {
+        Map<String, Long> counters = new TreeMap<>();
+        this.counters.forEach((name, counter) -> counters.put(name, counter.sum()));
+        Map<String, Histogram.Snapshot> histograms = new TreeMap<>();
+        this.histograms.forEach((name, histogram) -> histograms.put(name, histogram.snapshot()));
+        return new MetricsSnapshot(System.currentTimeMillis(), counters, histograms);
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.example.project.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Point-in-time copy of a {@link MetricsRegistry}.
+ * Export either through the maps or as text lines of name and value, one per counter
+ * and one per histogram statistic, which most collectors can scrape as is.
+ */
+public record MetricsSnapshot(
+        long timestamp, // Wall clock millis
+        @NotNull Map<String, Long> counters,
+        @NotNull Map<String, Histogram.Snapshot> histograms
+) {
+
+    public MetricsSnapshot {
+        counters = Collections.unmodifiableMap(counters);
+        histograms = Collections.unmodifiableMap(histograms);
+    }
+
+    public long counter(@NotNull String name) {
+        return this.counters.getOrDefault(name, 0L);
+    }
+
+    /**
+     * Writes lines like {@code twi.transactions 1234} and {@code twi.submit.nanos.p99 8191}.
+     * Histogram quantiles and max are bucket upper bounds.
+     */
+    public void writeTo(@NotNull Appendable out) throws IOException {
+        for(Map.Entry<String, Long> counter : this.counters.entrySet()) {
+            line(out, counter.getKey(), counter.getValue());
+        }
+        for(Map.Entry<String, Histogram.Snapshot> entry : this.histograms.entrySet()) {
+            String name = entry.getKey();
+            Histogram.Snapshot histogram = entry.getValue();
+            line(out, name + ".count", histogram.count());
+            line(out, name + ".sum", histogram.sum());
+            line(out, name + ".p50", histogram.quantile(0.5));
+            line(out, name + ".p99", histogram.quantile(0.99));
+            line(out, name + ".max", histogram.max());
+        }
+    }
+
+    @Override
+    public @NotNull String toString() {
+        StringBuilder builder = new StringBuilder();
+        try {
+            this.writeTo(builder);
+        } catch (IOException e) {
+            throw new AssertionError(e); // StringBuilder does not throw
+        }
+        return builder.toString();
+    }
+
+    private static void line(@NotNull Appendable out, @NotNull String name, long value) throws IOException {
+        out.append(name).append(' ').append(Long.toString(value)).append('\n');
+    }
+
+}
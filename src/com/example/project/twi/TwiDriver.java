@@ -16,6 +16,11 @@ public interface TwiDriver extends AutoCloseable {
     @Override
     void close() throws TwiDriverException;
 
+    /**
+     * Runs the segments of the transaction in order.
+     * Each segment transfers exactly {@link com.example.project.twi.transaction.TwiTransactionSegment#length()} bytes,
+     * which may be fewer than its data buffer holds. Drivers must not take {@code data().length} as the transfer length.
+     */
     void submit(@NotNull TwiTransaction transaction) throws TwiDriverException, TwiTransactionException;
 
 }
@@ -0,0 +1,132 @@
+package com.example.project.twi;
+
+import com.example.project.metrics.Counter;
+import com.example.project.metrics.Histogram;
+import com.example.project.metrics.MetricsRegistry;
+import com.example.project.twi.exception.TwiNackException;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Bus metrics recorded by the drivers: transactions, failures, NACKs by stage, bytes moved and submit time.
+ * Each driver records through its own {@link Recorder}, which batches the counts in plain fields
+ * and publishes them to the shared counters after about {@link #TIMING_INTERVAL} transactions and on every failure.
+ * Submit time is taken on the transaction starting each batch, so the clock reads and counter updates stay off most submits.
+ * Batch lengths are jittered, a fixed stride would keep timing the same transaction of a periodic polling pattern.
+ * Until a driver is flushed, a snapshot may miss its last batch, up to one and a half {@link #TIMING_INTERVAL} successful transactions.
+ * Failures are never held back. Drivers flush on close, or explicitly through their {@code flushMetrics()}.
+ * Names start with the given prefix, e.g. {@code twi.transactions} or {@code twi.nack.address}.
+ */
+public final class TwiMetrics {
+
+    public static final int TIMING_INTERVAL = 32;
+
+    // Start time of a transaction that is not timed
+    private static final long UNTIMED = Long.MIN_VALUE;
+
+    private static final @NotNull TwiMetrics GLOBAL = create(MetricsRegistry.global(), "twi");
+
+    // Shared by every driver built without metrics of its own
+    public static @NotNull TwiMetrics global() {
+        return GLOBAL;
+    }
+
+    public static @NotNull TwiMetrics create(@NotNull MetricsRegistry registry, @NotNull String prefix) {
+        return new TwiMetrics(registry, prefix);
+    }
+
+    private final @NotNull Counter transactions;
+    private final @NotNull Counter failures; // Any exception, NACKs included
+    private final @NotNull Counter @NotNull [] nacks; // By stage
+    private final @NotNull Counter bytesWritten;
+    private final @NotNull Counter bytesRead;
+    private final @NotNull Histogram submitNanos;
+
+    private TwiMetrics(@NotNull MetricsRegistry registry, @NotNull String prefix) {
+        this.transactions = registry.counter(prefix + ".transactions");
+        this.failures = registry.counter(prefix + ".failures");
+        TwiNackException.Stage[] stages = TwiNackException.Stage.values();
+        this.nacks = new Counter[stages.length];
+        for(TwiNackException.Stage stage : stages) {
+            this.nacks[stage.ordinal()] = registry.counter(prefix + ".nack." + stage.name().toLowerCase());
+        }
+        this.bytesWritten = registry.counter(prefix + ".bytes.written");
+        this.bytesRead = registry.counter(prefix + ".bytes.read");
+        this.submitNanos = registry.histogram(prefix + ".submit.nanos");
+    }
+
+    // Between half and one and a half times the interval, the interval on average
+    static int jitter(int interval) {
+        return ThreadLocalRandom.current().nextInt(interval / 2, interval + interval / 2);
+    }
+
+    // One per driver, several recorders may share these metrics
+    public @NotNull Recorder recorder() {
+        return new Recorder();
+    }
+
+    /**
+     * Records the transactions of one driver.
+     * Not thread-safe, like the driver owning it.
+     */
+    public final class Recorder {
+
+        private int pending = 0; // Transactions not yet published
+        private int batch = TIMING_INTERVAL;
+        private long written = 0;
+        private long read = 0;
+
+        private Recorder() {
+
+        }
+
+        // Start time for the next transaction, a System.nanoTime on the first of each batch, otherwise UNTIMED
+        public long start() {
+            return this.pending == 0 ? System.nanoTime() : UNTIMED;
+        }
+
+        // Completed transaction with its data byte counts, address bytes not included
+        public void completed(int written, int read, long start) {
+            this.written += written;
+            this.read += read;
+            if(start != UNTIMED) {
+                TwiMetrics.this.submitNanos.record(System.nanoTime() - start);
+            }
+            if(++this.pending >= this.batch) {
+                this.publish();
+            }
+        }
+
+        public void failed(@NotNull Exception failure, long start) {
+            if(start != UNTIMED) {
+                TwiMetrics.this.submitNanos.record(System.nanoTime() - start);
+            }
+            TwiMetrics.this.failures.increment();
+            if(failure instanceof TwiNackException nack) {
+                TwiMetrics.this.nacks[nack.stage().ordinal()].increment();
+            }
+            this.pending++;
+            this.publish();
+        }
+
+        // Hands the batched counts to the shared counters
+        public void publish() {
+            if(this.pending > 0) {
+                TwiMetrics.this.transactions.add(this.pending);
+                this.pending = 0;
+            }
+            this.batch = jitter(TIMING_INTERVAL);
+            if(this.written > 0) {
+                TwiMetrics.this.bytesWritten.add(this.written);
+                this.written = 0;
+            }
+            if(this.read > 0) {
+                TwiMetrics.this.bytesRead.add(this.read);
+                this.read = 0;
+            }
+        }
+
+    }
+
+}
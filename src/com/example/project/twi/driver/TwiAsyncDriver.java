@@ -0,0 +1,172 @@
+package com.example.project.twi.driver;
+
+import com.example.project.twi.TwiDriver;
+import com.example.project.twi.exception.TwiDriverException;
+import com.example.project.twi.exception.TwiTransactionException;
+import com.example.project.twi.transaction.TwiTransaction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A driver that funnels transactions from any number of threads onto one bus-owner thread.
+ * Wraps any {@link TwiDriver}. Only the bus thread ever submits to the wrapped driver,
+ * so drivers keeping per-transaction state in fields (such as {@link TwiDummyDriver}) can be shared.
+ * Producers enqueue on a lock-free queue and the bus thread drains it back to back.
+ * The blocking {@link #submit(TwiTransaction)} is kept, so this driver can stand in for the wrapped one.
+ * An {@link Error} from the wrapped driver fails its transaction and stops the bus thread,
+ * queued and later transactions then fail until the driver is closed and opened again.
+ */
+public final class TwiAsyncDriver implements TwiDriver {
+
+    private record Request(@NotNull TwiTransaction transaction, @NotNull CompletableFuture<TwiTransaction> future) {
+
+    }
+
+    private final @NotNull TwiDriver delegate;
+    private final @NotNull String name;
+
+    private final @NotNull ConcurrentLinkedQueue<Request> queue = new ConcurrentLinkedQueue<>();
+
+    private volatile @Nullable Thread busThread = null;
+    private volatile boolean running = false;
+
+    public TwiAsyncDriver(@NotNull TwiDriver delegate) {
+        this(delegate, "async");
+    }
+
+    public TwiAsyncDriver(@NotNull TwiDriver delegate, @NotNull String name) {
+        this.delegate = delegate;
+        this.name = name;
+    }
+
+    @Override
+    public synchronized void open() throws TwiDriverException {
+        if(this.running) {
+            return;
+        }
+        if(this.busThread != null) {
+            throw new TwiDriverException("Bus thread died, close the driver before opening it again");
+        }
+        this.delegate.open();
+        Thread thread = new Thread(this::drain, "twi-bus-" + this.name);
+        thread.setDaemon(true);
+        this.running = true;
+        this.busThread = thread;
+        thread.start();
+    }
+
+    @Override
+    public synchronized void close() throws TwiDriverException {
+        Thread thread = this.busThread;
+        if(thread == null) {
+            return;
+        }
+        this.running = false;
+        LockSupport.unpark(thread);
+        if(thread != Thread.currentThread()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TwiDriverException("Interrupted while stopping the bus thread", e);
+            }
+        }
+        this.busThread = null;
+        this.failPending();
+        this.delegate.close();
+    }
+
+    /**
+     * Queues a transaction for the bus thread.
+     * The future completes with the same transaction once its read segments are filled in,
+     * or exceptionally with whatever the wrapped driver threw, normally a {@link TwiDriverException} or {@link TwiTransactionException}.
+     */
+    public @NotNull CompletableFuture<TwiTransaction> submitAsync(@NotNull TwiTransaction transaction) {
+        CompletableFuture<TwiTransaction> future = new CompletableFuture<>();
+        if(!this.running) {
+            future.completeExceptionally(new TwiDriverException("Driver is not open"));
+            return future;
+        }
+        this.queue.offer(new Request(transaction, future));
+        LockSupport.unpark(this.busThread);
+        if(!this.running) {
+            // Closed while enqueueing, make sure nothing is stranded
+            this.failPending();
+        }
+        return future;
+    }
+
+    @Override
+    public void submit(@NotNull TwiTransaction transaction) throws TwiDriverException, TwiTransactionException {
+        if(Thread.currentThread() == this.busThread) {
+            // Re-entrant submission from a completion callback, waiting would deadlock
+            this.delegate.submit(transaction);
+            return;
+        }
+        try {
+            this.submitAsync(transaction).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TwiDriverException("Interrupted while waiting for transaction", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof TwiTransactionException ex) {
+                throw ex;
+            }
+            if(cause instanceof TwiDriverException ex) {
+                throw ex;
+            }
+            if(cause instanceof RuntimeException ex) {
+                throw ex;
+            }
+            if(cause instanceof Error error) {
+                throw error;
+            }
+            throw new TwiDriverException("Transaction failed on the bus thread", cause);
+        }
+    }
+
+    private void drain() {
+        try {
+            while(this.running) {
+                Request request = this.queue.poll();
+                if(request == null) {
+                    LockSupport.park(this);
+                    continue;
+                }
+                this.execute(request);
+            }
+        }
+        finally {
+            // Closing, or dying from an Error, either way nobody drains the queue anymore
+            this.running = false;
+            this.failPending();
+        }
+    }
+
+    private void execute(@NotNull Request request) {
+        try {
+            this.delegate.submit(request.transaction());
+            request.future().complete(request.transaction());
+        } catch (Throwable e) {
+            // The future completes whatever was thrown
+            request.future().completeExceptionally(e);
+            if(e instanceof Error error) {
+                throw error;
+            }
+        }
+    }
+
+    private void failPending() {
+        Request request;
+        while((request = this.queue.poll()) != null) {
+            request.future().completeExceptionally(new TwiDriverException("Bus thread stopped before the transaction was submitted"));
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.example.project.twi.driver;
+
+import com.example.project.twi.TwiDriver;
+import com.example.project.twi.TwiMetrics;
+import com.example.project.twi.exception.TwiDriverException;
+import com.example.project.twi.exception.TwiNackException;
+import com.example.project.twi.exception.TwiTransactionException;
+import com.example.project.twi.transaction.TwiTransaction;
+import com.example.project.twi.transaction.TwiTransactionSegment;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A TWI driver that handles transactions one segment at a time.
+ * For adapters that move whole buffers (USB bridges, kernel interfaces, simulators),
+ * where the per-byte primitives of {@link TwiGenericDriver} would cost a call and an ACK check for every byte.
+ * NACKs are reported exactly like the generic driver does.
+ */
+public abstract class TwiBlockDriver implements TwiDriver {
+
+    // Returned by writeBlock when the address byte was not acknowledged
+    protected static final int ADDRESS_NACK = -1;
+
+    private final @NotNull TwiMetrics.Recorder metrics;
+
+    protected TwiBlockDriver() {
+        this(TwiMetrics.global());
+    }
+
+    // Reports into the given metrics instead of the shared ones, e.g. one set per bus
+    protected TwiBlockDriver(@NotNull TwiMetrics metrics) {
+        this.metrics = metrics.recorder();
+    }
+
+    @Override
+    public void submit(@NotNull TwiTransaction transaction) throws TwiDriverException, TwiTransactionException {
+        if(transaction.isEmpty()) {
+            // Prevent an orphaned stop condition
+            return;
+        }
+        long start = this.metrics.start();
+        int written = 0;
+        int read = 0;
+        try {
+            boolean isFirst = true;
+            for (TwiTransactionSegment segment : transaction) {
+                // Create start condition
+                if (isFirst) {
+                    this.createStartCondition();
+                    isFirst = false;
+                } else {
+                    this.createRepeatedStartCondition();
+                }
+                // Submit transaction segment
+                switch (segment.direction()) {
+                    case WRITE -> {
+                        int length = segment.length();
+                        int acknowledged = this.writeBlock(segment.address(), segment.data(), 0, length);
+                        if (acknowledged == ADDRESS_NACK) {
+                            throw new TwiNackException(segment.address(), TwiNackException.Stage.ADDRESS);
+                        }
+                        if (acknowledged < length) {
+                            throw new TwiNackException(segment.address(), TwiNackException.Stage.DATA_WRITE);
+                        }
+                        written += length;
+                    }
+                    case READ -> {
+                        int length = segment.length();
+                        if (!this.readBlock(segment.address(), segment.data(), 0, length)) {
+                            throw new TwiNackException(segment.address(), TwiNackException.Stage.ADDRESS);
+                        }
+                        read += length;
+                    }
+                }
+                // Process next segment if available
+            }
+        }
+        catch (TwiDriverException | TwiTransactionException | RuntimeException e) {
+            this.metrics.failed(e, start);
+            throw e;
+        }
+        finally {
+            // Create stop condition
+            this.createStopCondition();
+        }
+        this.metrics.completed(written, read, start);
+    }
+
+    // Publishes the counts batched so far, from the thread using the driver. Implementations call it from close()
+    public void flushMetrics() {
+        this.metrics.publish();
+    }
+
+    // Primitive
+    protected abstract void createStartCondition() throws TwiDriverException;
+
+    // Primitive (weak)
+    protected void createRepeatedStartCondition() throws TwiDriverException {
+        this.createStartCondition();
+    }
+
+    // Primitive
+    protected abstract void createStopCondition() throws TwiDriverException;
+
+    /**
+     * Primitive: address byte for writing, then the data bytes.
+     * Returns the number of data bytes acknowledged, stopping at the first NACK,
+     * or {@link #ADDRESS_NACK} when the address byte was not acknowledged.
+     */
+    protected abstract int writeBlock(int address, byte[] data, int offset, int length) throws TwiDriverException;
+
+    /**
+     * Primitive: address byte for reading, then length data bytes, the last one NACKed.
+     * Returns false when the address byte was not acknowledged.
+     */
+    protected abstract boolean readBlock(int address, byte[] data, int offset, int length) throws TwiDriverException;
+
+}
@@ -3,6 +3,7 @@ package com.example.project.twi.driver;
 import com.example.project.twi.TwiDriver;
 import com.example.project.twi.exception.TwiDriverException;
 import com.example.project.twi.exception.TwiTransactionException;
+import com.example.project.twi.trace.TwiTraceRecorder;
 import com.example.project.twi.transaction.TwiTransaction;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -14,6 +15,8 @@ import java.util.logging.Logger;
 /**
  * A delegate driver that wraps another {@link TwiDriver} and logs its operations for debugging purposes.
  * Strongly recommend to include delegate drivers in the final code.
+ * With a {@link TwiTraceRecorder} attached, transaction contents go to the binary trace instead of the log,
+ * so tracing can stay on without formatting every byte in the submit path.
  */
 public final class TwiDelegateDriver implements TwiDriver {
 
@@ -21,6 +24,7 @@ public final class TwiDelegateDriver implements TwiDriver {
 
     private final @NotNull String prefix;
     private final @NotNull Logger logger;
+    private final @Nullable TwiTraceRecorder recorder;
 
     public TwiDelegateDriver(@NotNull TwiDriver delegate) {
         this(delegate, "Delegated port", null);
@@ -31,9 +35,14 @@ public final class TwiDelegateDriver implements TwiDriver {
     }
 
     public TwiDelegateDriver(@NotNull TwiDriver delegate, @NotNull String portName, @Nullable Logger logger) {
+        this(delegate, portName, logger, null);
+    }
+
+    public TwiDelegateDriver(@NotNull TwiDriver delegate, @NotNull String portName, @Nullable Logger logger, @Nullable TwiTraceRecorder recorder) {
         this.delegate = delegate;
         this.prefix = "[Port " + portName + "] ";
         this.logger = Objects.requireNonNullElseGet(logger, () -> Logger.getLogger(TwiDummyDriver.class.getName()));
+        this.recorder = recorder;
     }
 
     @Override
@@ -62,17 +71,36 @@ public final class TwiDelegateDriver implements TwiDriver {
 
     @Override
     public void submit(@NotNull TwiTransaction transaction) throws TwiDriverException, TwiTransactionException {
-        this.logger.info(this.prefix + "Submitting transaction with length " + transaction.segments().size() + "...");
+        boolean verbose = this.logger.isLoggable(Level.INFO);
+        if(verbose) {
+            this.logger.info(this.prefix + "Submitting transaction with length " + transaction.segments().size() + "...");
+        }
+        long timestamp = System.nanoTime();
         try {
             this.delegate.submit(transaction);
         } catch (TwiTransactionException e) {
+            this.trace(transaction, timestamp, e);
             this.logger.log(Level.SEVERE, this.prefix + "Transaction failed.", e);
             throw e;
         } catch (TwiDriverException e) {
+            this.trace(transaction, timestamp, e);
             this.logger.log(Level.SEVERE, this.prefix + "Driver error.", e);
             throw e;
         }
-        this.logger.info(this.prefix + "Transaction completed: " + transaction);
+        this.trace(transaction, timestamp, null);
+        if(verbose) {
+            if(this.recorder != null) {
+                this.logger.info(this.prefix + "Transaction completed.");
+            } else {
+                this.logger.info(this.prefix + "Transaction completed: " + transaction);
+            }
+        }
+    }
+
+    private void trace(@NotNull TwiTransaction transaction, long timestamp, @Nullable Exception failure) {
+        if(this.recorder != null) {
+            this.recorder.record(transaction, timestamp, TwiTraceRecorder.Status.of(failure));
+        }
     }
 
 }
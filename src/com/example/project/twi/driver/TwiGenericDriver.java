@@ -1,6 +1,7 @@
 package com.example.project.twi.driver;
 
 import com.example.project.twi.TwiDriver;
+import com.example.project.twi.TwiMetrics;
 import com.example.project.twi.exception.TwiDriverException;
 import com.example.project.twi.exception.TwiNackException;
 import com.example.project.twi.exception.TwiTransactionException;
@@ -16,12 +17,26 @@ import org.jetbrains.annotations.NotNull;
  */
 public abstract class TwiGenericDriver implements TwiDriver {
 
+    private final @NotNull TwiMetrics.Recorder metrics;
+
+    protected TwiGenericDriver() {
+        this(TwiMetrics.global());
+    }
+
+    // Reports into the given metrics instead of the shared ones, e.g. one set per bus
+    protected TwiGenericDriver(@NotNull TwiMetrics metrics) {
+        this.metrics = metrics.recorder();
+    }
+
     @Override
     public void submit(@NotNull TwiTransaction transaction) throws TwiDriverException, TwiTransactionException {
         if(transaction.isEmpty()) {
             // Prevent an orphaned stop condition
             return;
         }
+        long start = this.metrics.start();
+        int written = 0;
+        int read = 0;
         try {
             boolean isFirst = true;
             for (TwiTransactionSegment segment : transaction) {
@@ -40,11 +55,14 @@ public abstract class TwiGenericDriver implements TwiDriver {
                             throw new TwiNackException(segment.address(), TwiNackException.Stage.ADDRESS);
                         }
                         // Send data
-                        for (byte data : segment.data()) {
-                            if (!this.writeByte(data)) {
+                        byte[] data = segment.data();
+                        int length = segment.length();
+                        for (int i = 0; i < length; i++) {
+                            if (!this.writeByte(data[i])) {
                                 throw new TwiNackException(segment.address(), TwiNackException.Stage.DATA_WRITE);
                             }
                         }
+                        written += length;
                     }
                     case READ -> {
                         // Send address
@@ -53,19 +71,31 @@ public abstract class TwiGenericDriver implements TwiDriver {
                         }
                         // Read data
                         byte[] data = segment.data();
-                        for (int i = 0; i < data.length; i++) {
-                            boolean isLast = (i == data.length - 1);
+                        int length = segment.length();
+                        for (int i = 0; i < length; i++) {
+                            boolean isLast = (i == length - 1);
                             data[i] = this.readByte(!isLast);
                         }
+                        read += length;
                     }
                 }
                 // Process next segment if available
             }
         }
+        catch (TwiDriverException | TwiTransactionException | RuntimeException e) {
+            this.metrics.failed(e, start);
+            throw e;
+        }
         finally {
             // Create stop condition
             this.createStopCondition();
         }
+        this.metrics.completed(written, read, start);
+    }
+
+    // Publishes the counts batched so far, from the thread using the driver. Implementations call it from close()
+    public void flushMetrics() {
+        this.metrics.publish();
     }
 
     // Primitive
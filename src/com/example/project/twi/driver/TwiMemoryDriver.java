@@ -0,0 +1,96 @@
+package com.example.project.twi.driver;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * In-memory reference implementation of {@link TwiBlockDriver}.
+ * Each attached device is a register file of up to 256 bytes behind a one-byte register pointer.
+ * The first byte of a write sets the pointer, following bytes are stored at the pointer, which auto-increments.
+ * Reads start at the pointer. Writes past the end of the register file are NACKed, reads past it return 0xFF.
+ * Unattached addresses NACK. Not thread-safe, wrap it in an async driver to share it.
+ */
+public final class TwiMemoryDriver extends TwiBlockDriver {
+
+    private static final class Device {
+
+        private final byte[] registers;
+        private int pointer = 0;
+
+        private Device(byte[] registers) {
+            this.registers = registers;
+        }
+
+    }
+
+    private final Device[] devices = new Device[128];
+
+    @Override
+    public void open() {
+
+    }
+
+    @Override
+    public void close() {
+        this.flushMetrics();
+    }
+
+    // Attaches a device at the 7-bit address, the register file is shared with the caller
+    public @NotNull TwiMemoryDriver attach(int address, byte[] registers) {
+        if(registers.length > 256) {
+            throw new IllegalArgumentException("Register file exceeds the 8-bit pointer range: " + registers.length);
+        }
+        this.devices[address & 0x7F] = new Device(registers);
+        return this;
+    }
+
+    public void detach(int address) {
+        this.devices[address & 0x7F] = null;
+    }
+
+    @Override
+    protected void createStartCondition() {
+
+    }
+
+    @Override
+    protected void createStopCondition() {
+
+    }
+
+    @Override
+    protected int writeBlock(int address, byte[] data, int offset, int length) {
+        Device device = this.devices[address & 0x7F];
+        if(device == null) {
+            return ADDRESS_NACK;
+        }
+        if(length == 0) {
+            return 0;
+        }
+        device.pointer = data[offset] & 0xFF;
+        // Bytes that would land past the register file are NACKed
+        int stored = Math.max(0, Math.min(length - 1, device.registers.length - device.pointer));
+        if(stored > 0) {
+            System.arraycopy(data, offset + 1, device.registers, device.pointer, stored);
+            device.pointer += stored;
+        }
+        return 1 + stored;
+    }
+
+    @Override
+    protected boolean readBlock(int address, byte[] data, int offset, int length) {
+        Device device = this.devices[address & 0x7F];
+        if(device == null) {
+            return false;
+        }
+        int available = Math.max(0, Math.min(length, device.registers.length - device.pointer));
+        if(available > 0) {
+            System.arraycopy(device.registers, device.pointer, data, offset, available);
+            device.pointer += available;
+        }
+        Arrays.fill(data, offset + available, offset + length, (byte) 0xFF);
+        return true;
+    }
+
+}
@@ -0,0 +1,456 @@
+package com.example.project.twi.scheduler;
+
+import com.example.project.twi.TwiDriver;
+import com.example.project.twi.exception.TwiDriverException;
+import com.example.project.twi.exception.TwiTransactionException;
+import com.example.project.twi.transaction.TwiTransaction;
+import com.example.project.twi.transaction.TwiTransactionSegment;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shares one TWI bus between several devices.
+ * Each device gets a {@link Device} handle, itself a {@link TwiDriver}, so existing code such as the UBX transport can use it unchanged.
+ * A single bus thread picks the next transaction in this order:
+ * devices within their bus-time budget before devices over it, then higher {@link Priority} classes,
+ * then the earliest deadline, then the device that received the least bus time in the current budget window.
+ * The scheduler is work-conserving: a device over budget is still served when nobody else is waiting.
+ * Within a device, transactions run earliest deadline first, and transactions without a deadline run in submission order.
+ * A device handle rejects transactions addressed to any other device with an {@link IllegalArgumentException}.
+ * An {@link Error} from the driver fails its transaction and stops the bus thread,
+ * every queued and later transaction then fails until the scheduler is closed and opened again.
+ */
+public final class TwiBusScheduler implements AutoCloseable {
+
+    public enum Priority {
+        CRITICAL,
+        NORMAL,
+        BACKGROUND,
+    }
+
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    /**
+     * Queueing statistics of a device, all durations in nanoseconds.
+     * Queueing delay is the time from submission until the transaction reaches the bus.
+     */
+    public record Stats(
+            long completed,
+            long failed,
+            long totalQueueDelay,
+            long maxQueueDelay,
+            long busTime,
+            long deadlineMisses
+    ) {
+
+        public long meanQueueDelay() {
+            long count = this.completed + this.failed;
+            return count == 0 ? 0 : this.totalQueueDelay / count;
+        }
+
+    }
+
+    private static final class Request {
+
+        private final @NotNull TwiTransaction transaction;
+        private final @NotNull CompletableFuture<TwiTransaction> future = new CompletableFuture<>();
+        private final long sequence;
+        private final long submitted;
+        private final long deadline;
+
+        private Request(@NotNull TwiTransaction transaction, long sequence, long submitted, long deadline) {
+            this.transaction = transaction;
+            this.sequence = sequence;
+            this.submitted = submitted;
+            this.deadline = deadline;
+        }
+
+        private boolean hasDeadline() {
+            return this.deadline != NO_DEADLINE;
+        }
+
+        // Deadlines first, then submission order
+        private static int compare(@NotNull Request a, @NotNull Request b) {
+            if(a.hasDeadline() != b.hasDeadline()) {
+                return a.hasDeadline() ? -1 : 1;
+            }
+            if(a.hasDeadline() && a.deadline != b.deadline) {
+                return a.deadline - b.deadline < 0 ? -1 : 1;
+            }
+            return Long.compare(a.sequence, b.sequence);
+        }
+
+    }
+
+    /**
+     * Handle for one device on the shared bus.
+     * Opening and closing the handle is a no-op, the bus itself is owned by the scheduler.
+     */
+    public final class Device implements TwiDriver {
+
+        private final int address;
+        private final @NotNull Priority priority;
+        private final long budget; // Bus time per window
+
+        // Guarded by the scheduler lock
+        private final PriorityQueue<Request> queue = new PriorityQueue<>(Request::compare);
+        private long windowBusTime = 0;
+        private long completed = 0;
+        private long failed = 0;
+        private long totalQueueDelay = 0;
+        private long maxQueueDelay = 0;
+        private long busTime = 0;
+        private long deadlineMisses = 0;
+
+        private Device(int address, @NotNull Priority priority, long budget) {
+            this.address = address;
+            this.priority = priority;
+            this.budget = budget;
+        }
+
+        public int address() {
+            return this.address;
+        }
+
+        public @NotNull Priority priority() {
+            return this.priority;
+        }
+
+        @Override
+        public void open() {
+
+        }
+
+        @Override
+        public void close() {
+
+        }
+
+        public @NotNull CompletableFuture<TwiTransaction> submitAsync(@NotNull TwiTransaction transaction) {
+            this.checkAddress(transaction);
+            return TwiBusScheduler.this.enqueue(this, transaction, NO_DEADLINE);
+        }
+
+        // Deadline is an absolute System.nanoTime() value
+        public @NotNull CompletableFuture<TwiTransaction> submitAsync(@NotNull TwiTransaction transaction, long deadline) {
+            this.checkAddress(transaction);
+            return TwiBusScheduler.this.enqueue(this, transaction, deadline(deadline));
+        }
+
+        @Override
+        public void submit(@NotNull TwiTransaction transaction) throws TwiDriverException, TwiTransactionException {
+            this.submitAndWait(transaction, NO_DEADLINE);
+        }
+
+        public void submit(@NotNull TwiTransaction transaction, long deadline) throws TwiDriverException, TwiTransactionException {
+            this.submitAndWait(transaction, deadline(deadline));
+        }
+
+        private void submitAndWait(@NotNull TwiTransaction transaction, long deadline) throws TwiDriverException, TwiTransactionException {
+            this.checkAddress(transaction);
+            if(Thread.currentThread() == TwiBusScheduler.this.busThread) {
+                // Re-entrant submission from a completion callback, waiting would deadlock
+                TwiBusScheduler.this.driver.submit(transaction);
+                return;
+            }
+            await(TwiBusScheduler.this.enqueue(this, transaction, deadline));
+        }
+
+        // A handle only carries its own device's transactions, so bus time and stats are charged to the right device
+        private void checkAddress(@NotNull TwiTransaction transaction) {
+            for(TwiTransactionSegment segment : transaction) {
+                if(segment.address() != this.address) {
+                    throw new IllegalArgumentException(String.format(
+                            "Transaction addresses 0x%02X, but this handle is for device 0x%02X", segment.address(), this.address));
+                }
+            }
+        }
+
+        public @NotNull Stats stats() {
+            ReentrantLock lock = TwiBusScheduler.this.lock;
+            lock.lock();
+            try {
+                return new Stats(this.completed, this.failed, this.totalQueueDelay, this.maxQueueDelay, this.busTime, this.deadlineMisses);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean overBudget() {
+            return this.budget != UNLIMITED && this.windowBusTime >= this.budget;
+        }
+
+    }
+
+    private final @NotNull TwiDriver driver;
+    private final long window;
+
+    private final @NotNull ReentrantLock lock = new ReentrantLock();
+    private final @NotNull Condition workAvailable = this.lock.newCondition();
+    private final @NotNull List<Device> devices = new CopyOnWriteArrayList<>();
+
+    // Guarded by the lock
+    private long sequence = 0;
+    private long windowStart = System.nanoTime();
+    private boolean running = false;
+    private volatile @Nullable Thread busThread = null;
+
+    public TwiBusScheduler(@NotNull TwiDriver driver) {
+        this(driver, TimeUnit.SECONDS.toNanos(1));
+    }
+
+    // Budgets are accounted per window of the given length in nanoseconds
+    public TwiBusScheduler(@NotNull TwiDriver driver, long window) {
+        if(window <= 0) {
+            throw new IllegalArgumentException("Budget window must be positive");
+        }
+        this.driver = driver;
+        this.window = window;
+    }
+
+    public @NotNull Device device(int address, @NotNull Priority priority) {
+        return this.device(address, priority, UNLIMITED);
+    }
+
+    // Budget is the bus time in nanoseconds the device may use per window before it is demoted
+    public @NotNull Device device(int address, @NotNull Priority priority, long budget) {
+        Device device = new Device(address, priority, budget);
+        this.devices.add(device);
+        return device;
+    }
+
+    public @NotNull List<Device> devices() {
+        return List.copyOf(this.devices);
+    }
+
+    public void open() throws TwiDriverException {
+        this.lock.lock();
+        try {
+            if(this.running) {
+                return;
+            }
+            if(this.busThread != null) {
+                throw new TwiDriverException("Bus thread died, close the scheduler before opening it again");
+            }
+            this.driver.open();
+            Thread thread = new Thread(this::run, "twi-bus-scheduler");
+            thread.setDaemon(true);
+            this.running = true;
+            this.busThread = thread;
+            thread.start();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws TwiDriverException {
+        Thread thread;
+        this.lock.lock();
+        try {
+            thread = this.busThread;
+            if(thread == null) {
+                return;
+            }
+            this.running = false;
+            this.busThread = null;
+            this.workAvailable.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+        if(thread != null && thread != Thread.currentThread()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TwiDriverException("Interrupted while stopping the bus thread", e);
+            }
+        }
+        this.stop();
+        this.driver.close();
+    }
+
+    // Marks the scheduler stopped and fails whatever was left behind
+    private void stop() {
+        List<Request> stranded = new ArrayList<>();
+        this.lock.lock();
+        try {
+            this.running = false;
+            for(Device device : this.devices) {
+                stranded.addAll(device.queue);
+                device.queue.clear();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        for(Request request : stranded) {
+            request.future.completeExceptionally(new TwiDriverException("Scheduler stopped before the transaction was submitted"));
+        }
+    }
+
+    private @NotNull CompletableFuture<TwiTransaction> enqueue(@NotNull Device device, @NotNull TwiTransaction transaction, long deadline) {
+        this.lock.lock();
+        try {
+            Request request = new Request(transaction, this.sequence++, System.nanoTime(), deadline);
+            if(!this.running) {
+                request.future.completeExceptionally(new TwiDriverException("Scheduler is not open"));
+                return request.future;
+            }
+            device.queue.add(request);
+            this.workAvailable.signal();
+            return request.future;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    // A caller's deadline must not collide with the marker for no deadline
+    private static long deadline(long deadline) {
+        return deadline == NO_DEADLINE ? deadline - 1 : deadline;
+    }
+
+    private static void await(@NotNull CompletableFuture<TwiTransaction> future) throws TwiDriverException, TwiTransactionException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TwiDriverException("Interrupted while waiting for transaction", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof TwiTransactionException ex) {
+                throw ex;
+            }
+            if(cause instanceof TwiDriverException ex) {
+                throw ex;
+            }
+            if(cause instanceof RuntimeException ex) {
+                throw ex;
+            }
+            if(cause instanceof Error error) {
+                throw error;
+            }
+            throw new TwiDriverException("Transaction failed on the bus thread", cause);
+        }
+    }
+
+    private void run() {
+        try {
+            while(true) {
+                Device device = null;
+                Request request;
+                this.lock.lock();
+                try {
+                    while(this.running && (device = this.select()) == null) {
+                        this.workAvailable.awaitUninterruptibly();
+                    }
+                    if(!this.running) {
+                        return;
+                    }
+                    request = device.queue.poll();
+                } finally {
+                    this.lock.unlock();
+                }
+                this.execute(device, request);
+            }
+        }
+        finally {
+            // Closing, or dying from an Error, either way nobody serves the queues anymore
+            this.stop();
+        }
+    }
+
+    // Called with the lock held
+    private @Nullable Device select() {
+        long now = System.nanoTime();
+        if(now - this.windowStart >= this.window) {
+            this.windowStart = now;
+            for(Device device : this.devices) {
+                device.windowBusTime = 0;
+            }
+        }
+        Device best = null;
+        for(Device device : this.devices) {
+            if(device.queue.isEmpty()) {
+                continue;
+            }
+            if(best == null || this.precedes(device, best)) {
+                best = device;
+            }
+        }
+        return best;
+    }
+
+    private boolean precedes(@NotNull Device a, @NotNull Device b) {
+        if(a.overBudget() != b.overBudget()) {
+            return !a.overBudget();
+        }
+        if(a.priority != b.priority) {
+            return a.priority.ordinal() < b.priority.ordinal();
+        }
+        Request ra = a.queue.peek();
+        Request rb = b.queue.peek();
+        if(ra.hasDeadline() != rb.hasDeadline()) {
+            return ra.hasDeadline();
+        }
+        if(ra.hasDeadline() && ra.deadline != rb.deadline) {
+            return ra.deadline - rb.deadline < 0;
+        }
+        // Fair share: least served in this window
+        if(a.windowBusTime != b.windowBusTime) {
+            return a.windowBusTime < b.windowBusTime;
+        }
+        return ra.sequence < rb.sequence;
+    }
+
+    private void execute(@NotNull Device device, @NotNull Request request) {
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            this.driver.submit(request.transaction);
+        } catch (Throwable e) {
+            // Stats and the future are settled whatever was thrown, an Error is rethrown after that
+            failure = e;
+        }
+        long end = System.nanoTime();
+        this.lock.lock();
+        try {
+            long delay = start - request.submitted;
+            device.totalQueueDelay += delay;
+            device.maxQueueDelay = Math.max(device.maxQueueDelay, delay);
+            device.busTime += end - start;
+            device.windowBusTime += end - start;
+            if(request.hasDeadline() && end - request.deadline > 0) {
+                device.deadlineMisses++;
+            }
+            if(failure == null) {
+                device.completed++;
+            } else {
+                device.failed++;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        // Complete outside the lock, callbacks may submit again
+        if(failure == null) {
+            request.future.complete(request.transaction);
+        } else {
+            request.future.completeExceptionally(failure);
+            if(failure instanceof Error error) {
+                throw error;
+            }
+        }
+    }
+
+}
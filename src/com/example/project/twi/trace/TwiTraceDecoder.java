@@ -0,0 +1,100 @@
+package com.example.project.twi.trace;
+
+import com.example.project.util.PackedReader;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Offline formatter for {@link TwiTraceRecorder} dumps.
+ * Prints one line per transaction in the same notation as {@link com.example.project.twi.transaction.TwiTransaction#toString()}.
+ * Can be run on a dump file: {@code java com.example.project.twi.trace.TwiTraceDecoder trace.bin}
+ */
+public final class TwiTraceDecoder {
+
+    private TwiTraceDecoder() {
+
+    }
+
+    public static void main(String[] args) throws IOException {
+        if(args.length != 1) {
+            System.err.println("Usage: TwiTraceDecoder <dump file>");
+            System.exit(1);
+        }
+        StringBuilder sb = new StringBuilder();
+        decode(Files.readAllBytes(Path.of(args[0])), sb);
+        System.out.print(sb);
+    }
+
+    public static void decode(byte[] dump, @NotNull Appendable out) throws IOException {
+        PackedReader reader = new PackedReader(dump);
+        if(dump.length < TwiTraceRecorder.HEADER_SIZE || reader.readI4() != TwiTraceRecorder.MAGIC) {
+            throw new IllegalArgumentException("Not a TWI trace dump");
+        }
+        int slotSize = (int) reader.readU4();
+        int slotCount = (int) reader.readU4();
+        reader.readU4(); // Reserved
+        long written = reader.readI8();
+        long anchorMillis = reader.readI8();
+
+        long first = Math.max(0, written - slotCount);
+        long currentSequence = -1;
+        StringBuilder line = new StringBuilder();
+        for(long n = first; n < written; n++) {
+            int slot = TwiTraceRecorder.HEADER_SIZE + (int) (n % slotCount) * slotSize;
+            long timestamp = reader.peekI8(slot);
+            long sequence = reader.peekU4(slot + 8);
+            int index = reader.peekU1(slot + 12);
+            int count = reader.peekU1(slot + 13);
+            int address = reader.peekU1(slot + 14);
+            boolean isRead = reader.peekU1(slot + 15) == 1;
+            int status = reader.peekU1(slot + 16);
+            int length = reader.peekU2(slot + 18);
+
+            if(sequence != currentSequence) {
+                currentSequence = sequence;
+                line.setLength(0);
+                line
+                        .append(Instant.ofEpochMilli(anchorMillis + timestamp / 1_000_000))
+                        .append(" #")
+                        .append(sequence)
+                        .append(' ');
+            }
+            line.append(index == 0 ? "[S]" : "[Sr]");
+            line
+                    .append("[AD:")
+                    .append(String.format("%02X", address))
+                    .append('+')
+                    .append(isRead ? 'R' : 'W')
+                    .append(']');
+            String prefix = isRead ? "[R:" : "[W:";
+            int captured = Math.min(length, slotSize - TwiTraceRecorder.SLOT_HEADER_SIZE);
+            for(int i = 0; i < captured; i++) {
+                line
+                        .append(prefix)
+                        .append(String.format("%02X", reader.peekU1(slot + TwiTraceRecorder.SLOT_HEADER_SIZE + i)))
+                        .append(']');
+            }
+            if(captured < length) {
+                line.append("[...").append(length - captured).append(" more]");
+            }
+            if(index == count - 1) {
+                line
+                        .append("[P] ")
+                        .append(TwiTraceRecorder.Status.values()[status])
+                        .append('\n');
+                out.append(line);
+                line.setLength(0);
+                currentSequence = -1;
+            }
+        }
+        // Transaction cut off at the end of the dump
+        if(!line.isEmpty()) {
+            out.append(line).append("(incomplete)\n");
+        }
+    }
+
+}
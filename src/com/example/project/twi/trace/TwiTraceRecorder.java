@@ -0,0 +1,145 @@
+package com.example.project.twi.trace;
+
+import com.example.project.twi.exception.TwiDriverException;
+import com.example.project.twi.exception.TwiNackException;
+import com.example.project.twi.transaction.TwiTransaction;
+import com.example.project.twi.transaction.TwiTransactionSegment;
+import com.example.project.util.PackedWriter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Binary bus trace kept in a preallocated ring of fixed-size slots, one slot per transaction segment.
+ * Recording copies a few header fields and the leading data bytes, nothing is formatted.
+ * Once the ring is full, the oldest slots are overwritten.
+ * Use {@link #snapshot()} to take a dump and {@link TwiTraceDecoder} to turn it into text.
+ * <p>
+ * Slot layout (little-endian):
+ * <pre>
+ *  0  I8  timestamp (System.nanoTime)
+ *  8  U4  transaction sequence number
+ * 12  U1  segment index
+ * 13  U1  segment count
+ * 14  U1  7-bit address
+ * 15  U1  direction (0 = write, 1 = read)
+ * 16  U1  transaction status, see {@link Status}
+ * 17  U1  reserved
+ * 18  U2  segment length
+ * 20  ... data, truncated to the slot size
+ * </pre>
+ */
+public final class TwiTraceRecorder {
+
+    public enum Status {
+        OK,
+        NACK_ADDRESS,
+        NACK_DATA_WRITE,
+        TRANSACTION_ERROR,
+        DRIVER_ERROR;
+
+        public static @NotNull Status of(@Nullable Throwable failure) {
+            if(failure == null) {
+                return OK;
+            }
+            if(failure instanceof TwiNackException e) {
+                return e.stage() == TwiNackException.Stage.ADDRESS ? NACK_ADDRESS : NACK_DATA_WRITE;
+            }
+            if(failure instanceof TwiDriverException) {
+                return DRIVER_ERROR;
+            }
+            return TRANSACTION_ERROR;
+        }
+    }
+
+    static final int MAGIC = 0x52545754; // "TWTR"
+    static final int HEADER_SIZE = 32;
+    static final int SLOT_HEADER_SIZE = 20;
+
+    private final byte[] ring;
+    private final @NotNull PackedWriter writer;
+    private final int slotSize;
+    private final int slotCount;
+    private final int mask;
+
+    // Wall clock anchor for converting timestamps
+    private final long baseMillis;
+    private final long baseNanos;
+
+    private long written = 0; // Slots written so far
+    private int sequence = 0;
+
+    public TwiTraceRecorder() {
+        this(4096, 64);
+    }
+
+    // Slot count is rounded up to a power of two, slot size includes the 20-byte slot header
+    public TwiTraceRecorder(int slotCount, int slotSize) {
+        if(slotCount <= 0) {
+            throw new IllegalArgumentException("Slot count must be positive");
+        }
+        if(slotSize <= SLOT_HEADER_SIZE) {
+            throw new IllegalArgumentException("Slot size must exceed " + SLOT_HEADER_SIZE + " bytes");
+        }
+        int count = Integer.highestOneBit(slotCount);
+        if(count < slotCount) {
+            count <<= 1;
+        }
+        this.slotCount = count;
+        this.slotSize = slotSize;
+        this.mask = count - 1;
+        this.ring = new byte[count * slotSize];
+        this.writer = new PackedWriter(this.ring);
+        this.baseMillis = System.currentTimeMillis();
+        this.baseNanos = System.nanoTime();
+    }
+
+    public synchronized void record(@NotNull TwiTransaction transaction, long timestamp, @NotNull Status status) {
+        List<TwiTransactionSegment> segments = transaction.segments();
+        int count = segments.size();
+        int sequence = this.sequence++;
+        for(int i = 0; i < count; i++) {
+            TwiTransactionSegment segment = segments.get(i);
+            int slot = (int) (this.written++ & this.mask) * this.slotSize;
+            int length = segment.length();
+            PackedWriter writer = this.writer;
+            writer.pokeI8(slot, timestamp);
+            writer.pokeI4(slot + 8, sequence);
+            writer.pokeU1(slot + 12, i);
+            writer.pokeU1(slot + 13, count);
+            writer.pokeU1(slot + 14, segment.address() & 0x7F);
+            writer.pokeU1(slot + 15, segment.direction() == TwiTransactionSegment.Direction.READ ? 1 : 0);
+            writer.pokeU1(slot + 16, status.ordinal());
+            writer.pokeU1(slot + 17, 0);
+            writer.pokeU2(slot + 18, Math.min(length, 0xFFFF));
+            writer.pokeArray(slot + SLOT_HEADER_SIZE, segment.data(), 0, Math.min(length, this.slotSize - SLOT_HEADER_SIZE));
+        }
+    }
+
+    public synchronized long written() {
+        return this.written;
+    }
+
+    public synchronized void clear() {
+        this.written = 0;
+    }
+
+    /**
+     * Copies the ring into a self-describing dump.
+     * Header: U4 magic, U4 slot size, U4 slot count, U4 reserved, I8 slots written, I8 wall clock millis, then the slots.
+     * The wall clock millis are converted to the timestamp base, i.e. they correspond to timestamp 0.
+     */
+    public synchronized byte[] snapshot() {
+        PackedWriter dump = new PackedWriter(HEADER_SIZE + this.ring.length);
+        dump.writeU4(MAGIC);
+        dump.writeU4(this.slotSize);
+        dump.writeU4(this.slotCount);
+        dump.writeU4(0);
+        dump.writeI8(this.written);
+        dump.writeI8(this.baseMillis - this.baseNanos / 1_000_000);
+        dump.writeArray(this.ring);
+        return dump.data();
+    }
+
+}
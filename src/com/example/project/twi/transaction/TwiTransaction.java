@@ -12,9 +12,13 @@ import java.util.List;
 import java.util.function.Consumer;
 
 /**
- * Immutable container class representing a transaction.
- * Although immutable, the data bytes inside each segment can be mutated.
+ * A transaction: a fixed list of segments, sent in order between a start and a stop condition.
+ * Only the list is fixed. Segment lengths and data are mutable state, changed by {@link #prepareRead(int, int)},
+ * {@link #prepareWrite(int, int)} and by every submit that reads into the segment buffers.
  * See {@link TwiTransactionSegment} for more details.
+ * A built transaction can be submitted any number of times, reusing its segments and read buffers,
+ * so build it once for repeated bus accesses like the UBX transport does across polls.
+ * A transaction must not be submitted concurrently, nor prepared or read while a submit is in progress.
  */
 public final class TwiTransaction implements Iterable<TwiTransactionSegment> {
 
@@ -50,10 +54,41 @@ public final class TwiTransaction implements Iterable<TwiTransactionSegment> {
         return this;
     }
 
+    // Backing buffer of the segment, see getSegmentLength for the transferred length
     public byte[] getSegmentData(int index) {
         return this.segments.get(index).data();
     }
 
+    public int getSegmentLength(int index) {
+        return this.segments.get(index).length();
+    }
+
+    /**
+     * Sets the length of a read segment before resubmitting this transaction.
+     * The read buffer is kept when large enough, so it settles at the largest length seen.
+     */
+    public @NotNull TwiTransaction prepareRead(int index, int length) {
+        TwiTransactionSegment segment = this.segments.get(index);
+        if(segment.direction() != TwiTransactionSegment.Direction.READ) {
+            throw new IllegalArgumentException("Segment " + index + " is not a read segment");
+        }
+        segment.resize(length);
+        return this;
+    }
+
+    /**
+     * Sets the length of a write segment before filling its buffer and resubmitting this transaction.
+     * A grown buffer is not copied, write the data through getSegmentData afterwards.
+     */
+    public @NotNull TwiTransaction prepareWrite(int index, int length) {
+        TwiTransactionSegment segment = this.segments.get(index);
+        if(segment.direction() != TwiTransactionSegment.Direction.WRITE) {
+            throw new IllegalArgumentException("Segment " + index + " is not a write segment");
+        }
+        segment.resize(length);
+        return this;
+    }
+
     public void getSegmentDataThen(int index, @NotNull Consumer<byte[]> consumer) {
         consumer.accept(this.getSegmentData(index));
     }
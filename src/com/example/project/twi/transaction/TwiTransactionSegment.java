@@ -4,10 +4,12 @@ import com.example.project.util.PackedUtils;
 import org.jetbrains.annotations.NotNull;
 
 /**
- * Immutable class representing a transaction segment.
- * Although immutable, the byte[] arrays are mutable.
+ * One addressed write or read of a transaction.
+ * Direction and address are fixed, while the length and buffer can be changed by the owning transaction for reuse,
+ * see {@link TwiTransaction#prepareRead(int, int)} and {@link TwiTransaction#prepareWrite(int, int)}.
  * For write segments, the data is not mutated by the driver.
  * For read segments, the data is filled in by the driver during handling.
+ * Only the first {@link #length()} bytes of {@link #data()} take part in the transfer, the buffer may be longer.
  */
 public final class TwiTransactionSegment {
 
@@ -45,7 +47,8 @@ public final class TwiTransactionSegment {
     private final @NotNull Direction direction;
     private final int address;
 
-    private final byte[] data;
+    private byte[] data;
+    private int length;
 
     private TwiTransactionSegment(
             @NotNull Direction direction,
@@ -55,6 +58,7 @@ public final class TwiTransactionSegment {
         this.direction = direction;
         this.address = address;
         this.data = data;
+        this.length = data.length;
     }
 
     public @NotNull Direction direction() {
@@ -65,10 +69,30 @@ public final class TwiTransactionSegment {
         return this.address;
     }
 
+    /**
+     * Backing buffer, shared with the caller and replaced when the segment grows.
+     * Its length is not the transfer length: a reused segment keeps its largest buffer, use {@link #length()}.
+     */
     public byte[] data() {
         return this.data;
     }
 
+    // Bytes transferred, at most data().length
+    public int length() {
+        return this.length;
+    }
+
+    // Reuses the buffer when it is large enough, otherwise grows it to the new length
+    void resize(int length) {
+        if(length < 0) {
+            throw new IllegalArgumentException("Negative segment length: " + length);
+        }
+        if(length > this.data.length) {
+            this.data = new byte[length];
+        }
+        this.length = length;
+    }
+
     public byte addressByte(int address, boolean isRead) {
         return computeAddressByte(address, isRead);
     }
@@ -100,10 +124,10 @@ public final class TwiTransactionSegment {
 
         // Data bytes
         String prefix = this.direction == Direction.READ ? "[R:" : "[W:";
-        for (byte b : this.data) {
+        for (int i = 0; i < this.length; i++) {
             sb
                     .append(prefix)
-                    .append(String.format("%02X", b & 0xFF))
+                    .append(String.format("%02X", this.data[i] & 0xFF))
                     .append(']');
         }
     }
@@ -0,0 +1,254 @@
+package com.example.project.ubx.capture;
+
+import com.example.project.ubx.frame.UbxFrame;
+import com.example.project.ubx.frame.exception.UbxTransportException;
+import com.example.project.ubx.frame.transport.UbxTransport;
+import com.example.project.ubx.message.UbxMessage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * Records every frame received through a {@link UbxTransport} into append-only, memory-mapped segment files.
+ * Sent frames pass through unrecorded. Replay a capture with {@link UbxReplayTransport}.
+ * Recording copies the raw frame bytes into the mapping, nothing is encoded or flushed per frame.
+ * A full segment is closed and the next one is created in the same directory.
+ * The data end of a segment is stored with release ordering after each record, and is final before the next segment exists,
+ * so a {@link UbxReplayTransport} can follow a capture while it is written.
+ * Not thread-safe, like the transports it wraps.
+ * <p>
+ * Segment layout (little-endian):
+ * <pre>
+ *  0  U4  magic "UBXC"
+ *  4  U4  format version
+ *  8  U4  segment index
+ * 12  U4  flags, bit 0 marks the last segment of a closed capture (written as 0 before)
+ * 16  I8  end of the recorded data, released after every record
+ * 24  I8  wall clock millis corresponding to timestamp 0
+ * 32  ... records: I8 timestamp (nanoseconds), then the frame from sync bytes to checksum
+ * </pre>
+ */
+public final class UbxCaptureTransport implements UbxTransport, AutoCloseable {
+
+    public static @NotNull Builder builder(@NotNull UbxTransport transport, @NotNull Path directory) {
+        return new Builder(transport, directory);
+    }
+
+    public static final class Builder {
+
+        private final @NotNull UbxTransport transport;
+        private final @NotNull Path directory;
+        private @NotNull String prefix = DEFAULT_PREFIX;
+        private long segmentSize = 64L << 20;
+        private @NotNull LongSupplier clock = System::nanoTime;
+
+        private Builder(@NotNull UbxTransport transport, @NotNull Path directory) {
+            this.transport = transport;
+            this.directory = directory;
+        }
+
+        // Segment files are named <prefix>-<index>.ubxcap
+        public @NotNull Builder prefix(@NotNull String prefix) {
+            this.prefix = prefix;
+            return this;
+        }
+
+        // Mapped size of a segment file, must hold at least one frame of maximum length
+        public @NotNull Builder segmentSize(long segmentSize) {
+            if(segmentSize < HEADER_SIZE + RECORD_HEADER_SIZE + 65535 + 8 || segmentSize > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Segment size out of range: " + segmentSize);
+            }
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        // Nanosecond clock for the record timestamps, defaults to System.nanoTime
+        public @NotNull Builder clock(@NotNull LongSupplier clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public @NotNull UbxCaptureTransport build() throws IOException {
+            return new UbxCaptureTransport(this);
+        }
+
+    }
+
+    static final int MAGIC = 0x43584255; // "UBXC"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_HEADER_SIZE = 8;
+    static final int FLAGS_OFFSET = 12;
+    static final int FLAG_CLOSED = 1;
+    static final int DATA_END_OFFSET = 16;
+    static final String EXTENSION = ".ubxcap";
+    static final String DEFAULT_PREFIX = "capture";
+
+    // Data end and flags fields, release stores here and acquire loads in the replay
+    static final VarHandle DATA_END = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    static final VarHandle FLAGS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    static @NotNull String segmentName(@NotNull String prefix, int index) {
+        return String.format("%s-%06d%s", prefix, index, EXTENSION);
+    }
+
+    // Index of a segment file of the capture with the given prefix, -1 for any other file
+    static int segmentIndex(@NotNull String fileName, @NotNull String prefix) {
+        int start = prefix.length() + 1;
+        int end = fileName.length() - EXTENSION.length();
+        if(end - start < 6 || !fileName.startsWith(prefix) || fileName.charAt(prefix.length()) != '-' || !fileName.endsWith(EXTENSION)) {
+            return -1;
+        }
+        int index = 0;
+        for(int i = start; i < end; i++) {
+            char c = fileName.charAt(i);
+            if(c < '0' || c > '9' || index > (Integer.MAX_VALUE - 9) / 10) {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index;
+    }
+
+    private final @NotNull UbxTransport transport;
+    private final @NotNull Path directory;
+    private final @NotNull String prefix;
+    private final long segmentSize;
+    private final @NotNull LongSupplier clock;
+    private final long baseMillis; // Wall clock at timestamp 0
+
+    private @Nullable FileChannel channel = null;
+    private @Nullable MappedByteBuffer segment = null;
+    private int segmentIndex = -1;
+
+    // Statistics
+    private long frames = 0;
+    private long bytes = 0;
+
+    private UbxCaptureTransport(@NotNull Builder builder) throws IOException {
+        this.transport = builder.transport;
+        this.directory = builder.directory;
+        this.prefix = builder.prefix;
+        this.segmentSize = builder.segmentSize;
+        this.clock = builder.clock;
+        this.baseMillis = System.currentTimeMillis() - this.clock.getAsLong() / 1_000_000;
+        Files.createDirectories(this.directory);
+        this.openSegment();
+    }
+
+    public long frames() {
+        return this.frames;
+    }
+
+    // Record bytes written, including timestamps
+    public long bytes() {
+        return this.bytes;
+    }
+
+    public int segments() {
+        return this.segmentIndex + 1;
+    }
+
+    @Override
+    public void send(@NotNull UbxFrame frame) throws UbxTransportException {
+        this.transport.send(frame);
+    }
+
+    @Override
+    public void send(@NotNull UbxMessage message) throws UbxTransportException {
+        this.transport.send(message);
+    }
+
+    @Override
+    public @NotNull Optional<UbxFrame> poll() throws UbxTransportException {
+        Optional<UbxFrame> frame = this.transport.poll();
+        if(frame.isPresent()) {
+            try {
+                this.record(frame.get());
+            } catch (IOException e) {
+                throw new UbxTransportException("Failed to record frame", e);
+            }
+        }
+        return frame;
+    }
+
+    // Flushes the mapped segment to the file system
+    public void flush() {
+        if(this.segment != null) {
+            this.segment.force();
+        }
+    }
+
+    // Marks the last segment, so a replay knows the capture is complete
+    @Override
+    public void close() throws IOException {
+        MappedByteBuffer segment = this.segment;
+        if(segment != null) {
+            FLAGS.setRelease(segment, FLAGS_OFFSET, FLAG_CLOSED);
+        }
+        this.closeSegment();
+    }
+
+    private void record(@NotNull UbxFrame frame) throws IOException {
+        int length = RECORD_HEADER_SIZE + frame.length() + 8;
+        MappedByteBuffer segment = this.segment;
+        if(segment == null) {
+            throw new IOException("Capture is closed");
+        }
+        if(segment.remaining() < length) {
+            this.closeSegment();
+            this.openSegment();
+            segment = this.segment;
+        }
+        segment.putLong(this.clock.getAsLong());
+        frame.writeTo(segment);
+        // Readers of a live capture see the record only once it is complete
+        DATA_END.setRelease(segment, DATA_END_OFFSET, (long) segment.position());
+        this.frames++;
+        this.bytes += length;
+    }
+
+    private void openSegment() throws IOException {
+        this.segmentIndex++;
+        Path path = this.directory.resolve(segmentName(this.prefix, this.segmentIndex));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, this.segmentSize);
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        segment.putInt(MAGIC);
+        segment.putInt(VERSION);
+        segment.putInt(this.segmentIndex);
+        segment.putInt(0);
+        segment.putLong(HEADER_SIZE);
+        segment.putLong(this.baseMillis);
+        this.channel = channel;
+        this.segment = segment;
+    }
+
+    // Cuts the unused tail off the file, the mapping is dropped and never touched again
+    private void closeSegment() throws IOException {
+        MappedByteBuffer segment = this.segment;
+        FileChannel channel = this.channel;
+        if(segment == null || channel == null) {
+            return;
+        }
+        int end = segment.position();
+        segment.force();
+        this.segment = null;
+        this.channel = null;
+        try (channel) {
+            channel.truncate(end);
+        }
+    }
+
+}
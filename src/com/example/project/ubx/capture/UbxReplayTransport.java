@@ -0,0 +1,319 @@
+package com.example.project.ubx.capture;
+
+import com.example.project.ubx.frame.UbxFrame;
+import com.example.project.ubx.frame.UbxFrameDecoder;
+import com.example.project.ubx.frame.transport.UbxTransport;
+import com.example.project.ubx.message.UbxMessage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Serves the frames of a {@link UbxCaptureTransport} capture as a {@link UbxTransport}.
+ * Segments are memory-mapped read-only and their bytes run through a {@link UbxFrameDecoder},
+ * so replay exercises the same framing and checksum path as a live transport.
+ * Frames come either as fast as they are polled or in recorded time, optionally scaled.
+ * In recorded time a poll returns empty until the next frame is due, like a live receiver with nothing pending.
+ * A capture still being written is followed: the last segment is re-read for its data end, and once it is exhausted
+ * the directory is listed again for segments created since, at most every {@link #RELIST_INTERVAL} nanoseconds.
+ * Listing stops for good at the segment the capture marked as its last on close.
+ * Only the segments of the capture with the configured prefix are replayed, others may share the directory.
+ * Sent frames are discarded. Not thread-safe.
+ */
+public final class UbxReplayTransport implements UbxTransport, AutoCloseable {
+
+    public static @NotNull Builder builder(@NotNull Path directory) {
+        return new Builder(directory);
+    }
+
+    public static final class Builder {
+
+        private final @NotNull Path directory;
+        private @NotNull String prefix = UbxCaptureTransport.DEFAULT_PREFIX;
+        private double speed = 0;
+        private @NotNull LongSupplier clock = System::nanoTime;
+
+        private Builder(@NotNull Path directory) {
+            this.directory = directory;
+        }
+
+        // Prefix the capture was recorded with, see UbxCaptureTransport.Builder.prefix
+        public @NotNull Builder prefix(@NotNull String prefix) {
+            this.prefix = prefix;
+            return this;
+        }
+
+        // Replays in recorded time, 2.0 runs twice as fast
+        public @NotNull Builder realTime(double speed) {
+            if(!(speed > 0)) {
+                throw new IllegalArgumentException("Speed must be positive: " + speed);
+            }
+            this.speed = speed;
+            return this;
+        }
+
+        // Nanosecond clock for recorded-time replay, defaults to System.nanoTime
+        public @NotNull Builder clock(@NotNull LongSupplier clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public @NotNull UbxReplayTransport build() throws IOException {
+            return new UbxReplayTransport(this);
+        }
+
+    }
+
+    public static final long RELIST_INTERVAL = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final @NotNull Path directory;
+    private final @NotNull String prefix;
+    private final @NotNull List<Path> segments = new ArrayList<>(); // By index, as of the last listing
+    private final double speed; // 0 for as fast as possible
+    private final @NotNull LongSupplier clock;
+
+    private final @NotNull UbxFrameDecoder decoder = new UbxFrameDecoder(1 << 17);
+
+    // Current segment
+    private int segmentIndex = -1;
+    private @Nullable MappedByteBuffer segment = null;
+    private @Nullable ByteBuffer input = null; // Duplicate handed to the decoder
+    private int position = 0;
+    private int end = 0;
+    private boolean closed = false;
+    private boolean complete = false; // The last segment of a closed capture was reached
+    private long listed = 0; // System.nanoTime of the last listing
+
+    // Recorded-time anchor
+    private long startTimestamp = 0;
+    private long startTime = 0;
+    private boolean started = false;
+
+    // Statistics
+    private long frames = 0;
+    private long bytes = 0;
+    private long sent = 0;
+
+    private UbxReplayTransport(@NotNull Builder builder) throws IOException {
+        this.directory = builder.directory;
+        this.prefix = builder.prefix;
+        this.list();
+        this.speed = builder.speed;
+        this.clock = builder.clock;
+    }
+
+    public long frames() {
+        return this.frames;
+    }
+
+    // Frame bytes fed to the decoder
+    public long bytes() {
+        return this.bytes;
+    }
+
+    public long sent() {
+        return this.sent;
+    }
+
+    // True once every recorded frame has been served
+    public boolean finished() {
+        return this.decoder.available() == 0 && !this.hasRecord();
+    }
+
+    // Starts over from the first segment, the recorded-time anchor is taken again
+    public void rewind() {
+        this.segmentIndex = -1;
+        this.segment = null;
+        this.input = null;
+        this.position = 0;
+        this.end = 0;
+        this.started = false;
+        this.decoder.reset();
+    }
+
+    @Override
+    public void send(@NotNull UbxFrame frame) {
+        this.sent++;
+    }
+
+    @Override
+    public void send(@NotNull UbxMessage message) {
+        this.sent++;
+    }
+
+    @Override
+    public @NotNull Optional<UbxFrame> poll() {
+        while(true) {
+            Optional<UbxFrame> frame = this.decoder.next();
+            if(frame.isPresent()) {
+                this.frames++;
+                return frame;
+            }
+            if(!this.hasRecord()) {
+                return Optional.empty();
+            }
+            MappedByteBuffer segment = this.segment;
+            ByteBuffer input = this.input;
+            long timestamp = segment.getLong(this.position);
+            if(this.speed > 0 && !this.due(timestamp)) {
+                return Optional.empty();
+            }
+            int start = this.position + UbxCaptureTransport.RECORD_HEADER_SIZE;
+            int length = (segment.getShort(start + 4) & 0xFFFF) + 8;
+            if(start + length > this.end) {
+                // Corrupt length, skip the rest of the segment
+                this.position = this.end;
+                continue;
+            }
+            input.limit(start + length).position(start);
+            this.decoder.feed(input);
+            this.position = start + length;
+            this.bytes += length;
+        }
+    }
+
+    @Override
+    public void close() {
+        this.segment = null;
+        this.input = null;
+        this.segmentIndex = this.segments.size();
+        this.closed = true;
+    }
+
+    private boolean due(long timestamp) {
+        long now = this.clock.getAsLong();
+        if(!this.started) {
+            this.started = true;
+            this.startTimestamp = timestamp;
+            this.startTime = now;
+        }
+        long due = this.startTime + (long) ((timestamp - this.startTimestamp) / this.speed);
+        return now - due >= 0;
+    }
+
+    // Moves on to the next segment when the current one is exhausted
+    private boolean hasRecord() {
+        while(true) {
+            MappedByteBuffer segment = this.segment;
+            if(segment != null) {
+                if(this.position + UbxCaptureTransport.RECORD_HEADER_SIZE + 8 <= this.end) {
+                    return true;
+                }
+                // A capture still being written may have grown
+                if(this.grown(segment)) {
+                    continue;
+                }
+            }
+            if(this.segmentIndex + 1 >= this.segments.size()) {
+                if(this.closed || this.complete) {
+                    return false;
+                }
+                if(segment != null && this.last(segment)) {
+                    // Marked after its final record, take that end before calling the capture complete
+                    if(this.grown(segment)) {
+                        continue;
+                    }
+                    this.complete = true;
+                    return false;
+                }
+                // or rolled over to a new segment
+                if(!this.relist()) {
+                    return false;
+                }
+                // The writer finished the current segment before creating the next, take its final end
+                if(segment != null && this.grown(segment)) {
+                    continue;
+                }
+            }
+            this.segmentIndex++;
+            this.segment = null;
+            this.input = null;
+            try {
+                this.map(this.segments.get(this.segmentIndex));
+            } catch (IOException e) {
+                this.segment = null;
+                if(this.segmentIndex + 1 >= this.segments.size()) {
+                    // The newest segment may still be being created, try it again on the next poll
+                    this.segmentIndex--;
+                    return false;
+                }
+                // Unreadable segment, skip it
+            }
+        }
+    }
+
+    private boolean grown(@NotNull MappedByteBuffer segment) {
+        long end = (long) UbxCaptureTransport.DATA_END.getAcquire(segment, UbxCaptureTransport.DATA_END_OFFSET);
+        if(end > this.end && end <= segment.capacity()) {
+            this.end = (int) end;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean last(@NotNull MappedByteBuffer segment) {
+        int flags = (int) UbxCaptureTransport.FLAGS.getAcquire(segment, UbxCaptureTransport.FLAGS_OFFSET);
+        return (flags & UbxCaptureTransport.FLAG_CLOSED) != 0;
+    }
+
+    // True if segments were added since the last listing, lists at most once per RELIST_INTERVAL
+    private boolean relist() {
+        if(System.nanoTime() - this.listed < RELIST_INTERVAL) {
+            return false;
+        }
+        int known = this.segments.size();
+        try {
+            this.list();
+        } catch (IOException e) {
+            return false;
+        }
+        return this.segments.size() > known;
+    }
+
+    private void list() throws IOException {
+        this.listed = System.nanoTime();
+        try (Stream<Path> files = Files.list(this.directory)) {
+            List<Path> segments = files
+                    .filter(path -> this.index(path) >= 0)
+                    .sorted(Comparator.comparingInt(this::index))
+                    .toList();
+            this.segments.clear();
+            this.segments.addAll(segments);
+        }
+    }
+
+    private int index(@NotNull Path path) {
+        return UbxCaptureTransport.segmentIndex(path.getFileName().toString(), this.prefix);
+    }
+
+    private void map(@NotNull Path path) throws IOException {
+        MappedByteBuffer segment;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        if(segment.capacity() < UbxCaptureTransport.HEADER_SIZE || segment.getInt(0) != UbxCaptureTransport.MAGIC) {
+            throw new IOException("Not a UBX capture segment: " + path);
+        }
+        this.segment = segment;
+        this.input = segment.duplicate();
+        this.position = UbxCaptureTransport.HEADER_SIZE;
+        this.end = (int) Math.min((long) UbxCaptureTransport.DATA_END.getAcquire(segment, UbxCaptureTransport.DATA_END_OFFSET), segment.capacity());
+    }
+
+}
@@ -0,0 +1,749 @@
+package com.example.project.ubx.codegen;
+
+import com.example.project.ubx.message.UbxMessageClass;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Compiles a UBX message schema into message classes.
+ * For every message it generates the {@link com.example.project.ubx.message.UbxMessage.Type},
+ * a straight-line decoder and encoder working on fixed payload offsets, length validation,
+ * a flyweight {@link com.example.project.ubx.message.UbxMessageView} and, if requested, a poll message.
+ * The types are listed in one generated {@code UbxMessageTypes} class, registered by {@link com.example.project.ubx.message.UbxMessageFactory}.
+ * Generated code uses plain {@link com.example.project.util.PackedInput} and {@link com.example.project.util.PackedOutput} calls, no reflection.
+ * See schema/ubx-messages.schema for the format.
+ * <p>
+ * Usage: {@code java com.example.project.ubx.codegen.UbxSchemaCompiler schema/ubx-messages.schema src}
+ */
+public final class UbxSchemaCompiler {
+
+    private static final String BASE_PACKAGE = "com.example.project.ubx.message.type";
+
+    // Member names of the generated classes, not available as field names
+    private static final Set<String> RESERVED_NAMES = Set.of(
+            "type", "bind", "copy", "block", "decode", "encode", "validLength", "payloadLength", "writePayload", "serializePayload", "poll", "flatten", "send"
+    );
+
+    private enum Kind {
+        U1(1, "int", "U1"),
+        I1(1, "int", "I1"),
+        X1(1, "int", "U1"),
+        U2(2, "int", "U2"),
+        I2(2, "int", "I2"),
+        X2(2, "int", "U2"),
+        U4(4, "long", "U4"),
+        I4(4, "int", "I4"),
+        X4(4, "long", "U4"),
+        R4(4, "float", "R4"),
+        R8(8, "double", "R8"),
+        CH(1, "char", "Ch");
+
+        private final int size;
+        private final @NotNull String javaType;
+        private final @NotNull String accessor; // Suffix of the PackedInput/PackedOutput methods
+
+        Kind(int size, @NotNull String javaType, @NotNull String accessor) {
+            this.size = size;
+            this.javaType = javaType;
+            this.accessor = accessor;
+        }
+    }
+
+    private record Field(@NotNull Kind kind, int count, @NotNull String name, @NotNull String comment, int offset) {
+
+        private boolean isArray() {
+            return this.count > 1;
+        }
+
+        private boolean isReserved() {
+            return this.name.startsWith("reserved");
+        }
+
+        private int size() {
+            return this.kind.size * this.count;
+        }
+
+        private @NotNull String javaType() {
+            return this.isArray() ? "byte[]" : this.kind.javaType;
+        }
+
+        private @NotNull String typeComment() {
+            return this.isArray() ? this.kind.name() + "[" + this.count + "]" : this.kind.name();
+        }
+
+        private @NotNull String peek(@NotNull String reader, @NotNull String offset) {
+            if(this.isArray()) {
+                return reader + ".peekArray(" + offset + ", " + this.count + ")";
+            }
+            return reader + ".peek" + this.kind.accessor + "(" + offset + ")";
+        }
+
+        private @NotNull String poke(@NotNull String writer, @NotNull String offset, @NotNull String value) {
+            if(this.isArray()) {
+                return writer + ".pokeArray(" + offset + ", " + value + ");";
+            }
+            return writer + ".poke" + this.kind.accessor + "(" + offset + ", " + value + ");";
+        }
+
+        // Reserved bytes are written explicitly, the output may be a reused frame buffer
+        private @NotNull List<String> zero(@NotNull String writer, @NotNull String base) {
+            List<String> pokes = new ArrayList<>();
+            int position = 0;
+            while(position < this.size()) {
+                int remaining = this.size() - position;
+                String offset = UbxSchemaCompiler.offset(base, this.offset + position);
+                if(remaining >= 4) {
+                    pokes.add(writer + ".pokeI4(" + offset + ", 0);");
+                    position += 4;
+                } else if(remaining >= 2) {
+                    pokes.add(writer + ".pokeI2(" + offset + ", 0);");
+                    position += 2;
+                } else {
+                    pokes.add(writer + ".pokeU1(" + offset + ", 0);");
+                    position += 1;
+                }
+            }
+            return pokes;
+        }
+
+    }
+
+    private record Block(@NotNull String list, @NotNull String className, @NotNull Field countField, @NotNull List<Field> fields, int length) {
+
+    }
+
+    private record Message(
+            @NotNull UbxMessageClass messageClass,
+            @NotNull String name,
+            int id,
+            boolean poll,
+            @NotNull String description,
+            @NotNull List<Field> header,
+            int headerLength,
+            @Nullable Block block
+    ) {
+
+        private @NotNull String className() {
+            return "UbxMsg" + capitalize(this.messageClass.name()) + capitalize(this.name);
+        }
+
+        private @NotNull String packageName() {
+            return BASE_PACKAGE + "." + this.messageClass.name().toLowerCase(Locale.ROOT);
+        }
+
+        private @NotNull String typeName() {
+            return "UbxMsg" + capitalize(this.messageClass.name()) + "Type";
+        }
+
+    }
+
+    private static final class MessageBuilder {
+
+        private final @NotNull UbxMessageClass messageClass;
+        private final @NotNull String name;
+        private final int id;
+        private final boolean poll;
+        private final @NotNull String description;
+
+        private final @NotNull List<Field> header = new ArrayList<>();
+        private final @NotNull Set<String> names = new HashSet<>();
+        private int headerLength = 0;
+
+        // Repeated block, open while blockFields is not null
+        private @Nullable String list;
+        private @Nullable String blockClass;
+        private @Nullable Field countField;
+        private @Nullable List<Field> blockFields;
+        private int blockLength = 0;
+        private @Nullable Block block;
+
+        private MessageBuilder(@NotNull UbxMessageClass messageClass, @NotNull String name, int id, boolean poll, @NotNull String description) {
+            this.messageClass = messageClass;
+            this.name = name;
+            this.id = id;
+            this.poll = poll;
+            this.description = description;
+        }
+
+        // <class> <name> <id> [poll] <description>
+        private static @NotNull MessageBuilder of(@NotNull String declaration) {
+            String[] tokens = declaration.split("\\s+", 4);
+            if(tokens.length < 4) {
+                throw new IllegalArgumentException("Expected: message <class> <name> <id> [poll] <description>");
+            }
+            String description = tokens[3];
+            boolean poll = description.startsWith("poll ");
+            if(poll) {
+                description = description.substring(5).strip();
+            }
+            int id = Integer.decode(tokens[2]);
+            if(id < 0 || id > 0xFF) {
+                throw new IllegalArgumentException("Message id out of range: " + tokens[2]);
+            }
+            return new MessageBuilder(UbxMessageClass.valueOf(tokens[0]), tokens[1], id, poll, description);
+        }
+
+        // <type>[count] <name> <comment>
+        private void field(@NotNull String type, @NotNull String rest) {
+            if(this.block != null) {
+                throw new IllegalArgumentException("Fields after a repeated block are not supported");
+            }
+            int count = 1;
+            int bracket = type.indexOf('[');
+            if(bracket >= 0) {
+                if(!type.endsWith("]")) {
+                    throw new IllegalArgumentException("Malformed array type: " + type);
+                }
+                count = Integer.parseInt(type.substring(bracket + 1, type.length() - 1));
+                type = type.substring(0, bracket);
+            }
+            Kind kind = Kind.valueOf(type);
+            if(count < 1 || (count > 1 && kind != Kind.U1)) {
+                throw new IllegalArgumentException("Only U1 arrays are supported: " + type + "[" + count + "]");
+            }
+            String[] tokens = rest.split("\\s+", 2);
+            String name = tokens[0];
+            if(name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0))) {
+                throw new IllegalArgumentException("Invalid field name: " + name);
+            }
+            if(RESERVED_NAMES.contains(name) || !this.names.add(name)) {
+                throw new IllegalArgumentException("Duplicate or reserved field name: " + name);
+            }
+            String comment = tokens.length > 1 ? tokens[1] : "";
+            if(comment.isEmpty() && !name.startsWith("reserved")) {
+                throw new IllegalArgumentException("Missing comment for field " + name);
+            }
+            if(this.blockFields != null) {
+                Field field = new Field(kind, count, name, comment, this.blockLength);
+                this.blockFields.add(field);
+                this.blockLength += field.size();
+            } else {
+                Field field = new Field(kind, count, name, comment, this.headerLength);
+                this.header.add(field);
+                this.headerLength += field.size();
+            }
+        }
+
+        // <list> <block class> <count field>
+        private void repeat(@NotNull String declaration) {
+            if(this.block != null || this.blockFields != null) {
+                throw new IllegalArgumentException("Only one repeated block per message is supported");
+            }
+            String[] tokens = declaration.split("\\s+");
+            if(tokens.length != 3) {
+                throw new IllegalArgumentException("Expected: repeat <list> <block class> <count field>");
+            }
+            for(Field field : this.header) {
+                if(field.name().equals(tokens[2]) && !field.isArray() && (field.kind() == Kind.U1 || field.kind() == Kind.U2)) {
+                    this.countField = field;
+                }
+            }
+            if(this.countField == null) {
+                throw new IllegalArgumentException("Count field must be a U1 or U2 header field: " + tokens[2]);
+            }
+            if(!this.names.add(tokens[0])) {
+                throw new IllegalArgumentException("Duplicate field name: " + tokens[0]);
+            }
+            this.list = tokens[0];
+            this.blockClass = tokens[1];
+            this.blockFields = new ArrayList<>();
+        }
+
+        // Returns true when the message itself ends
+        private boolean endBlock() {
+            if(this.blockFields == null) {
+                return true;
+            }
+            if(this.blockFields.isEmpty()) {
+                throw new IllegalArgumentException("Empty repeated block");
+            }
+            this.block = new Block(this.list, this.blockClass, this.countField, List.copyOf(this.blockFields), this.blockLength);
+            this.blockFields = null;
+            return false;
+        }
+
+        private @NotNull Message build() {
+            return new Message(
+                    this.messageClass,
+                    this.name,
+                    this.id,
+                    this.poll,
+                    this.description,
+                    List.copyOf(this.header),
+                    this.headerLength,
+                    this.block
+            );
+        }
+
+    }
+
+    private UbxSchemaCompiler() {
+
+    }
+
+    public static void main(String[] args) throws IOException {
+        if(args.length != 2) {
+            System.err.println("Usage: UbxSchemaCompiler <schema file> <source root>");
+            System.exit(1);
+        }
+        Path schema = Path.of(args[0]);
+        Path root = Path.of(args[1]);
+        List<Message> messages = parse(Files.readAllLines(schema));
+        for(Message message : messages) {
+            Path file = root
+                    .resolve(message.packageName().replace('.', '/'))
+                    .resolve(message.className() + ".java");
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, generate(message, schema.getFileName().toString()));
+            System.out.println("Generated " + file);
+        }
+        Path index = root.resolve(BASE_PACKAGE.replace('.', '/')).resolve("UbxMessageTypes.java");
+        Files.createDirectories(index.getParent());
+        Files.writeString(index, generateIndex(messages, schema.getFileName().toString()));
+        System.out.println("Generated " + index);
+    }
+
+    // Parsing
+
+    static @NotNull List<Message> parse(@NotNull List<String> lines) {
+        List<Message> messages = new ArrayList<>();
+        MessageBuilder builder = null;
+        for(int n = 0; n < lines.size(); n++) {
+            String line = lines.get(n).strip();
+            if(line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] tokens = line.split("\\s+", 2);
+            try {
+                if(tokens[0].equals("message")) {
+                    if(builder != null) {
+                        throw new IllegalArgumentException("Nested message");
+                    }
+                    builder = MessageBuilder.of(tokens.length > 1 ? tokens[1] : "");
+                } else if(builder == null) {
+                    throw new IllegalArgumentException("Expected a message");
+                } else if(tokens[0].equals("repeat")) {
+                    builder.repeat(tokens.length > 1 ? tokens[1] : "");
+                } else if(tokens[0].equals("end")) {
+                    if(builder.endBlock()) {
+                        messages.add(builder.build());
+                        builder = null;
+                    }
+                } else {
+                    builder.field(tokens[0], tokens.length > 1 ? tokens[1] : "");
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Schema line " + (n + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        if(builder != null) {
+            throw new IllegalArgumentException("Unterminated message at end of schema");
+        }
+        return messages;
+    }
+
+    // Code generation
+
+    // Every generated type in one list, so registration does not depend on which message classes happen to be initialized
+    static @NotNull String generateIndex(@NotNull List<Message> messages, @NotNull String source) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("// Generated by UbxSchemaCompiler from ").append(source).append(". Do not edit, change the schema and regenerate.\n");
+        sb.append("package ").append(BASE_PACKAGE).append(";\n\n");
+        sb.append("import com.example.project.ubx.message.UbxMessage;\n");
+        for(Message message : messages) {
+            sb.append("import ").append(message.packageName()).append('.').append(message.className()).append(";\n");
+        }
+        sb.append("import org.jetbrains.annotations.NotNull;\n\n");
+        sb.append("import java.util.List;\n\n");
+        sb.append("/**\n");
+        sb.append(" * Every message type generated from the schema.\n");
+        sb.append(" * {@link com.example.project.ubx.message.UbxMessageFactory} registers them when it initializes.\n");
+        sb.append(" */\n");
+        sb.append("public final class UbxMessageTypes {\n\n");
+        sb.append("    private UbxMessageTypes() {\n\n");
+        sb.append("    }\n\n");
+        sb.append("    public static final @NotNull List<UbxMessage.Type> ALL = List.of(\n");
+        for(int i = 0; i < messages.size(); i++) {
+            sb.append("            ").append(messages.get(i).className()).append(".Type.INSTANCE")
+                    .append(i + 1 < messages.size() ? ",\n" : "\n");
+        }
+        sb.append("    );\n\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    static @NotNull String generate(@NotNull Message message, @NotNull String source) {
+        String name = message.className();
+        Block block = message.block();
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("// Generated by UbxSchemaCompiler from ").append(source).append(". Do not edit, change the schema and regenerate.\n");
+        sb.append("package ").append(message.packageName()).append(";\n\n");
+        sb.append("import com.example.project.ubx.frame.UbxFrame;\n");
+        sb.append("import com.example.project.ubx.message.UbxMessage;\n");
+        sb.append("import com.example.project.ubx.message.UbxMessageView;\n");
+        sb.append("import ").append(BASE_PACKAGE).append('.').append(message.typeName()).append(";\n");
+        sb.append("import com.example.project.util.PackedInput;\n");
+        sb.append("import com.example.project.util.PackedOutput;\n");
+        sb.append("import com.example.project.util.PackedReader;\n");
+        sb.append("import org.jetbrains.annotations.NotNull;\n\n");
+        if(block != null) {
+            sb.append("import java.util.List;\n");
+            sb.append("import java.util.Objects;\n");
+        }
+        sb.append("import java.util.Optional;\n\n");
+
+        sb.append("/**\n");
+        sb.append(" * ").append(message.messageClass().name()).append('-').append(message.name())
+                .append(" (").append(hex(message.messageClass().id)).append(' ').append(hex(message.id())).append("): ")
+                .append(message.description()).append(".\n");
+        if(block == null) {
+            sb.append(" * Payload: ").append(message.headerLength()).append(" bytes.\n");
+        } else {
+            sb.append(" * Payload: ").append(message.headerLength()).append(" + ").append(block.length())
+                    .append(" * ").append(block.countField().name()).append(" bytes.\n");
+        }
+        sb.append(" */\n");
+        sb.append("public final class ").append(name).append(" implements UbxMessage {\n\n");
+
+        // Constants
+        if(block == null) {
+            sb.append("    public static final int LENGTH = ").append(message.headerLength()).append(";\n\n");
+        } else {
+            sb.append("    public static final int HEADER_LENGTH = ").append(message.headerLength()).append(";\n");
+            sb.append("    public static final int BLOCK_LENGTH = ").append(block.length()).append(";\n\n");
+        }
+        if(message.poll()) {
+            sb.append("    private static final @NotNull Poll POLL = new Poll();\n\n");
+        }
+
+        // Type
+        sb.append("    public static final class Type extends ").append(message.typeName()).append(" {\n\n");
+        sb.append("        public static final @NotNull Type INSTANCE = new Type();\n\n");
+        sb.append("        @Override\n");
+        sb.append("        public int messageId() {\n");
+        sb.append("            return ").append(hex(message.id())).append(";\n");
+        sb.append("        }\n\n");
+        sb.append("        @Override\n");
+        sb.append("        public Optional<UbxMessage> unflatten(@NotNull PackedInput reader) {\n");
+        sb.append("            if(!validLength(reader)) {\n");
+        sb.append("                return Optional.empty();\n");
+        sb.append("            }\n");
+        sb.append("            return Optional.of(decode(reader));\n");
+        sb.append("        }\n\n");
+        sb.append("    }\n\n");
+
+        // Repeated block
+        if(block != null) {
+            generateBlock(sb, block);
+        }
+
+        // View
+        generateView(sb, message);
+
+        // Fields
+        List<String> declarations = new ArrayList<>();
+        List<String> comments = new ArrayList<>();
+        for(Field field : message.header()) {
+            if(field.isReserved()) {
+                continue;
+            }
+            declarations.add("public final " + field.javaType() + " " + field.name() + ";");
+            String comment = field.typeComment() + ", " + field.comment();
+            if(block != null && field == block.countField()) {
+                comment += ", size of " + block.list();
+            }
+            comments.add(comment);
+        }
+        if(block != null) {
+            declarations.add("public final @NotNull List<" + block.className() + "> " + block.list() + ";");
+            comments.add("Repeated " + block.countField().name() + " times");
+        }
+        appendAligned(sb, "    ", declarations, comments);
+        sb.append('\n');
+
+        // Constructor
+        List<String> parameters = new ArrayList<>();
+        for(Field field : message.header()) {
+            if(!field.isReserved() && (block == null || field != block.countField())) {
+                parameters.add(field.javaType() + " " + field.name());
+            }
+        }
+        if(block != null) {
+            parameters.add("@NotNull List<" + block.className() + "> " + block.list());
+        }
+        sb.append("    public ").append(name).append('(').append(String.join(", ", parameters)).append(") {\n");
+        if(block != null) {
+            int max = block.countField().kind.size == 1 ? 0xFF : 0xFFFF;
+            sb.append("        if(").append(block.list()).append(".size() > ").append(hex(max)).append(") {\n");
+            sb.append("            throw new IllegalArgumentException(\"Too many ").append(block.list()).append(": \" + ")
+                    .append(block.list()).append(".size());\n");
+            sb.append("        }\n");
+        }
+        for(Field field : message.header()) {
+            if(field.isReserved()) {
+                continue;
+            }
+            if(block != null && field == block.countField()) {
+                sb.append("        this.").append(field.name()).append(" = ").append(block.list()).append(".size();\n");
+            } else {
+                sb.append("        this.").append(field.name()).append(" = ").append(field.name()).append(";\n");
+            }
+        }
+        if(block != null) {
+            sb.append("        this.").append(block.list()).append(" = List.copyOf(").append(block.list()).append(");\n");
+        }
+        sb.append("    }\n\n");
+
+        // Validation
+        sb.append("    // Payload length check, together with the block count where there is one\n");
+        sb.append("    private static boolean validLength(@NotNull PackedInput reader) {\n");
+        if(block == null) {
+            sb.append("        return reader.length() == LENGTH;\n");
+        } else {
+            sb.append("        int blocks = reader.length() - HEADER_LENGTH;\n");
+            sb.append("        return blocks >= 0 && blocks % BLOCK_LENGTH == 0 && blocks / BLOCK_LENGTH == ")
+                    .append(block.countField().peek("reader", String.valueOf(block.countField().offset()))).append(";\n");
+        }
+        sb.append("    }\n\n");
+
+        // Decoder
+        sb.append("    // Fixed offsets, the reader position is ignored. The payload must have passed validation.\n");
+        sb.append("    public static @NotNull ").append(name).append(" decode(@NotNull PackedInput reader) {\n");
+        List<String> arguments = new ArrayList<>();
+        for(Field field : message.header()) {
+            if(!field.isReserved() && (block == null || field != block.countField())) {
+                arguments.add(field.peek("reader", String.valueOf(field.offset())));
+            }
+        }
+        if(block != null) {
+            sb.append("        int count = ").append(block.countField().peek("reader", String.valueOf(block.countField().offset()))).append(";\n");
+            sb.append("        ").append(block.className()).append("[] ").append(block.list()).append(" = new ").append(block.className()).append("[count];\n");
+            sb.append("        for(int i = 0; i < count; i++) {\n");
+            sb.append("            ").append(block.list()).append("[i] = ").append(block.className())
+                    .append(".decode(reader, HEADER_LENGTH + i * BLOCK_LENGTH);\n");
+            sb.append("        }\n");
+            arguments.add("List.of(" + block.list() + ")");
+        }
+        appendCall(sb, "        return new " + name, arguments, ";");
+        sb.append("    }\n\n");
+
+        // Message
+        sb.append("    @Override\n");
+        sb.append("    public UbxMessage.@NotNull Type type() {\n");
+        sb.append("        return Type.INSTANCE;\n");
+        sb.append("    }\n\n");
+        sb.append("    @Override\n");
+        sb.append("    public int payloadLength() {\n");
+        if(block == null) {
+            sb.append("        return LENGTH;\n");
+        } else {
+            sb.append("        return HEADER_LENGTH + this.").append(block.list()).append(".size() * BLOCK_LENGTH;\n");
+        }
+        sb.append("    }\n\n");
+
+        // Encoder
+        sb.append("    @Override\n");
+        sb.append("    public void writePayload(@NotNull PackedOutput output, int offset) {\n");
+        appendEncoder(sb, "        ", message.header());
+        if(block != null) {
+            sb.append("        for(int i = 0; i < this.").append(block.list()).append(".size(); i++) {\n");
+            sb.append("            this.").append(block.list()).append(".get(i).encode(output, offset + HEADER_LENGTH + i * BLOCK_LENGTH);\n");
+            sb.append("        }\n");
+        }
+        sb.append("    }\n");
+
+        // Poll
+        if(message.poll()) {
+            sb.append('\n');
+            sb.append("    // Polling packet constructor\n");
+            sb.append("    public static @NotNull Poll poll() {\n");
+            sb.append("        return POLL;\n");
+            sb.append("    }\n\n");
+            sb.append("    // Empty payload requesting the message, stateless and shared\n");
+            sb.append("    public static final class Poll implements UbxMessage {\n\n");
+            sb.append("        private Poll() {\n\n");
+            sb.append("        }\n\n");
+            sb.append("        @Override\n");
+            sb.append("        public @NotNull Type type() {\n");
+            sb.append("            return ").append(name).append(".Type.INSTANCE;\n");
+            sb.append("        }\n\n");
+            sb.append("        @Override\n");
+            sb.append("        public int payloadLength() {\n");
+            sb.append("            return 0;\n");
+            sb.append("        }\n\n");
+            sb.append("        @Override\n");
+            sb.append("        public void writePayload(@NotNull PackedOutput output, int offset) {\n\n");
+            sb.append("        }\n\n");
+            sb.append("    }\n");
+        }
+
+        sb.append("\n}\n");
+        return sb.toString();
+    }
+
+    private static void generateBlock(@NotNull StringBuilder sb, @NotNull Block block) {
+        String name = block.className();
+        sb.append("    public static final class ").append(name).append(" {\n\n");
+        List<String> declarations = new ArrayList<>();
+        List<String> comments = new ArrayList<>();
+        List<String> parameters = new ArrayList<>();
+        List<String> arguments = new ArrayList<>();
+        for(Field field : block.fields()) {
+            if(field.isReserved()) {
+                continue;
+            }
+            declarations.add("public final " + field.javaType() + " " + field.name() + ";");
+            comments.add(field.typeComment() + ", " + field.comment());
+            parameters.add(field.javaType() + " " + field.name());
+            arguments.add(field.peek("reader", offset("offset", field.offset())));
+        }
+        appendAligned(sb, "        ", declarations, comments);
+        sb.append('\n');
+
+        sb.append("        public ").append(name).append('(').append(String.join(", ", parameters)).append(") {\n");
+        for(Field field : block.fields()) {
+            if(!field.isReserved()) {
+                sb.append("            this.").append(field.name()).append(" = ").append(field.name()).append(";\n");
+            }
+        }
+        sb.append("        }\n\n");
+
+        sb.append("        private static @NotNull ").append(name).append(" decode(@NotNull PackedInput reader, int offset) {\n");
+        appendCall(sb, "            return new " + name, arguments, ";");
+        sb.append("        }\n\n");
+
+        sb.append("        private void encode(@NotNull PackedOutput output, int offset) {\n");
+        appendEncoder(sb, "            ", block.fields());
+        sb.append("        }\n\n");
+        sb.append("    }\n\n");
+    }
+
+    private static void generateView(@NotNull StringBuilder sb, @NotNull Message message) {
+        String name = message.className();
+        Block block = message.block();
+        sb.append("    /**\n");
+        sb.append("     * Flyweight ").append(message.messageClass().name()).append('-').append(message.name()).append(", decoding fields on access.\n");
+        sb.append("     * Getters return the same values as the fields of {@link ").append(name).append("}");
+        if(block != null) {
+            sb.append(", repeated fields take the block index");
+        }
+        sb.append(".\n");
+        sb.append("     */\n");
+        sb.append("    public static final class View implements UbxMessageView {\n\n");
+        sb.append("        private @NotNull PackedReader reader = new PackedReader(new byte[")
+                .append(block == null ? "LENGTH" : "HEADER_LENGTH").append("]);\n");
+        sb.append("        private @NotNull PackedReader spare = new PackedReader(new byte[0]); // Candidate while validating\n\n");
+
+        sb.append("        @Override\n");
+        sb.append("        public @NotNull Type type() {\n");
+        sb.append("            return Type.INSTANCE;\n");
+        sb.append("        }\n\n");
+
+        sb.append("        @Override\n");
+        sb.append("        public boolean bind(@NotNull UbxFrame frame) {\n");
+        sb.append("            if(frame.messageClass() != Type.INSTANCE.messageClass().id || frame.messageId() != Type.INSTANCE.messageId()) {\n");
+        sb.append("                return false;\n");
+        sb.append("            }\n");
+        sb.append("            PackedReader candidate = frame.payloadReader(this.spare);\n");
+        sb.append("            if(!validLength(candidate)) {\n");
+        sb.append("                return false;\n");
+        sb.append("            }\n");
+        sb.append("            this.spare = this.reader;\n");
+        sb.append("            this.reader = candidate;\n");
+        sb.append("            return true;\n");
+        sb.append("        }\n\n");
+
+        sb.append("        // Binds to a bare payload slice, e.g. from a log\n");
+        sb.append("        public boolean bind(@NotNull PackedReader payload) {\n");
+        sb.append("            if(!validLength(payload)) {\n");
+        sb.append("                return false;\n");
+        sb.append("            }\n");
+        sb.append("            this.reader.wrap(payload.data(), payload.offset(), payload.length());\n");
+        sb.append("            return true;\n");
+        sb.append("        }\n\n");
+
+        for(Field field : message.header()) {
+            if(field.isReserved()) {
+                continue;
+            }
+            sb.append("        public ").append(field.javaType()).append(' ').append(field.name()).append("() {\n");
+            sb.append("            return ").append(field.peek("this.reader", String.valueOf(field.offset()))).append(";\n");
+            sb.append("        }\n\n");
+        }
+        if(block != null) {
+            for(Field field : block.fields()) {
+                if(field.isReserved()) {
+                    continue;
+                }
+                sb.append("        public ").append(field.javaType()).append(' ').append(field.name()).append("(int index) {\n");
+                sb.append("            return ").append(field.peek("this.reader", offset("this.block(index)", field.offset()))).append(";\n");
+                sb.append("        }\n\n");
+            }
+            sb.append("        private int block(int index) {\n");
+            sb.append("            return HEADER_LENGTH + Objects.checkIndex(index, this.").append(block.countField().name()).append("()) * BLOCK_LENGTH;\n");
+            sb.append("        }\n\n");
+        }
+
+        sb.append("        @Override\n");
+        sb.append("        public @NotNull ").append(name).append(" copy() {\n");
+        sb.append("            return decode(this.reader);\n");
+        sb.append("        }\n\n");
+        sb.append("    }\n\n");
+    }
+
+    // Helpers
+
+    private static void appendAligned(@NotNull StringBuilder sb, @NotNull String indent, @NotNull List<String> code, @NotNull List<String> comments) {
+        int width = 0;
+        for(String line : code) {
+            width = Math.max(width, line.length());
+        }
+        for(int i = 0; i < code.size(); i++) {
+            sb.append(indent).append(code.get(i)).append(" ".repeat(width - code.get(i).length() + 4)).append("// ").append(comments.get(i)).append('\n');
+        }
+    }
+
+    private static void appendCall(@NotNull StringBuilder sb, @NotNull String head, @NotNull List<String> arguments, @NotNull String tail) {
+        String indent = head.substring(0, head.length() - head.stripLeading().length());
+        sb.append(head).append("(\n");
+        for(int i = 0; i < arguments.size(); i++) {
+            sb.append(indent).append("        ").append(arguments.get(i)).append(i < arguments.size() - 1 ? ",\n" : "\n");
+        }
+        sb.append(indent).append(')').append(tail).append('\n');
+    }
+
+    private static void appendEncoder(@NotNull StringBuilder sb, @NotNull String indent, @NotNull List<Field> fields) {
+        for(Field field : fields) {
+            if(field.isReserved()) {
+                for(String poke : field.zero("output", "offset")) {
+                    sb.append(indent).append(poke).append('\n');
+                }
+            } else {
+                sb.append(indent).append(field.poke("output", offset("offset", field.offset()), "this." + field.name())).append('\n');
+            }
+        }
+    }
+
+    private static @NotNull String offset(@NotNull String base, int offset) {
+        return offset == 0 ? base : base + " + " + offset;
+    }
+
+    private static @NotNull String hex(int value) {
+        return String.format(value > 0xFF ? "0x%04X" : "0x%02X", value);
+    }
+
+    private static @NotNull String capitalize(@NotNull String name) {
+        return name.charAt(0) + name.substring(1).toLowerCase(Locale.ROOT);
+    }
+
+}
@@ -0,0 +1,473 @@
+package com.example.project.ubx.dispatch;
+
+import com.example.project.ubx.frame.UbxFrame;
+import com.example.project.ubx.message.UbxMessage;
+import com.example.project.ubx.message.UbxMessageFactory;
+import com.example.project.util.PackedReader;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Decodes each frame once and fans the message out to every subscriber of its {@link UbxMessage.Type}.
+ * Messages pass through a preallocated ring written by a single publishing thread (normally the poll loop).
+ * Every subscriber runs on its own thread with its own sequence cursor into the ring, in the style of the LMAX Disruptor.
+ * Frames nobody subscribed to are not decoded at all.
+ * <p>
+ * A slow subscriber is handled according to its {@link Policy}. BLOCK subscribers gate the publisher,
+ * DROP and CONFLATE subscribers never hold it up and detect being lapped through the slot sequence.
+ * A subscriber whose thread dies, e.g. from an {@link Error} thrown by its handler, stops gating the publisher.
+ * The publisher clears the slots every live subscriber has passed, so consumed messages are not retained.
+ * Subscribe before {@link #start()}, the subscriber set is fixed while running.
+ */
+public final class UbxMessageDispatcher implements AutoCloseable {
+
+    public enum Policy {
+        BLOCK, // Publisher waits until the subscriber has room, nothing is lost
+        DROP, // Messages overwritten before the subscriber got to them are skipped
+        CONFLATE, // A subscriber that fell behind gets only the latest message of each type
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(UbxMessageDispatcher.class.getName());
+
+    private static final int SPIN_TRIES = 256;
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1); // Bounds a missed wake-up
+    private static final long PUBLISHER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+    private static final long BUSY = -1; // Slot is being overwritten
+
+    private static final VarHandle SEQUENCE;
+
+    static {
+        try {
+            SEQUENCE = MethodHandles.lookup().findVarHandle(Slot.class, "sequence", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Sequence is written last on publish and checked around every read (seqlock)
+    private static final class Slot {
+
+        private long sequence = BUSY;
+        private UbxMessage.Type type;
+        private UbxMessage message;
+
+    }
+
+    public final class Subscription {
+
+        private final @NotNull String name;
+        private final @NotNull Policy policy;
+        private final @NotNull Consumer<? super UbxMessage> handler;
+        private final UbxMessage.Type[] types; // Empty for all types
+
+        private final @NotNull AtomicLong cursor = new AtomicLong(-1); // Last sequence handled
+        private volatile boolean parked = false;
+        private volatile boolean live = true; // Until its thread exits
+        private @Nullable Thread thread = null;
+
+        // Conflation scratch, one entry per type
+        private final long[] latestSequence;
+        private final UbxMessage[] latest;
+
+        // Statistics, written by the subscriber thread only
+        private volatile long delivered = 0;
+        private volatile long dropped = 0;
+        private volatile long failures = 0;
+
+        private Subscription(@NotNull String name, @NotNull Policy policy, @NotNull Consumer<? super UbxMessage> handler, UbxMessage.Type[] types) {
+            this.name = name;
+            this.policy = policy;
+            this.handler = handler;
+            this.types = types;
+            this.latestSequence = new long[types.length];
+            this.latest = new UbxMessage[types.length];
+        }
+
+        public @NotNull String name() {
+            return this.name;
+        }
+
+        public @NotNull Policy policy() {
+            return this.policy;
+        }
+
+        public long delivered() {
+            return this.delivered;
+        }
+
+        // Ring entries skipped after being lapped, plus messages superseded under CONFLATE
+        public long dropped() {
+            return this.dropped;
+        }
+
+        // Handler invocations that threw, not counted as delivered
+        public long failures() {
+            return this.failures;
+        }
+
+        // False once the subscriber thread has exited, after close() or an Error from the handler
+        public boolean live() {
+            return this.live;
+        }
+
+        // Published sequences this subscriber has not handled yet
+        public long lag() {
+            return UbxMessageDispatcher.this.published.get() - this.cursor.get();
+        }
+
+        private int typeIndex(@NotNull UbxMessage.Type type) {
+            if(this.types.length == 0) {
+                return 0;
+            }
+            for(int i = 0; i < this.types.length; i++) {
+                if(this.types[i] == type) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void run() {
+            try {
+                this.consume();
+            }
+            finally {
+                // Whatever ended the thread, stop gating the publisher
+                this.live = false;
+            }
+        }
+
+        private void consume() {
+            long next = 0;
+            while(UbxMessageDispatcher.this.running) {
+                long available = UbxMessageDispatcher.this.waitFor(this, next);
+                if(available < next) {
+                    continue; // Stopped or spurious wake-up
+                }
+                if(this.policy == Policy.CONFLATE && available > next) {
+                    next = this.conflate(next, available);
+                    continue;
+                }
+                while(next <= available) {
+                    Slot slot = UbxMessageDispatcher.this.ring[(int) next & UbxMessageDispatcher.this.mask];
+                    long sequence = (long) SEQUENCE.getAcquire(slot);
+                    UbxMessage.Type type = slot.type;
+                    UbxMessage message = slot.message;
+                    VarHandle.loadLoadFence();
+                    if(sequence != next || (long) SEQUENCE.getOpaque(slot) != next) {
+                        // Lapped by the publisher, only possible without BLOCK, resume at the oldest slot still intact
+                        long oldest = UbxMessageDispatcher.this.published.get() - UbxMessageDispatcher.this.mask;
+                        this.dropped += Math.max(oldest - next, 1);
+                        next = Math.max(oldest, next + 1);
+                        this.cursor.set(next - 1);
+                        break;
+                    }
+                    if(this.typeIndex(type) >= 0) {
+                        this.deliver(message);
+                    }
+                    this.cursor.set(next);
+                    next++;
+                }
+            }
+        }
+
+        // Delivers the newest message of each type in next..available, in publishing order
+        private long conflate(long next, long available) {
+            UbxMessageDispatcher dispatcher = UbxMessageDispatcher.this;
+            int found = 0;
+            for(int i = 0; i < this.latest.length; i++) {
+                this.latestSequence[i] = -1;
+            }
+            long oldest = Math.max(next, available - dispatcher.mask);
+            long n = available;
+            for(; n >= oldest; n--) {
+                Slot slot = dispatcher.ring[(int) n & dispatcher.mask];
+                long sequence = (long) SEQUENCE.getAcquire(slot);
+                UbxMessage.Type type = slot.type;
+                UbxMessage message = slot.message;
+                VarHandle.loadLoadFence();
+                if(sequence != n || (long) SEQUENCE.getOpaque(slot) != n) {
+                    break; // Everything older is being overwritten as well
+                }
+                int index = this.typeIndex(type);
+                if(index < 0) {
+                    continue;
+                }
+                if(this.latestSequence[index] < 0) {
+                    this.latestSequence[index] = n;
+                    this.latest[index] = message;
+                    found++;
+                } else {
+                    this.dropped++;
+                }
+            }
+            // Slots next..n were lapped before the scan reached them
+            this.dropped += n - next + 1;
+            for(int i = 0; i < found; i++) {
+                // Few types per subscriber, pick the oldest remaining each round
+                int first = -1;
+                for(int j = 0; j < this.latest.length; j++) {
+                    if(this.latestSequence[j] >= 0 && (first < 0 || this.latestSequence[j] < this.latestSequence[first])) {
+                        first = j;
+                    }
+                }
+                this.latestSequence[first] = -1;
+                this.deliver(this.latest[first]);
+                this.latest[first] = null;
+            }
+            this.cursor.set(available);
+            return available + 1;
+        }
+
+        private void deliver(@NotNull UbxMessage message) {
+            try {
+                this.handler.accept(message);
+                this.delivered++;
+            } catch (RuntimeException e) {
+                this.failures++;
+                LOGGER.log(Level.WARNING, "Subscriber " + this.name + " failed on " + message.type().messageClass() + " message", e);
+            }
+        }
+
+    }
+
+    private final Slot[] ring;
+    private final int mask;
+
+    private final @NotNull AtomicLong published = new AtomicLong(-1);
+    private final @NotNull List<Subscription> subscriptions = new ArrayList<>();
+    private Subscription[] gating = new Subscription[0]; // BLOCK subscribers
+    private Subscription[] all = new Subscription[0];
+
+    // Publisher state, single thread
+    private final boolean[] interested = new boolean[1 << 16];
+    private boolean interestedInAll = false;
+    private final @NotNull PackedReader reader = new PackedReader(new byte[0]);
+    private long gatingCache = -1;
+    private long cleared = -1; // Slots up to this sequence hold no message
+
+    private volatile boolean running = false;
+    private boolean started = false;
+
+    public UbxMessageDispatcher() {
+        this(1024);
+    }
+
+    public UbxMessageDispatcher(int ringSize) {
+        if(ringSize < 2 || Integer.bitCount(ringSize) != 1) {
+            throw new IllegalArgumentException("Ring size must be a power of two: " + ringSize);
+        }
+        this.ring = new Slot[ringSize];
+        for(int i = 0; i < ringSize; i++) {
+            this.ring[i] = new Slot();
+        }
+        this.mask = ringSize - 1;
+    }
+
+    /**
+     * Registers a handler for the given types, or all registered types when none are given.
+     * The handler runs on the subscription's own thread. CONFLATE needs explicit types.
+     */
+    public synchronized @NotNull Subscription subscribe(
+            @NotNull String name,
+            @NotNull Policy policy,
+            @NotNull Consumer<? super UbxMessage> handler,
+            @NotNull UbxMessage.Type ... types
+    ) {
+        if(this.started) {
+            throw new IllegalStateException("Subscribe before starting the dispatcher");
+        }
+        if(policy == Policy.CONFLATE && types.length == 0) {
+            throw new IllegalArgumentException("Conflating subscriptions need explicit types");
+        }
+        Subscription subscription = new Subscription(name, policy, handler, types.clone());
+        this.subscriptions.add(subscription);
+        if(types.length == 0) {
+            this.interestedInAll = true;
+        }
+        for(UbxMessage.Type type : types) {
+            this.interested[key(type.messageClass().id, type.messageId())] = true;
+        }
+        return subscription;
+    }
+
+    public synchronized @NotNull List<Subscription> subscriptions() {
+        return List.copyOf(this.subscriptions);
+    }
+
+    public synchronized void start() {
+        if(this.started) {
+            return;
+        }
+        this.started = true;
+        this.all = this.subscriptions.toArray(new Subscription[0]);
+        this.gating = this.subscriptions.stream()
+                .filter(subscription -> subscription.policy == Policy.BLOCK)
+                .toArray(Subscription[]::new);
+        this.running = true;
+        for(Subscription subscription : this.all) {
+            Thread thread = new Thread(subscription::run, "ubx-dispatch-" + subscription.name);
+            thread.setDaemon(true);
+            subscription.thread = thread;
+            thread.start();
+        }
+    }
+
+    // Stops the subscriber threads, messages still in the ring are not delivered
+    @Override
+    public synchronized void close() {
+        if(!this.running) {
+            return;
+        }
+        this.running = false;
+        for(Subscription subscription : this.all) {
+            Thread thread = subscription.thread;
+            if(thread == null) {
+                continue;
+            }
+            LockSupport.unpark(thread);
+            if(thread != Thread.currentThread()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        // Nothing reads the ring anymore
+        this.clear(this.published.get());
+    }
+
+    /**
+     * Decodes the frame and publishes it, called from the single publishing thread.
+     * The frame may be a transport view, it is not referenced after returning.
+     * Returns false when nobody subscribed to its type, the type is unknown or the payload does not decode.
+     */
+    public boolean publish(@NotNull UbxFrame frame) {
+        if(!this.running) {
+            return false;
+        }
+        if(!this.interestedInAll && !this.interested[key(frame.messageClass(), frame.messageId())]) {
+            return false;
+        }
+        UbxMessage.Type type = UbxMessageFactory.lookup(frame.messageClass(), frame.messageId());
+        if(type == null) {
+            return false;
+        }
+        Optional<UbxMessage> message = type.unflatten(frame.payloadReader(this.reader));
+        return message.isPresent() && this.publish(type, message.get());
+    }
+
+    // Publishes an already decoded message, called from the single publishing thread
+    public boolean publish(@NotNull UbxMessage message) {
+        if(!this.running) {
+            return false;
+        }
+        UbxMessage.Type type = message.type();
+        if(!this.interestedInAll && !this.interested[key(type.messageClass().id, type.messageId())]) {
+            return false;
+        }
+        return this.publish(type, message);
+    }
+
+    private boolean publish(@NotNull UbxMessage.Type type, @NotNull UbxMessage message) {
+        long next = this.published.get() + 1;
+        // Wait until the slowest BLOCK subscriber has freed the slot
+        long wrap = next - this.ring.length;
+        if(wrap > this.gatingCache) {
+            int spins = 0;
+            while(wrap > (this.gatingCache = this.minimumGatingSequence(next - 1))) {
+                if(!this.running) {
+                    return false;
+                }
+                if(spins++ < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(this, PUBLISHER_PARK_NANOS);
+                }
+            }
+        }
+        Slot slot = this.ring[(int) next & this.mask];
+        SEQUENCE.setOpaque(slot, BUSY);
+        VarHandle.storeStoreFence();
+        slot.type = type;
+        slot.message = message;
+        SEQUENCE.setRelease(slot, next);
+        this.published.set(next);
+        long consumed = next - 1;
+        for(Subscription subscription : this.all) {
+            if(subscription.parked) {
+                LockSupport.unpark(subscription.thread);
+            }
+            if(subscription.live) {
+                consumed = Math.min(consumed, subscription.cursor.get());
+            }
+        }
+        this.clear(consumed);
+        return true;
+    }
+
+    // Drops the references held by slots up to the given sequence, every live subscriber has passed them
+    private void clear(long consumed) {
+        // Older slots already hold newer messages, a lapped DROP subscriber lags behind the ring
+        long sequence = Math.max(this.cleared + 1, this.published.get() - this.mask);
+        for(; sequence <= consumed; sequence++) {
+            Slot slot = this.ring[(int) sequence & this.mask];
+            SEQUENCE.setOpaque(slot, BUSY);
+            VarHandle.storeStoreFence();
+            slot.type = null;
+            slot.message = null;
+        }
+        this.cleared = Math.max(this.cleared, consumed);
+    }
+
+    private long minimumGatingSequence(long minimum) {
+        for(Subscription subscription : this.gating) {
+            // A dead subscriber never advances again
+            if(subscription.live) {
+                minimum = Math.min(minimum, subscription.cursor.get());
+            }
+        }
+        return minimum;
+    }
+
+    // Returns the highest published sequence once it reaches next, or less when stopping
+    private long waitFor(@NotNull Subscription subscription, long next) {
+        long available;
+        int spins = 0;
+        while((available = this.published.get()) < next) {
+            if(!this.running) {
+                return available;
+            }
+            if(spins++ < SPIN_TRIES) {
+                Thread.onSpinWait();
+                continue;
+            }
+            subscription.parked = true;
+            if(this.published.get() < next) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+            subscription.parked = false;
+        }
+        return available;
+    }
+
+    private static int key(int messageClass, int messageId) {
+        return ((messageClass & 0xFF) << 8) | (messageId & 0xFF);
+    }
+
+}
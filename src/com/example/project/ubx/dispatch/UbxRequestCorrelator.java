@@ -0,0 +1,271 @@
+package com.example.project.ubx.dispatch;
+
+import com.example.project.ubx.frame.UbxFrame;
+import com.example.project.ubx.frame.exception.UbxNakException;
+import com.example.project.ubx.frame.exception.UbxTransportException;
+import com.example.project.ubx.frame.transport.UbxTransport;
+import com.example.project.ubx.message.UbxMessage;
+import com.example.project.ubx.message.UbxMessageClass;
+import com.example.project.util.PackedOutput;
+import com.example.project.util.PackedReader;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+/**
+ * Matches replies to outstanding requests, so several requests can be in flight instead of stop-and-wait.
+ * Polls complete with the decoded message of the polled class and id,
+ * commands complete on the ACK-ACK for their class and id and fail with {@link UbxNakException} on ACK-NAK.
+ * Requests with the same class and id are answered in the order they were sent.
+ * <p>
+ * Requests may be issued from any thread and queue up until the poll thread calls {@link #pump()},
+ * which sends them while fewer than the window are outstanding and expires those past their timeout.
+ * The poll thread hands every received frame to {@link #accept(UbxFrame)}.
+ * Futures complete on the poll thread, use the async variants for anything slow.
+ */
+public final class UbxRequestCorrelator {
+
+    public static @NotNull Builder builder(@NotNull UbxTransport transport) {
+        return new Builder(transport);
+    }
+
+    public static final class Builder {
+
+        private final @NotNull UbxTransport transport;
+        private int window = 4;
+        private long timeout = TimeUnit.SECONDS.toNanos(1);
+        private @NotNull LongSupplier clock = System::nanoTime;
+
+        private Builder(@NotNull UbxTransport transport) {
+            this.transport = transport;
+        }
+
+        // Maximum number of requests in flight
+        public @NotNull Builder window(int window) {
+            if(window <= 0) {
+                throw new IllegalArgumentException("Window must be positive: " + window);
+            }
+            this.window = window;
+            return this;
+        }
+
+        // Time from sending a request until it fails, in nanoseconds
+        public @NotNull Builder timeout(long timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        // Nanosecond clock for timeouts, defaults to System.nanoTime
+        public @NotNull Builder clock(@NotNull LongSupplier clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public @NotNull UbxRequestCorrelator build() {
+            return new UbxRequestCorrelator(this);
+        }
+
+    }
+
+    private static final int ACK_ACK = 0x01;
+    private static final int ACK_NAK = 0x00;
+
+    // Poll request, an empty payload of the polled type
+    private record Poll(@NotNull UbxMessage.Type type) implements UbxMessage {
+
+        @Override
+        public int payloadLength() {
+            return 0;
+        }
+
+        @Override
+        public void writePayload(@NotNull PackedOutput output, int offset) {
+
+        }
+
+    }
+
+    private static final class Request {
+
+        private final @NotNull UbxMessage message;
+        private final boolean acknowledged; // Completed by ACK-ACK instead of a reply
+        private final int messageClass;
+        private final int messageId;
+        private final @NotNull CompletableFuture<UbxMessage> future = new CompletableFuture<>();
+        private long deadline;
+
+        private Request(@NotNull UbxMessage message, boolean acknowledged) {
+            this.message = message;
+            this.acknowledged = acknowledged;
+            this.messageClass = message.type().messageClass().id;
+            this.messageId = message.type().messageId();
+        }
+
+    }
+
+    private final @NotNull UbxTransport transport;
+    private final int window;
+    private final long timeout;
+    private final @NotNull LongSupplier clock;
+
+    private final @NotNull ConcurrentLinkedQueue<Request> queued = new ConcurrentLinkedQueue<>();
+
+    // Poll thread only, in sending order, so the head has the earliest deadline
+    private final @NotNull ArrayDeque<Request> outstanding = new ArrayDeque<>();
+    private final @NotNull PackedReader reader = new PackedReader(new byte[0]);
+
+    // Statistics
+    private volatile long completed = 0;
+    private volatile long timeouts = 0;
+
+    private UbxRequestCorrelator(@NotNull Builder builder) {
+        this.transport = builder.transport;
+        this.window = builder.window;
+        this.timeout = builder.timeout;
+        this.clock = builder.clock;
+    }
+
+    // Requests the given message type with an empty poll payload
+    public @NotNull CompletableFuture<UbxMessage> poll(@NotNull UbxMessage.Type type) {
+        return this.enqueue(new Request(new Poll(type), false));
+    }
+
+    // Sends a message answered by a reply of its own class and id, e.g. a poll with parameters
+    public @NotNull CompletableFuture<UbxMessage> request(@NotNull UbxMessage message) {
+        return this.enqueue(new Request(message, false));
+    }
+
+    // Sends a message answered by ACK-ACK or ACK-NAK, e.g. a CFG message
+    public @NotNull CompletableFuture<Void> command(@NotNull UbxMessage message) {
+        CompletableFuture<UbxMessage> acknowledged = this.enqueue(new Request(message, true));
+        CompletableFuture<Void> result = acknowledged.thenApply(reply -> null);
+        // A dependent stage does not cancel its source, forward it so a queued command is not sent
+        result.whenComplete((ignored, failure) -> {
+            if(result.isCancelled()) {
+                acknowledged.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    public int outstanding() {
+        return this.outstanding.size();
+    }
+
+    public int queued() {
+        return this.queued.size();
+    }
+
+    public long completed() {
+        return this.completed;
+    }
+
+    public long timeouts() {
+        return this.timeouts;
+    }
+
+    /**
+     * Expires overdue requests and sends queued ones while the window has room.
+     * Call from the poll thread, once per poll round.
+     */
+    public void pump() {
+        long now = this.clock.getAsLong();
+        Request request;
+        while((request = this.outstanding.peekFirst()) != null && now - request.deadline >= 0) {
+            this.outstanding.pollFirst();
+            this.timeouts++;
+            request.future.completeExceptionally(new TimeoutException("No reply to class=0x" + String.format("%02X", request.messageClass)
+                    + ", id=0x" + String.format("%02X", request.messageId)));
+        }
+        while(this.outstanding.size() < this.window && (request = this.queued.poll()) != null) {
+            if(request.future.isDone()) {
+                continue; // Cancelled while queued
+            }
+            try {
+                this.transport.send(request.message);
+            } catch (UbxTransportException e) {
+                request.future.completeExceptionally(e);
+                continue;
+            }
+            request.deadline = now + this.timeout;
+            this.outstanding.addLast(request);
+        }
+    }
+
+    /**
+     * Completes the request the frame answers, if any.
+     * Returns false for frames nobody waited for, which the caller can pass on, e.g. to a {@link UbxMessageDispatcher}.
+     * The frame may be a transport view, replies are decoded before returning.
+     */
+    public boolean accept(@NotNull UbxFrame frame) {
+        if(this.outstanding.isEmpty()) {
+            return false;
+        }
+        if(frame.messageClass() == UbxMessageClass.ACK.id && frame.length() == 2
+                && (frame.messageId() == ACK_ACK || frame.messageId() == ACK_NAK)) {
+            PackedReader payload = frame.payloadReader(this.reader);
+            Request request = this.match(payload.peekU1(0), payload.peekU1(1), true);
+            if(request == null) {
+                return false;
+            }
+            if(frame.messageId() == ACK_ACK) {
+                request.future.complete(null);
+            } else {
+                request.future.completeExceptionally(new UbxNakException(request.messageClass, request.messageId));
+            }
+            this.completed++;
+            return true;
+        }
+        Request request = this.match(frame.messageClass(), frame.messageId(), false);
+        if(request == null) {
+            return false;
+        }
+        Optional<UbxMessage> reply = request.message.type().unflatten(frame.payloadReader(this.reader));
+        if(reply.isPresent()) {
+            request.future.complete(reply.get());
+        } else {
+            request.future.completeExceptionally(new UbxTransportException("Malformed reply to class=0x"
+                    + String.format("%02X", request.messageClass) + ", id=0x" + String.format("%02X", request.messageId)));
+        }
+        this.completed++;
+        return true;
+    }
+
+    // Fails everything queued and outstanding, e.g. when the transport goes away. Call from the poll thread
+    public void cancelAll(@NotNull Throwable cause) {
+        Request request;
+        while((request = this.queued.poll()) != null) {
+            request.future.completeExceptionally(cause);
+        }
+        while((request = this.outstanding.pollFirst()) != null) {
+            request.future.completeExceptionally(cause);
+        }
+    }
+
+    private @NotNull CompletableFuture<UbxMessage> enqueue(@NotNull Request request) {
+        this.queued.add(request);
+        return request.future;
+    }
+
+    // Oldest outstanding request of the given kind for class and id, removed from the window
+    private @Nullable Request match(int messageClass, int messageId, boolean acknowledged) {
+        Iterator<Request> iterator = this.outstanding.iterator();
+        while(iterator.hasNext()) {
+            Request request = iterator.next();
+            if(request.acknowledged == acknowledged && request.messageClass == messageClass && request.messageId == messageId) {
+                iterator.remove();
+                return request;
+            }
+        }
+        return null;
+    }
+
+}
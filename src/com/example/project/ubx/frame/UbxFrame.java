@@ -1,26 +1,46 @@
 package com.example.project.ubx.frame;
 
+import com.example.project.metrics.Counter;
+import com.example.project.metrics.MetricsRegistry;
 import com.example.project.ubx.frame.exception.UbxTransportException;
 import com.example.project.ubx.frame.transport.UbxTransport;
+import com.example.project.ubx.message.UbxMessage;
 import com.example.project.util.PackedReader;
 import com.example.project.util.PackedWriter;
 import com.example.project.util.RFC1145;
 import org.jetbrains.annotations.NotNull;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Objects;
 import java.util.Optional;
 
+/**
+ * A UBX frame.
+ * Received frames are views: an offset into a backing buffer that is usually owned by the transport.
+ * A view stays valid only as long as its owner leaves the buffer alone (for transports, until the next poll).
+ * Use {@link #copy()} or {@link #copyPayload()} to keep data beyond that.
+ */
 public final class UbxFrame {
 
-    private static final int PAYLOAD_MAX_LENGTH = 65535;
+    public static final int PAYLOAD_MAX_LENGTH = 65535;
 
-    private static final int HEADER_1 = 0xb5;
-    private static final int HEADER_2 = 0x62;
+    static final int HEADER_1 = 0xb5;
+    static final int HEADER_2 = 0x62;
+
+    private static final @NotNull Counter CHECKSUM_FAILURES = MetricsRegistry.global().counter("ubx.frame.checksumFailures");
 
     public static @NotNull Optional<UbxFrame> deserialize(byte[] frame) {
-        if(frame.length < 8) {
+        return deserialize(frame, 0, frame.length);
+    }
+
+    // Validates and wraps a frame inside a larger buffer without copying
+    public static @NotNull Optional<UbxFrame> deserialize(byte[] buffer, int offset, int length) {
+        if(length < 8) {
             return Optional.empty();
         }
-        PackedReader reader = new PackedReader(frame);
+        PackedReader reader = new PackedReader(buffer, offset, length);
         // Check header fields
         if(reader.readU1() != HEADER_1) {
             return Optional.empty();
@@ -35,52 +55,87 @@ public final class UbxFrame {
         }
         // Check checksum
         RFC1145 checksum = new RFC1145();
-        for(int i = 2; i < expectedFrameLength - 2; i++) {
-            checksum.update8(reader.readU1());
-        }
-        int expectedChecksum = reader.readU2n();
+        checksum.update(buffer, offset + 2, expectedFrameLength - 4);
+        int expectedChecksum = reader.peekU2n(-2);
         if(checksum.get() != expectedChecksum) {
+            CHECKSUM_FAILURES.increment();
             return Optional.empty();
         }
-        // Frame looking good, build data structure
-        reader.position(2);
-        int messageClass = reader.readU1();
-        int messageId = reader.readU1();
-        int payloadLength = reader.readU2();
-        byte[] payload = reader.readArray(payloadLength);
-        return Optional.of(new UbxFrame(messageClass, messageId, payload, frame));
+        // Frame looking good, wrap it
+        return Optional.of(view(buffer, offset));
     }
 
-    private static int extractChecksumFromFrame(byte[] frame) {
-        PackedReader reader = new PackedReader(frame);
-        return reader.peekU2n(-2);
+    /**
+     * Encodes a message as a frame at the given offset and returns the frame length.
+     * The payload is written in place after the header, no intermediate arrays,
+     * and the checksum is taken in one pass over the bytes just written.
+     */
+    public static int encode(@NotNull UbxMessage message, byte[] buffer, int offset) {
+        int payloadLength = message.payloadLength();
+        if(payloadLength > PAYLOAD_MAX_LENGTH) {
+            throw new IllegalArgumentException("Payload length exceeds maximum allowed length");
+        }
+        Objects.checkFromIndexSize(offset, payloadLength + 8, buffer.length);
+        PackedWriter writer = new PackedWriter(buffer);
+        writer.pokeU1(offset, HEADER_1);
+        writer.pokeU1(offset + 1, HEADER_2);
+        writer.pokeU1(offset + 2, message.type().messageClass().id);
+        writer.pokeU1(offset + 3, message.type().messageId());
+        writer.pokeU2(offset + 4, payloadLength);
+        message.writePayload(writer, offset + 6);
+        // Class, ID, length and payload
+        RFC1145 checksum = new RFC1145();
+        checksum.update(buffer, offset + 2, payloadLength + 4);
+        writer.pokeU2n(offset + 6 + payloadLength, checksum.get());
+        return payloadLength + 8;
+    }
+
+    // Frame owning a buffer of exactly its size
+    public static @NotNull UbxFrame encode(@NotNull UbxMessage message) {
+        byte[] frame = new byte[message.payloadLength() + 8];
+        encode(message, frame, 0);
+        return view(frame, 0);
+    }
+
+    // Wraps an already validated frame
+    static @NotNull UbxFrame view(byte[] buffer, int offset) {
+        PackedReader reader = new PackedReader(buffer, offset, buffer.length - offset);
+        int messageClass = reader.peekU1(2);
+        int messageId = reader.peekU1(3);
+        int payloadLength = reader.peekU2(4);
+        int checksum = reader.peekU2n(payloadLength + 6);
+        return new UbxFrame(messageClass, messageId, buffer, offset + 6, payloadLength, offset, checksum);
     }
 
     private final int messageClass;
     private final int messageId;
 
-    private final byte[] payload;
+    // Payload slice
+    private final byte[] buffer;
+    private final int payloadOffset;
+    private final int payloadLength;
 
-    // Lazy populated fields
-    private byte[] frame; // TODO: do I keep this lazy field?
-    private int checksum = -1;
+    // Lazy populated fields, frameOffset < 0 until the frame exists
+    private byte[] frame;
+    private int frameOffset;
+    private int checksum;
 
     public UbxFrame(int messageClass, int messageId, byte[] payload) {
-        this(messageClass, messageId, payload, new byte[0]);
+        this(messageClass, messageId, payload, 0, payload.length, -1, -1);
     }
 
-    public UbxFrame(int messageClass, int messageId, byte[] payload, byte[] frame) {
-        this.messageClass = messageClass;
-        this.messageId = messageId;
-        this.payload = payload;
-        if(payload.length > PAYLOAD_MAX_LENGTH) {
+    private UbxFrame(int messageClass, int messageId, byte[] buffer, int payloadOffset, int payloadLength, int frameOffset, int checksum) {
+        if(payloadLength > PAYLOAD_MAX_LENGTH) {
             throw new IllegalArgumentException("Payload length exceeds maximum allowed length");
         }
-        this.frame = frame;
-        // Extract checksum if frame is provided
-        if(frame.length > 0) {
-            this.checksum = extractChecksumFromFrame(frame);
-        }
+        this.messageClass = messageClass;
+        this.messageId = messageId;
+        this.buffer = buffer;
+        this.payloadOffset = payloadOffset;
+        this.payloadLength = payloadLength;
+        this.frame = frameOffset < 0 ? null : buffer;
+        this.frameOffset = frameOffset;
+        this.checksum = checksum;
     }
 
     public int messageClass() {
@@ -91,23 +146,63 @@ public final class UbxFrame {
         return this.messageId;
     }
 
-    public byte[] payload() {
-        return this.payload;
+    // Read-only little-endian view of the payload, no copy
+    public @NotNull ByteBuffer payload() {
+        return ByteBuffer.wrap(this.buffer, this.payloadOffset, this.payloadLength)
+                .slice()
+                .asReadOnlyBuffer()
+                .order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // Reader over the payload slice, no copy
+    public @NotNull PackedReader payloadReader() {
+        return new PackedReader(this.buffer, this.payloadOffset, this.payloadLength);
+    }
+
+    // Rebinds an existing reader to the payload slice instead of allocating one
+    public @NotNull PackedReader payloadReader(@NotNull PackedReader reader) {
+        return reader.wrap(this.buffer, this.payloadOffset, this.payloadLength);
+    }
+
+    public byte[] copyPayload() {
+        return Arrays.copyOfRange(this.buffer, this.payloadOffset, this.payloadOffset + this.payloadLength);
     }
 
     public int length() {
-        return this.payload.length;
+        return this.payloadLength;
+    }
+
+    // Detached frame owning its own buffer
+    public @NotNull UbxFrame copy() {
+        byte[] frame = Arrays.copyOfRange(this.frameBuffer(), this.frameOffset, this.frameOffset + this.payloadLength + 8);
+        return view(frame, 0);
     }
 
     public byte[] serialize() {
-        if(this.frame.length == 0) {
+        byte[] frame = this.frameBuffer();
+        if(this.frameOffset == 0 && frame.length == this.payloadLength + 8) {
+            return frame;
+        }
+        // Views into larger buffers have to be cut out
+        return Arrays.copyOfRange(frame, this.frameOffset, this.frameOffset + this.payloadLength + 8);
+    }
+
+    // Puts the whole frame, sync bytes to checksum, at the position of the target
+    public void writeTo(@NotNull ByteBuffer target) {
+        byte[] frame = this.frameBuffer();
+        target.put(frame, this.frameOffset, this.payloadLength + 8);
+    }
+
+    private byte[] frameBuffer() {
+        if(this.frameOffset < 0) {
             this.frame = this.lazyPopulateFrame();
+            this.frameOffset = 0;
         }
         return this.frame;
     }
 
     private byte[] lazyPopulateFrame() {
-        PackedWriter writer = new PackedWriter(this.payload.length + 8);
+        PackedWriter writer = new PackedWriter(this.payloadLength + 8);
         // Headers
         writer.writeU1(HEADER_1);
         writer.writeU1(HEADER_2);
@@ -116,9 +211,9 @@ public final class UbxFrame {
         // Message ID
         writer.writeU1(this.messageId);
         // Length
-        writer.writeU2(this.payload.length);
+        writer.writeU2(this.payloadLength);
         // Payload
-        writer.writeArray(this.payload);
+        writer.writeArray(this.buffer, this.payloadOffset, this.payloadLength);
         // Checksum
         writer.writeU2n(this.checksum());
         // Return the frame
@@ -136,10 +231,10 @@ public final class UbxFrame {
         RFC1145 checksum = new RFC1145();
         checksum.update8(this.messageClass);
         checksum.update8(this.messageId);
-        checksum.update16(this.payload.length);
-        for(byte b : this.payload) {
-            checksum.update8(b);
-        }
+        // Length is little-endian on the wire
+        checksum.update8(this.payloadLength & 0xFF);
+        checksum.update8(this.payloadLength >> 8);
+        checksum.update(this.buffer, this.payloadOffset, this.payloadLength);
         return checksum.get();
     }
 
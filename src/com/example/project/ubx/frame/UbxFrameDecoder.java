@@ -0,0 +1,283 @@
+package com.example.project.ubx.frame;
+
+import com.example.project.util.RFC1145;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+/**
+ * Incremental UBX frame decoder.
+ * Raw bytes are pushed into an internal ring with {@link #feed(byte[], int, int)} and complete frames are pulled with {@link #next()}.
+ * Partial frames are carried over between reads, and garbage between frames is skipped while hunting for the sync bytes.
+ * A candidate failing its checksum or length check was a false sync: only its first byte is skipped,
+ * and the bytes after it are rescanned from the assembly buffer, so a real frame hidden behind the false sync is still found.
+ * Clean input is examined once per byte, but every false sync rescans up to its whole candidate, replays included.
+ * Input with a false sync every few bytes therefore costs O(n * maxPayloadLength) in the worst case.
+ * The maximum payload length given to the constructor is the knob: longer candidates are rejected at their length field.
+ * Returned frames are views over the decoder's assembly buffer and are overwritten by the following {@link #next()} call.
+ * Not thread-safe.
+ */
+public final class UbxFrameDecoder {
+
+    private enum State {
+        SYNC_1,
+        SYNC_2,
+        CLASS,
+        ID,
+        LENGTH_1,
+        LENGTH_2,
+        PAYLOAD,
+        CHECKSUM_A,
+        CHECKSUM_B,
+    }
+
+    // Input ring
+    private final byte[] ring;
+    private final int mask;
+    private int head = 0; // Read index
+    private int count = 0; // Unconsumed bytes
+
+    // Frame under assembly
+    private final byte[] frame;
+    private final int maxPayloadLength;
+    private @NotNull State state = State.SYNC_1;
+    private int position = 0;
+    private int payloadLength = 0;
+
+    // Bytes of a failed candidate still to be rescanned, frame[replay..replayEnd), taken before the ring.
+    // Rescanned bytes are written back to frame at a lower index than they are read from, so both share the buffer
+    private int replay = 0;
+    private int replayEnd = 0;
+
+    // Statistics
+    private long frames = 0;
+    private long skippedBytes = 0;
+    private long checksumFailures = 0;
+    private long oversizedFrames = 0;
+
+    public UbxFrameDecoder(int ringCapacity) {
+        this(ringCapacity, UbxFrame.PAYLOAD_MAX_LENGTH);
+    }
+
+    public UbxFrameDecoder(int ringCapacity, int maxPayloadLength) {
+        if(ringCapacity <= 0) {
+            throw new IllegalArgumentException("Ring capacity must be positive");
+        }
+        if(maxPayloadLength < 0 || maxPayloadLength > UbxFrame.PAYLOAD_MAX_LENGTH) {
+            throw new IllegalArgumentException("Maximum payload length out of range");
+        }
+        int capacity = Integer.highestOneBit(ringCapacity);
+        if(capacity < ringCapacity) {
+            capacity <<= 1;
+        }
+        this.ring = new byte[capacity];
+        this.mask = capacity - 1;
+        this.maxPayloadLength = maxPayloadLength;
+        this.frame = new byte[maxPayloadLength + 8];
+    }
+
+    public int capacity() {
+        return this.ring.length;
+    }
+
+    // Bytes waiting in the ring, not counting the partial frame already consumed from it
+    public int available() {
+        return this.count;
+    }
+
+    public int remaining() {
+        return this.ring.length - this.count;
+    }
+
+    public long frames() {
+        return this.frames;
+    }
+
+    public long skippedBytes() {
+        return this.skippedBytes;
+    }
+
+    public long checksumFailures() {
+        return this.checksumFailures;
+    }
+
+    // Candidates rejected for a payload longer than the maximum
+    public long oversizedFrames() {
+        return this.oversizedFrames;
+    }
+
+    public void reset() {
+        this.head = 0;
+        this.count = 0;
+        this.state = State.SYNC_1;
+        this.position = 0;
+        this.replay = 0;
+        this.replayEnd = 0;
+    }
+
+    /**
+     * Copies raw bytes into the ring.
+     * Returns the number of bytes accepted, which is less than length when the ring runs full.
+     */
+    public int feed(byte[] data, int offset, int length) {
+        int accepted = Math.min(length, this.remaining());
+        int tail = (this.head + this.count) & this.mask;
+        int first = Math.min(accepted, this.ring.length - tail);
+        System.arraycopy(data, offset, this.ring, tail, first);
+        System.arraycopy(data, offset + first, this.ring, 0, accepted - first);
+        this.count += accepted;
+        return accepted;
+    }
+
+    /**
+     * Copies raw bytes from a heap, direct or mapped buffer into the ring, advancing its position.
+     * Returns the number of bytes accepted.
+     */
+    public int feed(@NotNull ByteBuffer data) {
+        int accepted = Math.min(data.remaining(), this.remaining());
+        int tail = (this.head + this.count) & this.mask;
+        int first = Math.min(accepted, this.ring.length - tail);
+        data.get(this.ring, tail, first);
+        data.get(this.ring, 0, accepted - first);
+        this.count += accepted;
+        return accepted;
+    }
+
+    /**
+     * Runs the state machine over buffered bytes until a frame completes or the ring is drained.
+     */
+    public @NotNull Optional<UbxFrame> next() {
+        while(true) {
+            int b;
+            if(this.replay < this.replayEnd) {
+                if(this.state == State.PAYLOAD) {
+                    int run = Math.min(this.payloadLength + 6 - this.position, this.replayEnd - this.replay);
+                    System.arraycopy(this.frame, this.replay, this.frame, this.position, run);
+                    this.replay += run;
+                    this.payload(run);
+                    continue;
+                }
+                b = this.frame[this.replay++] & 0xFF;
+            } else if(this.count > 0) {
+                if(this.state == State.PAYLOAD) {
+                    // Bulk copy the contiguous part of the payload
+                    int run = Math.min(Math.min(this.payloadLength + 6 - this.position, this.count), this.ring.length - this.head);
+                    System.arraycopy(this.ring, this.head, this.frame, this.position, run);
+                    this.consume(run);
+                    this.payload(run);
+                    continue;
+                }
+                b = this.ring[this.head] & 0xFF;
+                this.consume(1);
+            } else {
+                return Optional.empty();
+            }
+            if(this.step(b)) {
+                return Optional.of(this.emit());
+            }
+        }
+    }
+
+    private void payload(int run) {
+        this.position += run;
+        if(this.position == this.payloadLength + 6) {
+            this.state = State.CHECKSUM_A;
+        }
+    }
+
+    private void consume(int length) {
+        this.head = (this.head + length) & this.mask;
+        this.count -= length;
+    }
+
+    // Returns true when a valid frame has been completed
+    private boolean step(int b) {
+        switch(this.state) {
+            case SYNC_1 -> {
+                if(b == UbxFrame.HEADER_1) {
+                    this.frame[0] = (byte) b;
+                    this.state = State.SYNC_2;
+                } else {
+                    this.skippedBytes++;
+                }
+            }
+            case SYNC_2 -> {
+                if(b == UbxFrame.HEADER_2) {
+                    this.frame[1] = (byte) b;
+                    this.position = 2;
+                    this.state = State.CLASS;
+                } else if(b != UbxFrame.HEADER_1) {
+                    // A repeated first sync byte may still start a frame
+                    this.skippedBytes += 2;
+                    this.state = State.SYNC_1;
+                } else {
+                    this.skippedBytes++;
+                }
+            }
+            case CLASS -> {
+                this.frame[this.position++] = (byte) b;
+                this.state = State.ID;
+            }
+            case ID -> {
+                this.frame[this.position++] = (byte) b;
+                this.state = State.LENGTH_1;
+            }
+            case LENGTH_1 -> {
+                this.frame[this.position++] = (byte) b;
+                this.state = State.LENGTH_2;
+            }
+            case LENGTH_2 -> {
+                this.frame[this.position++] = (byte) b;
+                this.payloadLength = ((b << 8) | (this.frame[4] & 0xFF));
+                if(this.payloadLength > this.maxPayloadLength) {
+                    this.oversizedFrames++;
+                    this.rescan();
+                } else {
+                    this.state = this.payloadLength == 0 ? State.CHECKSUM_A : State.PAYLOAD;
+                }
+            }
+            case CHECKSUM_A -> {
+                this.frame[this.position++] = (byte) b;
+                this.state = State.CHECKSUM_B;
+            }
+            case CHECKSUM_B -> {
+                this.frame[this.position++] = (byte) b;
+                this.state = State.SYNC_1;
+                if(this.verifyChecksum()) {
+                    return true;
+                }
+                this.checksumFailures++;
+                this.rescan();
+            }
+            default -> throw new IllegalStateException("Unexpected decoder state: " + this.state);
+        }
+        return false;
+    }
+
+    // Drops the false sync byte and queues the rest of the candidate for rescanning, ahead of any replay left over.
+    // Up to maxPayloadLength + 7 bytes per false sync, nested candidates inside a replay are rescanned again
+    private void rescan() {
+        int left = this.replayEnd - this.replay;
+        System.arraycopy(this.frame, this.replay, this.frame, this.position, left);
+        this.replay = 1;
+        this.replayEnd = this.position + left;
+        this.skippedBytes++;
+        this.state = State.SYNC_1;
+    }
+
+    private boolean verifyChecksum() {
+        RFC1145 checksum = new RFC1145();
+        int end = this.payloadLength + 6;
+        checksum.update(this.frame, 2, end - 2);
+        int expected = ((this.frame[end] & 0xFF) << 8) | (this.frame[end + 1] & 0xFF);
+        return checksum.get() == expected;
+    }
+
+    // The frame is a view over the assembly buffer, valid until the next call to next()
+    private @NotNull UbxFrame emit() {
+        this.frames++;
+        return UbxFrame.view(this.frame, 0);
+    }
+
+}
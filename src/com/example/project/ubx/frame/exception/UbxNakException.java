@@ -0,0 +1,27 @@
+package com.example.project.ubx.frame.exception;
+
+/**
+ * The receiver rejected a message with ACK-NAK.
+ */
+public final class UbxNakException extends UbxTransportException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int messageClass;
+    private final int messageId;
+
+    public UbxNakException(int messageClass, int messageId) {
+        super("Message not acknowledged: class=0x" + String.format("%02X", messageClass) + ", id=0x" + String.format("%02X", messageId));
+        this.messageClass = messageClass;
+        this.messageId = messageId;
+    }
+
+    public int messageClass() {
+        return this.messageClass;
+    }
+
+    public int messageId() {
+        return this.messageId;
+    }
+
+}
@@ -0,0 +1,209 @@
+package com.example.project.ubx.frame.transport;
+
+import com.example.project.ubx.frame.UbxFrame;
+import com.example.project.ubx.frame.exception.UbxTransportException;
+import com.example.project.ubx.message.UbxMessageClass;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Epoch-aware polling schedule for a {@link UbxTransport}.
+ * Learns the navigation rate from the iTOW field that leads almost every NAV payload,
+ * and learns when an epoch becomes readable by bracketing it between the last empty poll and the first poll that found it.
+ * The next poll is placed a guard before the predicted ready time, so it normally comes back empty
+ * and the short backoff polls after it find the epoch within a guard or two, which tightens the bracket again.
+ * While data keeps turning up already waiting, the estimate moves earlier by a growing lead until an empty poll precedes it.
+ * Empty polls back off exponentially.
+ * A short follow-up poll catches messages of an epoch that were still being written,
+ * and is skipped (apart from occasional probes) while it keeps coming back empty.
+ * Until an epoch rate is known, the transport is polled at a fixed fallback interval.
+ * Not thread-safe.
+ */
+public final class UbxAdaptivePoller {
+
+    private static final long UNKNOWN = -1;
+
+    private static final int TAIL_SCORE_MAX = 4;
+    private static final int TAIL_PROBE_EPOCHS = 16;
+
+    private final @NotNull UbxTransport transport;
+    private final @NotNull LongSupplier clock;
+
+    private final long guard; // Margin after the predicted ready time
+    private final long fallbackInterval;
+    private final long minBackoff;
+
+    // Epoch model
+    private long lastITOW = UNKNOWN;
+    private long period = UNKNOWN; // Nanoseconds
+    private long ready = UNKNOWN; // Estimated ready time of the last epoch
+    private long lastEmptyPoll = UNKNOWN;
+    private boolean emptySinceEpoch = false;
+    private long lead; // How far the estimate moves before an arrival that was not bracketed
+
+    // Schedule
+    private long nextPoll;
+    private long backoff;
+    private boolean tailPoll = false;
+    private int tailScore = TAIL_SCORE_MAX / 2; // Follow-up polls pay off while positive
+    private int epochsSinceTail = 0;
+
+    // Statistics
+    private long polls = 0;
+    private long emptyPolls = 0;
+
+    public UbxAdaptivePoller(@NotNull UbxTransport transport) {
+        this(transport, System::nanoTime);
+    }
+
+    public UbxAdaptivePoller(@NotNull UbxTransport transport, @NotNull LongSupplier clock) {
+        this(transport, clock, TimeUnit.MILLISECONDS.toNanos(2), TimeUnit.MILLISECONDS.toNanos(10));
+    }
+
+    public UbxAdaptivePoller(@NotNull UbxTransport transport, @NotNull LongSupplier clock, long guard, long fallbackInterval) {
+        this.transport = transport;
+        this.clock = clock;
+        this.guard = guard;
+        this.fallbackInterval = fallbackInterval;
+        this.minBackoff = Math.max(guard / 2, 1);
+        this.backoff = this.minBackoff;
+        this.lead = guard;
+        this.nextPoll = clock.getAsLong();
+    }
+
+    // Absolute clock time of the next scheduled poll
+    public long nextPollTime() {
+        return this.nextPoll;
+    }
+
+    // Learned navigation period in nanoseconds, or -1 while unknown
+    public long epochPeriod() {
+        return this.period;
+    }
+
+    public long polls() {
+        return this.polls;
+    }
+
+    public long emptyPolls() {
+        return this.emptyPolls;
+    }
+
+    /**
+     * Parks the calling thread until the next scheduled poll, then drains the transport.
+     * Returns the number of frames handed to the consumer.
+     */
+    public int awaitAndDrain(@NotNull Consumer<UbxFrame> consumer) throws UbxTransportException {
+        long delay;
+        while((delay = this.nextPoll - this.clock.getAsLong()) > 0) {
+            LockSupport.parkNanos(this, delay);
+            if(Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                return 0;
+            }
+        }
+        return this.drain(consumer);
+    }
+
+    /**
+     * Polls the transport until it runs empty and reschedules.
+     * Frames are views valid only inside the consumer, see {@link UbxTransport#poll()}.
+     */
+    public int drain(@NotNull Consumer<UbxFrame> consumer) throws UbxTransportException {
+        long start = this.clock.getAsLong();
+        boolean newEpoch = false;
+        int count = 0;
+        Optional<UbxFrame> frame;
+        while(true) {
+            this.polls++;
+            frame = this.transport.poll();
+            if(frame.isEmpty()) {
+                break;
+            }
+            count++;
+            newEpoch |= this.observe(frame.get(), start);
+            consumer.accept(frame.get());
+        }
+        long now = this.clock.getAsLong();
+        if(count == 0) {
+            this.emptyPolls++;
+            this.lastEmptyPoll = start;
+            this.emptySinceEpoch = true;
+        }
+        this.schedule(now, count > 0, newEpoch);
+        return count;
+    }
+
+    // Returns true when the frame opens a new epoch
+    private boolean observe(@NotNull UbxFrame frame, long arrival) {
+        if(frame.messageClass() != UbxMessageClass.NAV.id || frame.length() < 4) {
+            return false;
+        }
+        long iTOW = frame.payloadReader().peekU4(0);
+        if(iTOW == this.lastITOW) {
+            return false;
+        }
+        if(this.lastITOW != UNKNOWN && iTOW > this.lastITOW) {
+            this.learnPeriod(TimeUnit.MILLISECONDS.toNanos(iTOW - this.lastITOW));
+        }
+        this.lastITOW = iTOW;
+        // The epoch became readable between the last empty poll and this one
+        if(this.emptySinceEpoch && arrival - this.lastEmptyPoll < 4 * this.guard) {
+            this.ready = this.lastEmptyPoll + (arrival - this.lastEmptyPoll) / 2;
+            this.lead = this.guard;
+        } else {
+            // Data was already waiting for an unknown time, probe earlier by a growing step
+            this.ready = arrival - this.lead;
+            long maxLead = this.period == UNKNOWN ? this.guard : Math.max(this.period / 2, this.guard);
+            this.lead = Math.min(this.lead * 2, maxLead);
+        }
+        this.emptySinceEpoch = false;
+        return true;
+    }
+
+    private void learnPeriod(long delta) {
+        if(this.period == UNKNOWN) {
+            this.period = delta;
+        } else if(delta < this.period + this.period / 2) {
+            this.period += (delta - this.period) / 4;
+        }
+        // Larger gaps are missed epochs, ignore them
+    }
+
+    private void schedule(long now, boolean gotData, boolean newEpoch) {
+        if(this.tailPoll) {
+            this.tailPoll = false;
+            this.tailScore = gotData ? Math.min(this.tailScore + 1, TAIL_SCORE_MAX) : Math.max(this.tailScore - 1, 0);
+        }
+        if(this.period == UNKNOWN || this.ready == UNKNOWN) {
+            this.nextPoll = now + this.fallbackInterval;
+            return;
+        }
+        if(newEpoch) {
+            this.epochsSinceTail++;
+        }
+        if(newEpoch && (this.tailScore > 0 || this.epochsSinceTail >= TAIL_PROBE_EPOCHS)) {
+            this.tailPoll = true;
+            this.epochsSinceTail = 0;
+            this.backoff = this.minBackoff;
+            this.nextPoll = now + this.guard;
+            return;
+        }
+        // Ahead of the estimate, an empty poll here is what brackets the next epoch
+        long predicted = this.ready + this.period - this.guard;
+        if(gotData || predicted - now > 0) {
+            this.backoff = this.minBackoff;
+            this.nextPoll = Math.max(predicted, now);
+            return;
+        }
+        // Expected epoch is late, back off up to half a period
+        this.nextPoll = now + this.backoff;
+        this.backoff = Math.min(this.backoff * 2, Math.max(this.period / 2, this.minBackoff));
+    }
+
+}
@@ -2,6 +2,7 @@ package com.example.project.ubx.frame.transport;
 
 import com.example.project.ubx.frame.exception.UbxTransportException;
 import com.example.project.ubx.frame.UbxFrame;
+import com.example.project.ubx.message.UbxMessage;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Optional;
@@ -10,6 +11,12 @@ public interface UbxTransport {
 
     void send(@NotNull UbxFrame frame) throws UbxTransportException;
 
+    // Transports with a reusable output buffer encode the message in place instead of building a frame
+    default void send(@NotNull UbxMessage message) throws UbxTransportException {
+        this.send(message.flatten());
+    }
+
+    // The returned frame may be a view over a transport buffer, valid until the next poll
     @NotNull Optional<UbxFrame> poll() throws UbxTransportException;
 
 }
@@ -0,0 +1,48 @@
+package com.example.project.ubx.frame.transport;
+
+import com.example.project.metrics.Counter;
+import com.example.project.metrics.Histogram;
+import com.example.project.metrics.MetricsRegistry;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receive-side metrics of a transport: frames, stream bytes, frames dropped by the decoder,
+ * skipped garbage and the time from entering a poll until it returns a decoded frame.
+ * The transport gathers its counts in plain fields. About one poll in {@link #SAMPLE_INTERVAL} of those reading the bus,
+ * at jittered intervals, is timed and forwards the counts gathered since the previous one.
+ * Polls served from frames already decoded never record. Counts lag by up to one and a half intervals of bus reads
+ * until the transport's {@code flushMetrics()} is called.
+ * Names start with the given prefix, e.g. {@code ubx.transport.frames}.
+ */
+public final class UbxTransportMetrics {
+
+    public static final int SAMPLE_INTERVAL = 64;
+
+    private static final @NotNull UbxTransportMetrics GLOBAL = create(MetricsRegistry.global(), "ubx.transport");
+
+    // Shared by every transport built without metrics of its own
+    public static @NotNull UbxTransportMetrics global() {
+        return GLOBAL;
+    }
+
+    public static @NotNull UbxTransportMetrics create(@NotNull MetricsRegistry registry, @NotNull String prefix) {
+        return new UbxTransportMetrics(registry, prefix);
+    }
+
+    final @NotNull Counter frames;
+    final @NotNull Counter bytes; // Stream bytes read from the receiver
+    final @NotNull Counter dropped; // Checksum failures and oversized frames
+    final @NotNull Counter skippedBytes;
+    final @NotNull Counter sent;
+    final @NotNull Histogram pollNanos; // Polls reading the bus and returning a frame
+
+    private UbxTransportMetrics(@NotNull MetricsRegistry registry, @NotNull String prefix) {
+        this.frames = registry.counter(prefix + ".frames");
+        this.bytes = registry.counter(prefix + ".bytes");
+        this.dropped = registry.counter(prefix + ".dropped");
+        this.skippedBytes = registry.counter(prefix + ".skippedBytes");
+        this.sent = registry.counter(prefix + ".sent");
+        this.pollNanos = registry.histogram(prefix + ".poll.nanos");
+    }
+
+}
@@ -10,24 +10,187 @@ import com.example.project.ubx.frame.exception.UbxDeviceUnreachableException;
 import com.example.project.ubx.frame.exception.UbxTransportDriverException;
 import com.example.project.ubx.frame.exception.UbxTransportException;
 import com.example.project.ubx.frame.UbxFrame;
+import com.example.project.ubx.frame.UbxFrameDecoder;
+import com.example.project.ubx.message.UbxMessage;
 import com.example.project.util.PackedReader;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * UBX transport over the DDC (TWI) port of a u-blox receiver.
+ * By default every poll with data waiting costs two transactions: one reading the byte count from 0xFD/0xFE,
+ * one reading that many bytes from the 0xFF stream.
+ * In speculative mode the count and a window of data are read in a single transaction,
+ * relying on the register pointer advancing from 0xFD into the 0xFF stream.
+ * The window follows recent byte counts, a follow-up read fetches the rest when it was too small.
+ * Window bytes past the count are kept up to the trailing 0xFF run, the receiver streams output produced after latching the count.
+ * <p>
+ * Large backlogs are drained in chunks of bounded size through a transport-owned ring,
+ * and each poll returns as soon as a frame completes or its time budget is spent.
+ * The remaining byte count is carried over, so the next poll continues without re-reading it.
+ * <p>
+ * Messages are encoded straight into a reused write buffer. Poll and send from a single thread.
+ * Receive statistics go to {@link UbxTransportMetrics}, the shared ones unless the builder is given others.
+ */
 public final class UbxTwiTransport implements UbxTransport {
 
-    private static final int FRAME_LENGTH_LIMIT = 4096; // Artificial limit
+    public static @NotNull Builder builder(@NotNull TwiDriver twiDriver, int address) {
+        return new Builder(twiDriver, address);
+    }
+
+    public static final class Builder {
+
+        private final @NotNull TwiDriver twiDriver;
+        private final int address;
+        private int minWindow = 0;
+        private int maxWindow = 0;
+        private int chunkSize = 512;
+        private long drainBudget = TimeUnit.MILLISECONDS.toNanos(5);
+        private int maxPayloadLength = 4096;
+        private @NotNull UbxTransportMetrics metrics = UbxTransportMetrics.global();
+
+        private Builder(@NotNull TwiDriver twiDriver, int address) {
+            this.twiDriver = twiDriver;
+            this.address = address;
+        }
+
+        // Reads the byte count together with min..max data bytes in one transaction
+        public @NotNull Builder speculativeRead(int minWindow, int maxWindow) {
+            if(minWindow <= 0 || maxWindow < minWindow) {
+                throw new IllegalArgumentException("Invalid speculative window " + minWindow + ".." + maxWindow);
+            }
+            this.minWindow = minWindow;
+            this.maxWindow = maxWindow;
+            return this;
+        }
+
+        // Largest single data read, also the size of the receive ring
+        public @NotNull Builder chunkSize(int chunkSize) {
+            if(chunkSize <= 0) {
+                throw new IllegalArgumentException("Chunk size must be positive");
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        // Bus time in nanoseconds a single poll may spend draining before it returns
+        public @NotNull Builder drainBudget(long drainBudget) {
+            if(drainBudget <= 0) {
+                throw new IllegalArgumentException("Drain budget must be positive");
+            }
+            this.drainBudget = drainBudget;
+            return this;
+        }
+
+        // Frames with longer payloads are skipped, a lower limit also bounds the decoder's rescans of garbage
+        public @NotNull Builder maxPayloadLength(int maxPayloadLength) {
+            if(maxPayloadLength <= 0 || maxPayloadLength > UbxFrame.PAYLOAD_MAX_LENGTH) {
+                throw new IllegalArgumentException("Maximum payload length out of range 1.." + UbxFrame.PAYLOAD_MAX_LENGTH);
+            }
+            this.maxPayloadLength = maxPayloadLength;
+            return this;
+        }
+
+        // Reports into the given metrics instead of the shared ones
+        public @NotNull Builder metrics(@NotNull UbxTransportMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        public @NotNull UbxTwiTransport build() {
+            return new UbxTwiTransport(this);
+        }
+
+    }
 
-    private static final int REG_NBYTES = 0xFC;
+    private static final int REG_NBYTES = 0xFD; // 0xFD/0xFE, big-endian
     private static final int REG_DATA = 0xFF;
 
     private final @NotNull TwiDriver twiDriver;
     private final int address;
 
+    private final @NotNull UbxFrameDecoder decoder;
+
+    // Chunked drain
+    private final int chunkSize;
+    private final long drainBudget;
+    private int pending = 0; // Bytes known to be waiting in the receiver
+
+    // Polling transactions, built once and resubmitted
+    private final @NotNull TwiTransaction lengthRead;
+    private final @NotNull TwiTransaction dataRead;
+    private final @NotNull TwiTransaction speculativeRead;
+    private final @NotNull TwiTransaction messageWrite;
+
+    // Speculative window, disabled when maxWindow is 0
+    private final int minWindow;
+    private final int maxWindow;
+    private int averageLength; // Moving average of non-zero byte counts
+    private int window;
+    private long followUpReads = 0;
+
+    private final @NotNull UbxTransportMetrics metrics;
+    private int untilSample = 1; // Bus reads until the next timed and reporting poll
+    private long streamBytes = 0;
+    private long bytesSeen = 0; // Statistics already reported
+    private long framesSeen = 0;
+    private long droppedSeen = 0;
+    private long skippedSeen = 0;
+
     public UbxTwiTransport(@NotNull TwiDriver twiDriver, int address) {
-        this.twiDriver = twiDriver;
-        this.address = address;
+        this(new Builder(twiDriver, address));
+    }
+
+    private UbxTwiTransport(@NotNull Builder builder) {
+        this.twiDriver = builder.twiDriver;
+        this.address = builder.address;
+        // A whole chunk or speculative window always fits, the ring is empty whenever the decoder has no frame
+        this.decoder = new UbxFrameDecoder(Math.max(builder.chunkSize, builder.maxWindow), builder.maxPayloadLength);
+        this.chunkSize = builder.chunkSize;
+        this.drainBudget = builder.drainBudget;
+        this.metrics = builder.metrics;
+        this.lengthRead = TwiTransaction.builder(this.address)
+                .write(REG_NBYTES)
+                .read(2) // Index = 1
+                .build();
+        this.dataRead = TwiTransaction.builder(this.address)
+                .write(REG_DATA)
+                .read(0) // Index = 1, resized per poll
+                .build();
+        this.minWindow = builder.minWindow;
+        this.maxWindow = builder.maxWindow;
+        this.averageLength = builder.minWindow;
+        this.window = builder.minWindow;
+        this.speculativeRead = TwiTransaction.builder(this.address)
+                .write(REG_NBYTES)
+                .read(2 + this.window) // Index = 1, count followed by the data window
+                .build();
+        this.messageWrite = TwiTransaction.builder(this.address)
+                .write(new byte[64]) // Index = 0, resized per message
+                .build();
+    }
+
+    // Current speculative window in bytes, 0 when speculative reads are disabled
+    public int speculativeWindow() {
+        return this.window;
+    }
+
+    // Bytes still waiting in the receiver as of the last count read
+    public int pending() {
+        return this.pending;
+    }
+
+    // Number of polls where the speculative window was too small
+    public long followUpReads() {
+        return this.followUpReads;
+    }
+
+    // Forwards the counts gathered since the last sampled poll, call it from the polling thread before taking a snapshot
+    public void flushMetrics() {
+        this.report();
     }
 
     @Override
@@ -37,6 +200,7 @@ public final class UbxTwiTransport implements UbxTransport {
                     this.address,
                     frame.serialize()
             ).toTransaction().submit(this.twiDriver);
+            this.metrics.sent.increment();
         }
         catch (TwiDriverException e) {
             throw new UbxTransportDriverException("TWI driver exception.", e);
@@ -50,55 +214,163 @@ public final class UbxTwiTransport implements UbxTransport {
     }
 
     @Override
-    public @NotNull Optional<UbxFrame> poll() throws UbxTransportException {
-        byte[] data;
-
-        // I can't guarantee that this flow is correct. We need hands-on testing.
+    public void send(@NotNull UbxMessage message) throws UbxTransportException {
         try {
+            this.messageWrite.prepareWrite(0, message.payloadLength() + 8);
+            UbxFrame.encode(message, this.messageWrite.getSegmentData(0), 0);
+            this.messageWrite.submit(this.twiDriver);
+            this.metrics.sent.increment();
+        }
+        catch (TwiDriverException e) {
+            throw new UbxTransportDriverException("TWI driver exception.", e);
+        }
+        catch (TwiTransactionException e) {
+            if(e instanceof TwiNackException ex && ex.stage() == TwiNackException.Stage.ADDRESS) {
+                throw new UbxDeviceUnreachableException("Device unreachable via TWI.", ex);
+            }
+            throw new UbxTransportException("Failed to send message", e);
+        }
+    }
 
-            // First read how many bytes are available
-            var r1 = TwiTransaction.builder(this.address)
-                    .write(REG_NBYTES)
-                    .read(2) // Index = 1
-                    .build()
-                    .submit(this.twiDriver);
-            int length = new PackedReader(r1.getSegmentData(1)).peekU2(0);
-
-            if(length == 0) {
-                // No data available
-                return Optional.empty();
+    @Override
+    public @NotNull Optional<UbxFrame> poll() throws UbxTransportException {
+        // Serve frames left over from a previous read first, metrics catch up on a later bus read
+        Optional<UbxFrame> frame = this.decoder.next();
+        if(frame.isPresent()) {
+            return frame;
+        }
+        long start = System.nanoTime();
+        boolean sampled = --this.untilSample == 0;
+        try {
+            frame = this.drain(start);
+            if(sampled && frame.isPresent()) {
+                this.metrics.pollNanos.record(System.nanoTime() - start);
             }
-            if(length > FRAME_LENGTH_LIMIT) {
-                // Length is too long (limit read sizes during testing)
-                return Optional.empty();
+            return frame;
+        }
+        finally {
+            if(sampled) {
+                // Jittered, a fixed stride would keep sampling the same poll of each epoch
+                this.untilSample = ThreadLocalRandom.current().nextInt(UbxTransportMetrics.SAMPLE_INTERVAL / 2, UbxTransportMetrics.SAMPLE_INTERVAL * 3 / 2);
+                this.report();
             }
+        }
+    }
 
-            // Read data
-            var r2 = TwiTransaction.builder(this.address)
-                    .write(REG_DATA)
-                    .read(length) // Index = 1
-                    .build()
-                    .submit(this.twiDriver);
-            data = r2.getSegmentData(1);
-
-            if(data[0] == (byte) 0xFF) {
-                // Can't be the start of a UBX frame
-                return Optional.empty();
-            }
+    private @NotNull Optional<UbxFrame> drain(long start) throws UbxTransportException {
+        Optional<UbxFrame> frame;
+        long deadline = start + this.drainBudget;
 
+        // I can't guarantee that this flow is correct. We need hands-on testing.
+        try {
+            if(this.pending == 0) {
+                this.pending = this.maxWindow > 0 ? this.readSpeculative() : this.readCount();
+                frame = this.decoder.next();
+                if(frame.isPresent()) {
+                    return frame;
+                }
+            }
+            while(this.pending > 0) {
+                this.readChunk();
+                frame = this.decoder.next();
+                if(frame.isPresent()) {
+                    return frame;
+                }
+                if(System.nanoTime() - deadline >= 0) {
+                    // Budget spent, the next poll continues with the remaining bytes
+                    break;
+                }
+            }
         }
         catch (TwiDriverException e) {
+            this.pending = 0; // Unknown how much was read, start over with a fresh count
             throw new UbxTransportDriverException("TWI driver exception.", e);
         }
         catch (TwiTransactionException e) {
+            this.pending = 0;
             if(e instanceof TwiNackException ex && ex.stage() == TwiNackException.Stage.ADDRESS) {
                 throw new UbxDeviceUnreachableException("Device unreachable via TWI.", ex);
             }
             throw new UbxTransportException("Failed to send frame", e);
         }
+        return Optional.empty();
+    }
+
+    // Returns the number of bytes available
+    private int readCount() throws TwiDriverException, TwiTransactionException {
+        this.lengthRead.submit(this.twiDriver);
+        return new PackedReader(this.lengthRead.getSegmentData(1)).peekU2n(0);
+    }
+
+    // Returns the number of bytes available beyond the window
+    private int readSpeculative() throws TwiDriverException, TwiTransactionException {
+        // Count and the start of the stream in one go, the pointer moves on from 0xFE to 0xFF
+        int window = this.window;
+        this.speculativeRead
+                .prepareRead(1, 2 + window)
+                .submit(this.twiDriver);
+        byte[] data = this.speculativeRead.getSegmentData(1);
+        int length = new PackedReader(data).peekU2n(0);
+        if(length > 0) {
+            this.adaptWindow(length);
+        }
+
+        // Past the count the window holds 0xFF filler, or output the receiver produced after latching the count.
+        // That output is gone from the receiver once read, so everything up to the trailing 0xFF run is kept.
+        // Genuine 0xFF bytes at the very end of the window can't be told apart from filler and are lost,
+        // the decoder resynchronizes on the next frame.
+        int head = Math.min(length, window);
+        int end = window;
+        while(end > head && data[1 + end] == (byte) 0xFF) {
+            end--;
+        }
+        this.decoder.feed(data, 2, end);
+        this.streamBytes += end;
+        if(length > head) {
+            this.followUpReads++;
+        }
+        return length - head;
+    }
+
+    // Called with an empty ring only
+    private void readChunk() throws TwiDriverException, TwiTransactionException {
+        int length = Math.min(this.pending, this.chunkSize);
+        this.dataRead
+                .prepareRead(1, length)
+                .submit(this.twiDriver);
+        this.decoder.feed(this.dataRead.getSegmentData(1), 0, length);
+        this.streamBytes += length;
+        this.pending -= length;
+    }
+
+    // Forwards the stream and decoder statistics gathered since the last report
+    private void report() {
+        if(this.streamBytes != this.bytesSeen) {
+            this.metrics.bytes.add(this.streamBytes - this.bytesSeen);
+            this.bytesSeen = this.streamBytes;
+        }
+        long frames = this.decoder.frames();
+        if(frames != this.framesSeen) {
+            this.metrics.frames.add(frames - this.framesSeen);
+            this.framesSeen = frames;
+        }
+        long dropped = this.decoder.checksumFailures() + this.decoder.oversizedFrames();
+        if(dropped != this.droppedSeen) {
+            this.metrics.dropped.add(dropped - this.droppedSeen);
+            this.droppedSeen = dropped;
+        }
+        long skipped = this.decoder.skippedBytes();
+        if(skipped != this.skippedSeen) {
+            this.metrics.skippedBytes.add(skipped - this.skippedSeen);
+            this.skippedSeen = skipped;
+        }
+    }
 
-        // Parse frame
-        return UbxFrame.deserialize(data);
+    // Window covers the average count with a quarter of headroom
+    private void adaptWindow(int length) {
+        this.averageLength += (length - this.averageLength) / 4;
+        int window = this.averageLength + this.averageLength / 4;
+        this.window = Math.max(this.minWindow, Math.min(window, this.maxWindow));
     }
 
 }
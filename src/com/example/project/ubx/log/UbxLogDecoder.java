@@ -0,0 +1,320 @@
+package com.example.project.ubx.log;
+
+import com.example.project.ubx.message.UbxMessage;
+import com.example.project.ubx.message.UbxMessageFactory;
+import com.example.project.util.PackedBufferReader;
+import com.example.project.util.RFC1145;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Decodes large raw UBX logs (u-center .ubx files) on a fork/join pool.
+ * The file is memory-mapped in chunks, each scanned independently for frames:
+ * sync bytes, a plausible length and a valid checksum. Garbage between frames is skipped.
+ * A chunk owns the frames starting inside it, a frame may run into the next chunk.
+ * <p>
+ * Decoding runs in three passes. Chunks are first indexed in parallel.
+ * A short serial pass then stitches the boundaries: a chunk whose scan locked onto bytes inside a frame
+ * of the previous chunk drops those matches and rescans from the end of that frame until it meets its own index again.
+ * Finally the chunks are decoded through {@link UbxMessageFactory} in parallel,
+ * delivered in file order or, unordered, straight from the worker threads.
+ * Every pass reads the chunk's mapping in place, nothing is copied to the heap besides the decoded messages.
+ */
+public final class UbxLogDecoder {
+
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private int chunkSize = 16 << 20;
+        private @NotNull ForkJoinPool pool = ForkJoinPool.commonPool();
+        private boolean ordered = true;
+
+        private Builder() {
+
+        }
+
+        public @NotNull Builder chunkSize(int chunkSize) {
+            if(chunkSize < 1024 || chunkSize > Integer.MAX_VALUE - MAX_FRAME_LENGTH) {
+                throw new IllegalArgumentException("Chunk size out of range: " + chunkSize);
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        public @NotNull Builder pool(@NotNull ForkJoinPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        // Unordered delivery calls the handler from several threads at once
+        public @NotNull Builder ordered(boolean ordered) {
+            this.ordered = ordered;
+            return this;
+        }
+
+        public @NotNull UbxLogDecoder build() {
+            return new UbxLogDecoder(this);
+        }
+
+    }
+
+    public record Result(
+            long bytes,
+            long frames,
+            long messages, // Frames decoded by a registered type
+            long unknown, // Frames without a registered type
+            long malformed, // Frames their type refused to decode
+            long skippedBytes // Bytes outside any valid frame
+    ) {
+
+    }
+
+    private static final int HEADER_1 = 0xb5;
+    private static final int HEADER_2 = 0x62;
+    private static final int MAX_FRAME_LENGTH = 65535 + 8;
+    private static final int[] NO_FRAMES = new int[0];
+
+    // Frame starts of one chunk, relative to the chunk start
+    private static final class Chunk {
+
+        private final long start;
+        private final int length; // Bytes owned by this chunk
+        private int[] frames = new int[64];
+        private int count = 0;
+        private long bytes = 0; // Frame bytes
+        private long end; // End of the last frame, absolute
+        private @Nullable ByteBuffer data = null; // Mapped from indexing until decoded
+        private @Nullable List<UbxMessage> decoded = null; // Ordered delivery only
+
+        private Chunk(long start, int length) {
+            this.start = start;
+            this.length = length;
+            this.end = start;
+        }
+
+        private void add(int offset, int length) {
+            if(this.count == this.frames.length) {
+                this.frames = Arrays.copyOf(this.frames, this.count * 2);
+            }
+            this.frames[this.count++] = offset;
+            this.bytes += length;
+            this.end = this.start + offset + length;
+        }
+
+    }
+
+    private interface ChunkTask {
+
+        void run(@NotNull Chunk chunk) throws IOException;
+
+    }
+
+    private final int chunkSize;
+    private final @NotNull ForkJoinPool pool;
+    private final boolean ordered;
+
+    private UbxLogDecoder(@NotNull Builder builder) {
+        this.chunkSize = builder.chunkSize;
+        this.pool = builder.pool;
+        this.ordered = builder.ordered;
+    }
+
+    /**
+     * Decodes every frame of the file and hands the messages to the handler.
+     * Ordered delivery calls the handler from the calling thread in file order, holding a few chunks of messages at a time.
+     */
+    public @NotNull Result decode(@NotNull Path file, @NotNull Consumer<? super UbxMessage> handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            List<Chunk> chunks = new ArrayList<>();
+            for(long start = 0; start < size; start += this.chunkSize) {
+                chunks.add(new Chunk(start, (int) Math.min(this.chunkSize, size - start)));
+            }
+
+            // Index
+            this.invokeAll(chunks, chunk -> {
+                chunk.data = map(channel, size, chunk);
+                scan(chunk.data, chunk, 0, NO_FRAMES);
+            });
+
+            // Stitch
+            long end = 0;
+            long frames = 0;
+            long frameBytes = 0;
+            for(Chunk chunk : chunks) {
+                stitch(chunk, end);
+                end = Math.max(end, chunk.end);
+                frames += chunk.count;
+                frameBytes += chunk.bytes;
+            }
+
+            // Decode
+            LongAdder messages = new LongAdder();
+            LongAdder unknown = new LongAdder();
+            LongAdder malformed = new LongAdder();
+            int batch = this.ordered ? Math.max(1, this.pool.getParallelism() * 2) : chunks.size();
+            for(int from = 0; from < chunks.size(); from += batch) {
+                List<Chunk> slice = chunks.subList(from, Math.min(from + batch, chunks.size()));
+                this.invokeAll(slice, chunk -> {
+                    List<UbxMessage> decoded = this.ordered ? new ArrayList<>(chunk.count) : null;
+                    Consumer<? super UbxMessage> sink = decoded != null ? decoded::add : handler;
+                    decode(chunk.data, chunk, sink, messages, unknown, malformed);
+                    chunk.data = null; // Lets the mapping go
+                    chunk.decoded = decoded;
+                });
+                for(Chunk chunk : slice) {
+                    List<UbxMessage> decoded = chunk.decoded;
+                    if(decoded != null) {
+                        chunk.decoded = null;
+                        decoded.forEach(handler);
+                    }
+                }
+            }
+            return new Result(size, frames, messages.sum(), unknown.sum(), malformed.sum(), size - frameBytes);
+        }
+    }
+
+    private void invokeAll(@NotNull List<Chunk> chunks, @NotNull ChunkTask task) throws IOException {
+        List<RecursiveAction> actions = new ArrayList<>(chunks.size());
+        for(Chunk chunk : chunks) {
+            actions.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    try {
+                        task.run(chunk);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        }
+        try {
+            this.pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(actions);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Owned bytes plus room for a frame running into the next chunk
+    private static @NotNull ByteBuffer map(@NotNull FileChannel channel, long size, @NotNull Chunk chunk) throws IOException {
+        int length = (int) Math.min(chunk.length + (long) MAX_FRAME_LENGTH, size - chunk.start);
+        return channel.map(FileChannel.MapMode.READ_ONLY, chunk.start, length);
+    }
+
+    /**
+     * Indexes the frames starting between from and the end of the chunk.
+     * Stops early on reaching one of the known frame starts, the rest of the chain is already known from there.
+     * Returns the index into known the scan stopped at.
+     */
+    private static int scan(@NotNull ByteBuffer data, @NotNull Chunk chunk, int from, int[] known) {
+        int position = from;
+        int next = 0;
+        while(position < chunk.length) {
+            while(next < known.length && known[next] < position) {
+                next++;
+            }
+            if(next < known.length && known[next] == position) {
+                return next;
+            }
+            int length = frameLength(data, position);
+            if(length < 0) {
+                position++; // Resynchronize on the next byte
+                continue;
+            }
+            chunk.add(position, length);
+            position += length;
+        }
+        return known.length;
+    }
+
+    // Length of a valid frame at position, or -1
+    private static int frameLength(@NotNull ByteBuffer data, int position) {
+        if(position + 8 > data.limit() || (data.get(position) & 0xFF) != HEADER_1 || (data.get(position + 1) & 0xFF) != HEADER_2) {
+            return -1;
+        }
+        int payloadLength = payloadLength(data, position);
+        int length = payloadLength + 8;
+        if(position + length > data.limit()) {
+            return -1; // Truncated at the end of the file
+        }
+        RFC1145 checksum = new RFC1145();
+        checksum.update(data, position + 2, payloadLength + 4);
+        int expected = (data.get(position + length - 2) & 0xFF) << 8 | (data.get(position + length - 1) & 0xFF);
+        return checksum.get() == expected ? length : -1;
+    }
+
+    private static int payloadLength(@NotNull ByteBuffer data, int position) {
+        return (data.get(position + 4) & 0xFF) | (data.get(position + 5) & 0xFF) << 8;
+    }
+
+    /*
+     * The index scan of a chunk starts blind at its first byte and may lock onto bytes inside a frame
+     * that began in the previous chunk. Those matches are dropped and the chunk is rescanned from the end of that frame
+     * until the rescan lands on a frame start of the original index, from where both agree.
+     */
+    private static void stitch(@NotNull Chunk chunk, long previousEnd) {
+        int resume = (int) Math.min(Math.max(previousEnd - chunk.start, 0), chunk.length);
+        if(chunk.count == 0 || chunk.frames[0] >= resume) {
+            return; // Nothing overlaps, the blind scan tried every byte up to its first frame
+        }
+        int first = 0;
+        while(first < chunk.count && chunk.frames[first] < resume) {
+            first++;
+        }
+        int[] known = Arrays.copyOfRange(chunk.frames, first, chunk.count);
+        chunk.frames = new int[Math.max(64, known.length + 16)];
+        chunk.count = 0;
+        chunk.bytes = 0;
+        chunk.end = chunk.start;
+        ByteBuffer data = chunk.data;
+        for(int i = scan(data, chunk, resume, known); i < known.length; i++) {
+            chunk.add(known[i], payloadLength(data, known[i]) + 8);
+        }
+    }
+
+    private static void decode(@NotNull ByteBuffer data, @NotNull Chunk chunk, @NotNull Consumer<? super UbxMessage> sink,
+                               @NotNull LongAdder messages, @NotNull LongAdder unknown, @NotNull LongAdder malformed) {
+        for(int i = 0; i < chunk.count; i++) {
+            int position = chunk.frames[i];
+            UbxMessage.Type type = UbxMessageFactory.lookup(data.get(position + 2) & 0xFF, data.get(position + 3) & 0xFF);
+            if(type == null) {
+                unknown.increment();
+                continue;
+            }
+            // Payload read straight from the mapping
+            PackedBufferReader reader = new PackedBufferReader(data, position + 6, payloadLength(data, position));
+            Optional<UbxMessage> message = type.unflatten(reader);
+            if(message.isPresent()) {
+                messages.increment();
+                sink.accept(message.get());
+            } else {
+                malformed.increment();
+            }
+        }
+    }
+
+}
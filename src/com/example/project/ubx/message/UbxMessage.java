@@ -3,6 +3,9 @@ package com.example.project.ubx.message;
 import com.example.project.ubx.frame.UbxFrame;
 import com.example.project.ubx.frame.exception.UbxTransportException;
 import com.example.project.ubx.frame.transport.UbxTransport;
+import com.example.project.util.PackedInput;
+import com.example.project.util.PackedOutput;
+import com.example.project.util.PackedWriter;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Optional;
@@ -15,24 +18,30 @@ public interface UbxMessage {
 
         int messageId();
 
-        Optional<UbxMessage> unflatten(byte[] payload);
+        // The input is bound to the payload of a frame, which may be a transient view or off-heap memory
+        Optional<UbxMessage> unflatten(@NotNull PackedInput payload);
 
     }
 
     @NotNull Type type();
 
-    byte[] serializePayload();
+    int payloadLength();
+
+    // Writes payloadLength() bytes at offset, usually straight into a frame buffer after the header
+    void writePayload(@NotNull PackedOutput output, int offset);
+
+    default byte[] serializePayload() {
+        PackedWriter writer = new PackedWriter(this.payloadLength());
+        this.writePayload(writer, 0);
+        return writer.data();
+    }
 
     default @NotNull UbxFrame flatten() {
-        return new UbxFrame(
-                this.type().messageClass().id,
-                this.type().messageId(),
-                this.serializePayload()
-        );
+        return UbxFrame.encode(this);
     }
 
     default void send(@NotNull UbxTransport transport) throws UbxTransportException {
-        transport.send(this.flatten());
+        transport.send(this);
     }
 
 }
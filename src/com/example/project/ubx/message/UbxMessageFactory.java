@@ -1,32 +1,86 @@
 package com.example.project.ubx.message;
 
+import com.example.project.metrics.Counter;
+import com.example.project.metrics.MetricsRegistry;
 import com.example.project.ubx.frame.UbxFrame;
+import com.example.project.ubx.message.type.UbxMessageTypes;
+import com.example.project.util.PackedInput;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+/**
+ * Dispatches frames to their registered {@link UbxMessage.Type}.
+ * Types live in a table indexed directly by {@code (class << 8) | id}, so a lookup is a single array load.
+ * Registration publishes with release semantics and lookups read with acquire semantics,
+ * so types registered from other threads are safely visible to dispatching threads.
+ * Every type generated from the schema is registered when this class initializes, i.e. before the first lookup,
+ * whether or not the message classes themselves have been loaded yet.
+ */
 public final class UbxMessageFactory {
 
     private UbxMessageFactory() {
 
     }
 
-    private static final Map<Integer, UbxMessage.Type> registry = new HashMap<>();
+    private static final AtomicReferenceArray<UbxMessage.Type> registry = new AtomicReferenceArray<>(1 << 16);
 
-    public static void register(UbxMessage.Type type) {
-        int key = (type.messageClass().id << 8) | type.messageId();
-        registry.put(key, type);
+    // Only the rare paths are counted, decoded messages follow from the transport frame counts
+    private static final @NotNull Counter unknownTypes = MetricsRegistry.global().counter("ubx.factory.unknown");
+    private static final @NotNull Counter malformed = MetricsRegistry.global().counter("ubx.factory.malformed");
+
+    // Must follow the table. The generated types do not register themselves, so loading them here cannot cycle back
+    static {
+        for(UbxMessage.Type type : UbxMessageTypes.ALL) {
+            register(type);
+        }
+    }
+
+    private static int key(int messageClass, int messageId) {
+        return ((messageClass & 0xFF) << 8) | (messageId & 0xFF);
+    }
+
+    // A later registration for the same class and id replaces the earlier one
+    public static void register(@NotNull UbxMessage.Type type) {
+        registry.setRelease(key(type.messageClass().id, type.messageId()), type);
+    }
+
+    public static void register(@NotNull UbxMessage.Type ... types) {
+        for(UbxMessage.Type type : types) {
+            register(type);
+        }
+    }
+
+    public static @Nullable UbxMessage.Type lookup(int messageClass, int messageId) {
+        return registry.getAcquire(key(messageClass, messageId));
     }
 
     public static Optional<UbxMessage> unflatten(@NotNull UbxFrame frame) {
-        int key = (frame.messageClass() << 8) | frame.messageId();
-        var type = registry.get(key);
+        var type = lookup(frame.messageClass(), frame.messageId());
         if (type == null) {
+            unknownTypes.increment();
             return Optional.empty();
         }
-        return type.unflatten(frame.payload());
+        return counted(type.unflatten(frame.payloadReader()));
+    }
+
+    // Payload without a frame around it, e.g. straight from a mapped capture file
+    public static Optional<UbxMessage> unflatten(int messageClass, int messageId, @NotNull PackedInput payload) {
+        var type = lookup(messageClass, messageId);
+        if (type == null) {
+            unknownTypes.increment();
+            return Optional.empty();
+        }
+        return counted(type.unflatten(payload));
+    }
+
+    private static Optional<UbxMessage> counted(Optional<UbxMessage> message) {
+        if (message.isEmpty()) {
+            malformed.increment();
+        }
+        return message;
     }
 
 }
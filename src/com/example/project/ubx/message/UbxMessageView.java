@@ -0,0 +1,23 @@
+package com.example.project.ubx.message;
+
+import com.example.project.ubx.frame.UbxFrame;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Flyweight form of a message.
+ * A view is created once, bound to one payload after another and decodes each field on access from a fixed offset.
+ * Nothing is copied when binding, so a bound view is only valid as long as the frame it was bound to,
+ * see {@link com.example.project.ubx.frame.transport.UbxTransport#poll()}. Use {@link #copy()} to keep a message.
+ * Not thread-safe.
+ */
+public interface UbxMessageView {
+
+    @NotNull UbxMessage.Type type();
+
+    // Returns false and leaves the view unchanged when the frame is not of this type or has an unexpected length
+    boolean bind(@NotNull UbxFrame frame);
+
+    // Detached message holding the currently bound values
+    @NotNull UbxMessage copy();
+
+}
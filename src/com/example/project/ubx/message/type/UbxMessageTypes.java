@@ -0,0 +1,36 @@
+// Generated by UbxSchemaCompiler from ubx-messages.schema. Do not edit, change the schema and regenerate.
+package com.example.project.ubx.message.type;
+
+import com.example.project.ubx.message.UbxMessage;
+import com.example.project.ubx.message.type.nav.UbxMsgNavPosllh;
+import com.example.project.ubx.message.type.nav.UbxMsgNavPvt;
+import com.example.project.ubx.message.type.nav.UbxMsgNavSat;
+import com.example.project.ubx.message.type.rxm.UbxMsgRxmRawx;
+import com.example.project.ubx.message.type.mon.UbxMsgMonRf;
+import com.example.project.ubx.message.type.ack.UbxMsgAckAck;
+import com.example.project.ubx.message.type.ack.UbxMsgAckNak;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Every message type generated from the schema.
+ * {@link com.example.project.ubx.message.UbxMessageFactory} registers them when it initializes.
+ */
+public final class UbxMessageTypes {
+
+    private UbxMessageTypes() {
+
+    }
+
+    public static final @NotNull List<UbxMessage.Type> ALL = List.of(
+            UbxMsgNavPosllh.Type.INSTANCE,
+            UbxMsgNavPvt.Type.INSTANCE,
+            UbxMsgNavSat.Type.INSTANCE,
+            UbxMsgRxmRawx.Type.INSTANCE,
+            UbxMsgMonRf.Type.INSTANCE,
+            UbxMsgAckAck.Type.INSTANCE,
+            UbxMsgAckNak.Type.INSTANCE
+    );
+
+}
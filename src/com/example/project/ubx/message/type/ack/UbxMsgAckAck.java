@@ -0,0 +1,131 @@
+// Generated by UbxSchemaCompiler from ubx-messages.schema. Do not edit, change the schema and regenerate.
+package com.example.project.ubx.message.type.ack;
+
+import com.example.project.ubx.frame.UbxFrame;
+import com.example.project.ubx.message.UbxMessage;
+import com.example.project.ubx.message.UbxMessageView;
+import com.example.project.ubx.message.type.UbxMsgAckType;
+import com.example.project.util.PackedInput;
+import com.example.project.util.PackedOutput;
+import com.example.project.util.PackedReader;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Optional;
+
+/**
+ * ACK-ACK (0x05 0x01): Message acknowledged.
+ * Payload: 2 bytes.
+ */
+public final class UbxMsgAckAck implements UbxMessage {
+
+    public static final int LENGTH = 2;
+
+    public static final class Type extends UbxMsgAckType {
+
+        public static final @NotNull Type INSTANCE = new Type();
+
+        @Override
+        public int messageId() {
+            return 0x01;
+        }
+
+        @Override
+        public Optional<UbxMessage> unflatten(@NotNull PackedInput reader) {
+            if(!validLength(reader)) {
+                return Optional.empty();
+            }
+            return Optional.of(decode(reader));
+        }
+
+    }
+
+    /**
+     * Flyweight ACK-ACK, decoding fields on access.
+     * Getters return the same values as the fields of {@link UbxMsgAckAck}.
+     */
+    public static final class View implements UbxMessageView {
+
+        private @NotNull PackedReader reader = new PackedReader(new byte[LENGTH]);
+        private @NotNull PackedReader spare = new PackedReader(new byte[0]); // Candidate while validating
+
+        @Override
+        public @NotNull Type type() {
+            return Type.INSTANCE;
+        }
+
+        @Override
+        public boolean bind(@NotNull UbxFrame frame) {
+            if(frame.messageClass() != Type.INSTANCE.messageClass().id || frame.messageId() != Type.INSTANCE.messageId()) {
+                return false;
+            }
+            PackedReader candidate = frame.payloadReader(this.spare);
+            if(!validLength(candidate)) {
+                return false;
+            }
+            this.spare = this.reader;
+            this.reader = candidate;
+            return true;
+        }
+
+        // Binds to a bare payload slice, e.g. from a log
+        public boolean bind(@NotNull PackedReader payload) {
+            if(!validLength(payload)) {
+                return false;
+            }
+            this.reader.wrap(payload.data(), payload.offset(), payload.length());
+            return true;
+        }
+
+        public int clsID() {
+            return this.reader.peekU1(0);
+        }
+
+        public int msgID() {
+            return this.reader.peekU1(1);
+        }
+
+        @Override
+        public @NotNull UbxMsgAckAck copy() {
+            return decode(this.reader);
+        }
+
+    }
+
+    public final int clsID;    // U1, Class ID of the acknowledged message
+    public final int msgID;    // U1, Message ID of the acknowledged message
+
+    public UbxMsgAckAck(int clsID, int msgID) {
+        this.clsID = clsID;
+        this.msgID = msgID;
+    }
+
+    // Payload length check, together with the block count where there is one
+    private static boolean validLength(@NotNull PackedInput reader) {
+        return reader.length() == LENGTH;
+    }
+
+    // Fixed offsets, the reader position is ignored. The payload must have passed validation.
+    public static @NotNull UbxMsgAckAck decode(@NotNull PackedInput reader) {
+        return new UbxMsgAckAck(
+                reader.peekU1(0),
+                reader.peekU1(1)
+        );
+    }
+
+    @Override
+    public UbxMessage.@NotNull Type type() {
+        return Type.INSTANCE;
+    }
+
+    @Override
+    public int payloadLength() {
+        return LENGTH;
+    }
+
+    @Override
+    public void writePayload(@NotNull PackedOutput output, int offset) {
+        output.pokeU1(offset, this.clsID);
+        output.pokeU1(offset + 1, this.msgID);
+    }
+
+}
@@ -0,0 +1,299 @@
+// Generated by UbxSchemaCompiler from ubx-messages.schema. Do not edit, change the schema and regenerate.
+package com.example.project.ubx.message.type.mon;
+
+import com.example.project.ubx.frame.UbxFrame;
+import com.example.project.ubx.message.UbxMessage;
+import com.example.project.ubx.message.UbxMessageView;
+import com.example.project.ubx.message.type.UbxMsgMonType;
+import com.example.project.util.PackedInput;
+import com.example.project.util.PackedOutput;
+import com.example.project.util.PackedReader;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * MON-RF (0x0A 0x38): RF information.
+ * Payload: 4 + 24 * nBlocks bytes.
+ */
+public final class UbxMsgMonRf implements UbxMessage {
+
+    public static final int HEADER_LENGTH = 4;
+    public static final int BLOCK_LENGTH = 24;
+
+    private static final @NotNull Poll POLL = new Poll();
+
+    public static final class Type extends UbxMsgMonType {
+
+        public static final @NotNull Type INSTANCE = new Type();
+
+        @Override
+        public int messageId() {
+            return 0x38;
+        }
+
+        @Override
+        public Optional<UbxMessage> unflatten(@NotNull PackedInput reader) {
+            if(!validLength(reader)) {
+                return Optional.empty();
+            }
+            return Optional.of(decode(reader));
+        }
+
+    }
+
+    public static final class Block {
+
+        public final int blockId;        // U1, RF block ID
+        public final int flags;          // X1, Jamming state flags
+        public final int antStatus;      // U1, Status of the antenna supervisor state machine
+        public final int antPower;       // U1, Current power status of antenna
+        public final long postStatus;    // U4, POST status word
+        public final int noisePerMS;     // U2, Noise level as measured by the GPS core
+        public final int agcCnt;         // U2, AGC monitor, range 0..8191
+        public final int jamInd;         // U1, CW jamming indicator, range 0..255
+        public final int ofsI;           // I1, Imbalance of I-part of complex signal
+        public final int magI;           // U1, Magnitude of I-part of complex signal
+        public final int ofsQ;           // I1, Imbalance of Q-part of complex signal
+        public final int magQ;           // U1, Magnitude of Q-part of complex signal
+
+        public Block(int blockId, int flags, int antStatus, int antPower, long postStatus, int noisePerMS, int agcCnt, int jamInd, int ofsI, int magI, int ofsQ, int magQ) {
+            this.blockId = blockId;
+            this.flags = flags;
+            this.antStatus = antStatus;
+            this.antPower = antPower;
+            this.postStatus = postStatus;
+            this.noisePerMS = noisePerMS;
+            this.agcCnt = agcCnt;
+            this.jamInd = jamInd;
+            this.ofsI = ofsI;
+            this.magI = magI;
+            this.ofsQ = ofsQ;
+            this.magQ = magQ;
+        }
+
+        private static @NotNull Block decode(@NotNull PackedInput reader, int offset) {
+            return new Block(
+                    reader.peekU1(offset),
+                    reader.peekU1(offset + 1),
+                    reader.peekU1(offset + 2),
+                    reader.peekU1(offset + 3),
+                    reader.peekU4(offset + 4),
+                    reader.peekU2(offset + 12),
+                    reader.peekU2(offset + 14),
+                    reader.peekU1(offset + 16),
+                    reader.peekI1(offset + 17),
+                    reader.peekU1(offset + 18),
+                    reader.peekI1(offset + 19),
+                    reader.peekU1(offset + 20)
+            );
+        }
+
+        private void encode(@NotNull PackedOutput output, int offset) {
+            output.pokeU1(offset, this.blockId);
+            output.pokeU1(offset + 1, this.flags);
+            output.pokeU1(offset + 2, this.antStatus);
+            output.pokeU1(offset + 3, this.antPower);
+            output.pokeU4(offset + 4, this.postStatus);
+            output.pokeI4(offset + 8, 0);
+            output.pokeU2(offset + 12, this.noisePerMS);
+            output.pokeU2(offset + 14, this.agcCnt);
+            output.pokeU1(offset + 16, this.jamInd);
+            output.pokeI1(offset + 17, this.ofsI);
+            output.pokeU1(offset + 18, this.magI);
+            output.pokeI1(offset + 19, this.ofsQ);
+            output.pokeU1(offset + 20, this.magQ);
+            output.pokeI2(offset + 21, 0);
+            output.pokeU1(offset + 23, 0);
+        }
+
+    }
+
+    /**
+     * Flyweight MON-RF, decoding fields on access.
+     * Getters return the same values as the fields of {@link UbxMsgMonRf}, repeated fields take the block index.
+     */
+    public static final class View implements UbxMessageView {
+
+        private @NotNull PackedReader reader = new PackedReader(new byte[HEADER_LENGTH]);
+        private @NotNull PackedReader spare = new PackedReader(new byte[0]); // Candidate while validating
+
+        @Override
+        public @NotNull Type type() {
+            return Type.INSTANCE;
+        }
+
+        @Override
+        public boolean bind(@NotNull UbxFrame frame) {
+            if(frame.messageClass() != Type.INSTANCE.messageClass().id || frame.messageId() != Type.INSTANCE.messageId()) {
+                return false;
+            }
+            PackedReader candidate = frame.payloadReader(this.spare);
+            if(!validLength(candidate)) {
+                return false;
+            }
+            this.spare = this.reader;
+            this.reader = candidate;
+            return true;
+        }
+
+        // Binds to a bare payload slice, e.g. from a log
+        public boolean bind(@NotNull PackedReader payload) {
+            if(!validLength(payload)) {
+                return false;
+            }
+            this.reader.wrap(payload.data(), payload.offset(), payload.length());
+            return true;
+        }
+
+        public int version() {
+            return this.reader.peekU1(0);
+        }
+
+        public int nBlocks() {
+            return this.reader.peekU1(1);
+        }
+
+        public int blockId(int index) {
+            return this.reader.peekU1(this.block(index));
+        }
+
+        public int flags(int index) {
+            return this.reader.peekU1(this.block(index) + 1);
+        }
+
+        public int antStatus(int index) {
+            return this.reader.peekU1(this.block(index) + 2);
+        }
+
+        public int antPower(int index) {
+            return this.reader.peekU1(this.block(index) + 3);
+        }
+
+        public long postStatus(int index) {
+            return this.reader.peekU4(this.block(index) + 4);
+        }
+
+        public int noisePerMS(int index) {
+            return this.reader.peekU2(this.block(index) + 12);
+        }
+
+        public int agcCnt(int index) {
+            return this.reader.peekU2(this.block(index) + 14);
+        }
+
+        public int jamInd(int index) {
+            return this.reader.peekU1(this.block(index) + 16);
+        }
+
+        public int ofsI(int index) {
+            return this.reader.peekI1(this.block(index) + 17);
+        }
+
+        public int magI(int index) {
+            return this.reader.peekU1(this.block(index) + 18);
+        }
+
+        public int ofsQ(int index) {
+            return this.reader.peekI1(this.block(index) + 19);
+        }
+
+        public int magQ(int index) {
+            return this.reader.peekU1(this.block(index) + 20);
+        }
+
+        private int block(int index) {
+            return HEADER_LENGTH + Objects.checkIndex(index, this.nBlocks()) * BLOCK_LENGTH;
+        }
+
+        @Override
+        public @NotNull UbxMsgMonRf copy() {
+            return decode(this.reader);
+        }
+
+    }
+
+    public final int version;                    // U1, Message version
+    public final int nBlocks;                    // U1, Number of RF blocks included, size of blocks
+    public final @NotNull List<Block> blocks;    // Repeated nBlocks times
+
+    public UbxMsgMonRf(int version, @NotNull List<Block> blocks) {
+        if(blocks.size() > 0xFF) {
+            throw new IllegalArgumentException("Too many blocks: " + blocks.size());
+        }
+        this.version = version;
+        this.nBlocks = blocks.size();
+        this.blocks = List.copyOf(blocks);
+    }
+
+    // Payload length check, together with the block count where there is one
+    private static boolean validLength(@NotNull PackedInput reader) {
+        int blocks = reader.length() - HEADER_LENGTH;
+        return blocks >= 0 && blocks % BLOCK_LENGTH == 0 && blocks / BLOCK_LENGTH == reader.peekU1(1);
+    }
+
+    // Fixed offsets, the reader position is ignored. The payload must have passed validation.
+    public static @NotNull UbxMsgMonRf decode(@NotNull PackedInput reader) {
+        int count = reader.peekU1(1);
+        Block[] blocks = new Block[count];
+        for(int i = 0; i < count; i++) {
+            blocks[i] = Block.decode(reader, HEADER_LENGTH + i * BLOCK_LENGTH);
+        }
+        return new UbxMsgMonRf(
+                reader.peekU1(0),
+                List.of(blocks)
+        );
+    }
+
+    @Override
+    public UbxMessage.@NotNull Type type() {
+        return Type.INSTANCE;
+    }
+
+    @Override
+    public int payloadLength() {
+        return HEADER_LENGTH + this.blocks.size() * BLOCK_LENGTH;
+    }
+
+    @Override
+    public void writePayload(@NotNull PackedOutput output, int offset) {
+        output.pokeU1(offset, this.version);
+        output.pokeU1(offset + 1, this.nBlocks);
+        output.pokeI2(offset + 2, 0);
+        for(int i = 0; i < this.blocks.size(); i++) {
+            this.blocks.get(i).encode(output, offset + HEADER_LENGTH + i * BLOCK_LENGTH);
+        }
+    }
+
+    // Polling packet constructor
+    public static @NotNull Poll poll() {
+        return POLL;
+    }
+
+    // Empty payload requesting the message, stateless and shared
+    public static final class Poll implements UbxMessage {
+
+        private Poll() {
+
+        }
+
+        @Override
+        public @NotNull Type type() {
+            return UbxMsgMonRf.Type.INSTANCE;
+        }
+
+        @Override
+        public int payloadLength() {
+            return 0;
+        }
+
+        @Override
+        public void writePayload(@NotNull PackedOutput output, int offset) {
+
+        }
+
+    }
+
+}
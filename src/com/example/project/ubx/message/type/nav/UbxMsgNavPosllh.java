@@ -1,43 +1,114 @@
+// Generated by UbxSchemaCompiler from ubx-messages.schema. Do not edit, change the schema and regenerate.
 package com.example.project.ubx.message.type.nav;
 
+import com.example.project.ubx.frame.UbxFrame;
 import com.example.project.ubx.message.UbxMessage;
-import com.example.project.ubx.message.UbxMessageFactory;
+import com.example.project.ubx.message.UbxMessageView;
 import com.example.project.ubx.message.type.UbxMsgNavType;
+import com.example.project.util.PackedInput;
+import com.example.project.util.PackedOutput;
 import com.example.project.util.PackedReader;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Optional;
 
+/**
+ * NAV-POSLLH (0x01 0x02): Geodetic position solution.
+ * Payload: 28 bytes.
+ */
 public final class UbxMsgNavPosllh implements UbxMessage {
 
+    public static final int LENGTH = 28;
+
+    private static final @NotNull Poll POLL = new Poll();
+
     public static final class Type extends UbxMsgNavType {
 
         public static final @NotNull Type INSTANCE = new Type();
 
-        static {
-            UbxMessageFactory.register(INSTANCE);
-        }
-
         @Override
         public int messageId() {
             return 0x02;
         }
 
         @Override
-        public Optional<UbxMessage> unflatten(byte[] payload) {
-            // Deserializing constructor
-            if(payload.length != 28) {
+        public Optional<UbxMessage> unflatten(@NotNull PackedInput reader) {
+            if(!validLength(reader)) {
                 return Optional.empty();
             }
-            PackedReader reader = new PackedReader(payload);
-            long iTOW = reader.readU4();
-            int lon = reader.readI4();
-            int lat = reader.readI4();
-            int height = reader.readI4();
-            int hMSL = reader.readI4();
-            long hAcc = reader.readU4();
-            long vAcc = reader.readU4();
-            return Optional.of(new UbxMsgNavPosllh(iTOW, lon, lat, height, hMSL, hAcc, vAcc));
+            return Optional.of(decode(reader));
+        }
+
+    }
+
+    /**
+     * Flyweight NAV-POSLLH, decoding fields on access.
+     * Getters return the same values as the fields of {@link UbxMsgNavPosllh}.
+     */
+    public static final class View implements UbxMessageView {
+
+        private @NotNull PackedReader reader = new PackedReader(new byte[LENGTH]);
+        private @NotNull PackedReader spare = new PackedReader(new byte[0]); // Candidate while validating
+
+        @Override
+        public @NotNull Type type() {
+            return Type.INSTANCE;
+        }
+
+        @Override
+        public boolean bind(@NotNull UbxFrame frame) {
+            if(frame.messageClass() != Type.INSTANCE.messageClass().id || frame.messageId() != Type.INSTANCE.messageId()) {
+                return false;
+            }
+            PackedReader candidate = frame.payloadReader(this.spare);
+            if(!validLength(candidate)) {
+                return false;
+            }
+            this.spare = this.reader;
+            this.reader = candidate;
+            return true;
+        }
+
+        // Binds to a bare payload slice, e.g. from a log
+        public boolean bind(@NotNull PackedReader payload) {
+            if(!validLength(payload)) {
+                return false;
+            }
+            this.reader.wrap(payload.data(), payload.offset(), payload.length());
+            return true;
+        }
+
+        public long iTOW() {
+            return this.reader.peekU4(0);
+        }
+
+        public int lon() {
+            return this.reader.peekI4(4);
+        }
+
+        public int lat() {
+            return this.reader.peekI4(8);
+        }
+
+        public int height() {
+            return this.reader.peekI4(12);
+        }
+
+        public int hMSL() {
+            return this.reader.peekI4(16);
+        }
+
+        public long hAcc() {
+            return this.reader.peekU4(20);
+        }
+
+        public long vAcc() {
+            return this.reader.peekU4(24);
+        }
+
+        @Override
+        public @NotNull UbxMsgNavPosllh copy() {
+            return decode(this.reader);
         }
 
     }
@@ -50,7 +121,7 @@ public final class UbxMsgNavPosllh implements UbxMessage {
     public final long hAcc;     // U4, Horizontal accuracy estimate [mm]
     public final long vAcc;     // U4, Vertical accuracy estimate [mm]
 
-    private UbxMsgNavPosllh(long iTOW, int lon, int lat, int height, int hMSL, long hAcc, long vAcc) {
+    public UbxMsgNavPosllh(long iTOW, int lon, int lat, int height, int hMSL, long hAcc, long vAcc) {
         this.iTOW = iTOW;
         this.lon = lon;
         this.lat = lat;
@@ -60,32 +131,70 @@ public final class UbxMsgNavPosllh implements UbxMessage {
         this.vAcc = vAcc;
     }
 
+    // Payload length check, together with the block count where there is one
+    private static boolean validLength(@NotNull PackedInput reader) {
+        return reader.length() == LENGTH;
+    }
+
+    // Fixed offsets, the reader position is ignored. The payload must have passed validation.
+    public static @NotNull UbxMsgNavPosllh decode(@NotNull PackedInput reader) {
+        return new UbxMsgNavPosllh(
+                reader.peekU4(0),
+                reader.peekI4(4),
+                reader.peekI4(8),
+                reader.peekI4(12),
+                reader.peekI4(16),
+                reader.peekU4(20),
+                reader.peekU4(24)
+        );
+    }
+
     @Override
     public UbxMessage.@NotNull Type type() {
         return Type.INSTANCE;
     }
 
     @Override
-    public byte[] serializePayload() {
-        return new byte[0];
+    public int payloadLength() {
+        return LENGTH;
+    }
+
+    @Override
+    public void writePayload(@NotNull PackedOutput output, int offset) {
+        output.pokeU4(offset, this.iTOW);
+        output.pokeI4(offset + 4, this.lon);
+        output.pokeI4(offset + 8, this.lat);
+        output.pokeI4(offset + 12, this.height);
+        output.pokeI4(offset + 16, this.hMSL);
+        output.pokeU4(offset + 20, this.hAcc);
+        output.pokeU4(offset + 24, this.vAcc);
     }
 
     // Polling packet constructor
     public static @NotNull Poll poll() {
-        return new Poll();
+        return POLL;
     }
 
-    // TODO: Figure out OOP ways to abstract this
+    // Empty payload requesting the message, stateless and shared
     public static final class Poll implements UbxMessage {
 
+        private Poll() {
+
+        }
+
         @Override
         public @NotNull Type type() {
             return UbxMsgNavPosllh.Type.INSTANCE;
         }
 
         @Override
-        public byte[] serializePayload() {
-            return new byte[0];
+        public int payloadLength() {
+            return 0;
+        }
+
+        @Override
+        public void writePayload(@NotNull PackedOutput output, int offset) {
+
         }
 
     }
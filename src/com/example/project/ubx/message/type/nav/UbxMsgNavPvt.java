@@ -0,0 +1,404 @@
+// Generated by UbxSchemaCompiler from ubx-messages.schema. Do not edit, change the schema and regenerate.
+package com.example.project.ubx.message.type.nav;
+
+import com.example.project.ubx.frame.UbxFrame;
+import com.example.project.ubx.message.UbxMessage;
+import com.example.project.ubx.message.UbxMessageView;
+import com.example.project.ubx.message.type.UbxMsgNavType;
+import com.example.project.util.PackedInput;
+import com.example.project.util.PackedOutput;
+import com.example.project.util.PackedReader;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Optional;
+
+/**
+ * NAV-PVT (0x01 0x07): Navigation position velocity time solution.
+ * Payload: 92 bytes.
+ */
+public final class UbxMsgNavPvt implements UbxMessage {
+
+    public static final int LENGTH = 92;
+
+    private static final @NotNull Poll POLL = new Poll();
+
+    public static final class Type extends UbxMsgNavType {
+
+        public static final @NotNull Type INSTANCE = new Type();
+
+        @Override
+        public int messageId() {
+            return 0x07;
+        }
+
+        @Override
+        public Optional<UbxMessage> unflatten(@NotNull PackedInput reader) {
+            if(!validLength(reader)) {
+                return Optional.empty();
+            }
+            return Optional.of(decode(reader));
+        }
+
+    }
+
+    /**
+     * Flyweight NAV-PVT, decoding fields on access.
+     * Getters return the same values as the fields of {@link UbxMsgNavPvt}.
+     */
+    public static final class View implements UbxMessageView {
+
+        private @NotNull PackedReader reader = new PackedReader(new byte[LENGTH]);
+        private @NotNull PackedReader spare = new PackedReader(new byte[0]); // Candidate while validating
+
+        @Override
+        public @NotNull Type type() {
+            return Type.INSTANCE;
+        }
+
+        @Override
+        public boolean bind(@NotNull UbxFrame frame) {
+            if(frame.messageClass() != Type.INSTANCE.messageClass().id || frame.messageId() != Type.INSTANCE.messageId()) {
+                return false;
+            }
+            PackedReader candidate = frame.payloadReader(this.spare);
+            if(!validLength(candidate)) {
+                return false;
+            }
+            this.spare = this.reader;
+            this.reader = candidate;
+            return true;
+        }
+
+        // Binds to a bare payload slice, e.g. from a log
+        public boolean bind(@NotNull PackedReader payload) {
+            if(!validLength(payload)) {
+                return false;
+            }
+            this.reader.wrap(payload.data(), payload.offset(), payload.length());
+            return true;
+        }
+
+        public long iTOW() {
+            return this.reader.peekU4(0);
+        }
+
+        public int year() {
+            return this.reader.peekU2(4);
+        }
+
+        public int month() {
+            return this.reader.peekU1(6);
+        }
+
+        public int day() {
+            return this.reader.peekU1(7);
+        }
+
+        public int hour() {
+            return this.reader.peekU1(8);
+        }
+
+        public int min() {
+            return this.reader.peekU1(9);
+        }
+
+        public int sec() {
+            return this.reader.peekU1(10);
+        }
+
+        public int valid() {
+            return this.reader.peekU1(11);
+        }
+
+        public long tAcc() {
+            return this.reader.peekU4(12);
+        }
+
+        public int nano() {
+            return this.reader.peekI4(16);
+        }
+
+        public int fixType() {
+            return this.reader.peekU1(20);
+        }
+
+        public int flags() {
+            return this.reader.peekU1(21);
+        }
+
+        public int flags2() {
+            return this.reader.peekU1(22);
+        }
+
+        public int numSV() {
+            return this.reader.peekU1(23);
+        }
+
+        public int lon() {
+            return this.reader.peekI4(24);
+        }
+
+        public int lat() {
+            return this.reader.peekI4(28);
+        }
+
+        public int height() {
+            return this.reader.peekI4(32);
+        }
+
+        public int hMSL() {
+            return this.reader.peekI4(36);
+        }
+
+        public long hAcc() {
+            return this.reader.peekU4(40);
+        }
+
+        public long vAcc() {
+            return this.reader.peekU4(44);
+        }
+
+        public int velN() {
+            return this.reader.peekI4(48);
+        }
+
+        public int velE() {
+            return this.reader.peekI4(52);
+        }
+
+        public int velD() {
+            return this.reader.peekI4(56);
+        }
+
+        public int gSpeed() {
+            return this.reader.peekI4(60);
+        }
+
+        public int headMot() {
+            return this.reader.peekI4(64);
+        }
+
+        public long sAcc() {
+            return this.reader.peekU4(68);
+        }
+
+        public long headAcc() {
+            return this.reader.peekU4(72);
+        }
+
+        public int pDOP() {
+            return this.reader.peekU2(76);
+        }
+
+        public int flags3() {
+            return this.reader.peekU1(78);
+        }
+
+        public int headVeh() {
+            return this.reader.peekI4(84);
+        }
+
+        public int magDec() {
+            return this.reader.peekI2(88);
+        }
+
+        public int magAcc() {
+            return this.reader.peekU2(90);
+        }
+
+        @Override
+        public @NotNull UbxMsgNavPvt copy() {
+            return decode(this.reader);
+        }
+
+    }
+
+    public final long iTOW;       // U4, GPS time of week of the navigation epoch [ms]
+    public final int year;        // U2, Year (UTC)
+    public final int month;       // U1, Month, range 1..12 (UTC)
+    public final int day;         // U1, Day of month, range 1..31 (UTC)
+    public final int hour;        // U1, Hour of day, range 0..23 (UTC)
+    public final int min;         // U1, Minute of hour, range 0..59 (UTC)
+    public final int sec;         // U1, Seconds of minute, range 0..60 (UTC)
+    public final int valid;       // X1, Validity flags
+    public final long tAcc;       // U4, Time accuracy estimate (UTC) [ns]
+    public final int nano;        // I4, Fraction of second, range -1e9..1e9 (UTC) [ns]
+    public final int fixType;     // U1, GNSS fix type
+    public final int flags;       // X1, Fix status flags
+    public final int flags2;      // X1, Additional flags
+    public final int numSV;       // U1, Number of satellites used in the solution
+    public final int lon;         // I4, Longitude [deg * 1e-7]
+    public final int lat;         // I4, Latitude [deg * 1e-7]
+    public final int height;      // I4, Height above ellipsoid [mm]
+    public final int hMSL;        // I4, Height above mean sea level [mm]
+    public final long hAcc;       // U4, Horizontal accuracy estimate [mm]
+    public final long vAcc;       // U4, Vertical accuracy estimate [mm]
+    public final int velN;        // I4, NED north velocity [mm/s]
+    public final int velE;        // I4, NED east velocity [mm/s]
+    public final int velD;        // I4, NED down velocity [mm/s]
+    public final int gSpeed;      // I4, Ground speed (2-D) [mm/s]
+    public final int headMot;     // I4, Heading of motion (2-D) [deg * 1e-5]
+    public final long sAcc;       // U4, Speed accuracy estimate [mm/s]
+    public final long headAcc;    // U4, Heading accuracy estimate [deg * 1e-5]
+    public final int pDOP;        // U2, Position DOP [0.01]
+    public final int flags3;      // X1, Additional flags
+    public final int headVeh;     // I4, Heading of vehicle (2-D) [deg * 1e-5]
+    public final int magDec;      // I2, Magnetic declination [deg * 1e-2]
+    public final int magAcc;      // U2, Magnetic declination accuracy [deg * 1e-2]
+
+    public UbxMsgNavPvt(long iTOW, int year, int month, int day, int hour, int min, int sec, int valid, long tAcc, int nano, int fixType, int flags, int flags2, int numSV, int lon, int lat, int height, int hMSL, long hAcc, long vAcc, int velN, int velE, int velD, int gSpeed, int headMot, long sAcc, long headAcc, int pDOP, int flags3, int headVeh, int magDec, int magAcc) {
+        this.iTOW = iTOW;
+        this.year = year;
+        this.month = month;
+        this.day = day;
+        this.hour = hour;
+        this.min = min;
+        this.sec = sec;
+        this.valid = valid;
+        this.tAcc = tAcc;
+        this.nano = nano;
+        this.fixType = fixType;
+        this.flags = flags;
+        this.flags2 = flags2;
+        this.numSV = numSV;
+        this.lon = lon;
+        this.lat = lat;
+        this.height = height;
+        this.hMSL = hMSL;
+        this.hAcc = hAcc;
+        this.vAcc = vAcc;
+        this.velN = velN;
+        this.velE = velE;
+        this.velD = velD;
+        this.gSpeed = gSpeed;
+        this.headMot = headMot;
+        this.sAcc = sAcc;
+        this.headAcc = headAcc;
+        this.pDOP = pDOP;
+        this.flags3 = flags3;
+        this.headVeh = headVeh;
+        this.magDec = magDec;
+        this.magAcc = magAcc;
+    }
+
+    // Payload length check, together with the block count where there is one
+    private static boolean validLength(@NotNull PackedInput reader) {
+        return reader.length() == LENGTH;
+    }
+
+    // Fixed offsets, the reader position is ignored. The payload must have passed validation.
+    public static @NotNull UbxMsgNavPvt decode(@NotNull PackedInput reader) {
+        return new UbxMsgNavPvt(
+                reader.peekU4(0),
+                reader.peekU2(4),
+                reader.peekU1(6),
+                reader.peekU1(7),
+                reader.peekU1(8),
+                reader.peekU1(9),
+                reader.peekU1(10),
+                reader.peekU1(11),
+                reader.peekU4(12),
+                reader.peekI4(16),
+                reader.peekU1(20),
+                reader.peekU1(21),
+                reader.peekU1(22),
+                reader.peekU1(23),
+                reader.peekI4(24),
+                reader.peekI4(28),
+                reader.peekI4(32),
+                reader.peekI4(36),
+                reader.peekU4(40),
+                reader.peekU4(44),
+                reader.peekI4(48),
+                reader.peekI4(52),
+                reader.peekI4(56),
+                reader.peekI4(60),
+                reader.peekI4(64),
+                reader.peekU4(68),
+                reader.peekU4(72),
+                reader.peekU2(76),
+                reader.peekU1(78),
+                reader.peekI4(84),
+                reader.peekI2(88),
+                reader.peekU2(90)
+        );
+    }
+
+    @Override
+    public UbxMessage.@NotNull Type type() {
+        return Type.INSTANCE;
+    }
+
+    @Override
+    public int payloadLength() {
+        return LENGTH;
+    }
+
+    @Override
+    public void writePayload(@NotNull PackedOutput output, int offset) {
+        output.pokeU4(offset, this.iTOW);
+        output.pokeU2(offset + 4, this.year);
+        output.pokeU1(offset + 6, this.month);
+        output.pokeU1(offset + 7, this.day);
+        output.pokeU1(offset + 8, this.hour);
+        output.pokeU1(offset + 9, this.min);
+        output.pokeU1(offset + 10, this.sec);
+        output.pokeU1(offset + 11, this.valid);
+        output.pokeU4(offset + 12, this.tAcc);
+        output.pokeI4(offset + 16, this.nano);
+        output.pokeU1(offset + 20, this.fixType);
+        output.pokeU1(offset + 21, this.flags);
+        output.pokeU1(offset + 22, this.flags2);
+        output.pokeU1(offset + 23, this.numSV);
+        output.pokeI4(offset + 24, this.lon);
+        output.pokeI4(offset + 28, this.lat);
+        output.pokeI4(offset + 32, this.height);
+        output.pokeI4(offset + 36, this.hMSL);
+        output.pokeU4(offset + 40, this.hAcc);
+        output.pokeU4(offset + 44, this.vAcc);
+        output.pokeI4(offset + 48, this.velN);
+        output.pokeI4(offset + 52, this.velE);
+        output.pokeI4(offset + 56, this.velD);
+        output.pokeI4(offset + 60, this.gSpeed);
+        output.pokeI4(offset + 64, this.headMot);
+        output.pokeU4(offset + 68, this.sAcc);
+        output.pokeU4(offset + 72, this.headAcc);
+        output.pokeU2(offset + 76, this.pDOP);
+        output.pokeU1(offset + 78, this.flags3);
+        output.pokeI4(offset + 79, 0);
+        output.pokeU1(offset + 83, 0);
+        output.pokeI4(offset + 84, this.headVeh);
+        output.pokeI2(offset + 88, this.magDec);
+        output.pokeU2(offset + 90, this.magAcc);
+    }
+
+    // Polling packet constructor
+    public static @NotNull Poll poll() {
+        return POLL;
+    }
+
+    // Empty payload requesting the message, stateless and shared
+    public static final class Poll implements UbxMessage {
+
+        private Poll() {
+
+        }
+
+        @Override
+        public @NotNull Type type() {
+            return UbxMsgNavPvt.Type.INSTANCE;
+        }
+
+        @Override
+        public int payloadLength() {
+            return 0;
+        }
+
+        @Override
+        public void writePayload(@NotNull PackedOutput output, int offset) {
+
+        }
+
+    }
+
+}
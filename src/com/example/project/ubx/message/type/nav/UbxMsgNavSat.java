@@ -0,0 +1,264 @@
+// Generated by UbxSchemaCompiler from ubx-messages.schema. Do not edit, change the schema and regenerate.
+package com.example.project.ubx.message.type.nav;
+
+import com.example.project.ubx.frame.UbxFrame;
+import com.example.project.ubx.message.UbxMessage;
+import com.example.project.ubx.message.UbxMessageView;
+import com.example.project.ubx.message.type.UbxMsgNavType;
+import com.example.project.util.PackedInput;
+import com.example.project.util.PackedOutput;
+import com.example.project.util.PackedReader;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * NAV-SAT (0x01 0x35): Satellite information.
+ * Payload: 8 + 12 * numSvs bytes.
+ */
+public final class UbxMsgNavSat implements UbxMessage {
+
+    public static final int HEADER_LENGTH = 8;
+    public static final int BLOCK_LENGTH = 12;
+
+    private static final @NotNull Poll POLL = new Poll();
+
+    public static final class Type extends UbxMsgNavType {
+
+        public static final @NotNull Type INSTANCE = new Type();
+
+        @Override
+        public int messageId() {
+            return 0x35;
+        }
+
+        @Override
+        public Optional<UbxMessage> unflatten(@NotNull PackedInput reader) {
+            if(!validLength(reader)) {
+                return Optional.empty();
+            }
+            return Optional.of(decode(reader));
+        }
+
+    }
+
+    public static final class Sat {
+
+        public final int gnssId;    // U1, GNSS identifier
+        public final int svId;      // U1, Satellite identifier
+        public final int cno;       // U1, Carrier to noise ratio [dBHz]
+        public final int elev;      // I1, Elevation, range -90..90 [deg]
+        public final int azim;      // I2, Azimuth, range 0..360 [deg]
+        public final int prRes;     // I2, Pseudorange residual [m * 0.1]
+        public final long flags;    // X4, Bitmask
+
+        public Sat(int gnssId, int svId, int cno, int elev, int azim, int prRes, long flags) {
+            this.gnssId = gnssId;
+            this.svId = svId;
+            this.cno = cno;
+            this.elev = elev;
+            this.azim = azim;
+            this.prRes = prRes;
+            this.flags = flags;
+        }
+
+        private static @NotNull Sat decode(@NotNull PackedInput reader, int offset) {
+            return new Sat(
+                    reader.peekU1(offset),
+                    reader.peekU1(offset + 1),
+                    reader.peekU1(offset + 2),
+                    reader.peekI1(offset + 3),
+                    reader.peekI2(offset + 4),
+                    reader.peekI2(offset + 6),
+                    reader.peekU4(offset + 8)
+            );
+        }
+
+        private void encode(@NotNull PackedOutput output, int offset) {
+            output.pokeU1(offset, this.gnssId);
+            output.pokeU1(offset + 1, this.svId);
+            output.pokeU1(offset + 2, this.cno);
+            output.pokeI1(offset + 3, this.elev);
+            output.pokeI2(offset + 4, this.azim);
+            output.pokeI2(offset + 6, this.prRes);
+            output.pokeU4(offset + 8, this.flags);
+        }
+
+    }
+
+    /**
+     * Flyweight NAV-SAT, decoding fields on access.
+     * Getters return the same values as the fields of {@link UbxMsgNavSat}, repeated fields take the block index.
+     */
+    public static final class View implements UbxMessageView {
+
+        private @NotNull PackedReader reader = new PackedReader(new byte[HEADER_LENGTH]);
+        private @NotNull PackedReader spare = new PackedReader(new byte[0]); // Candidate while validating
+
+        @Override
+        public @NotNull Type type() {
+            return Type.INSTANCE;
+        }
+
+        @Override
+        public boolean bind(@NotNull UbxFrame frame) {
+            if(frame.messageClass() != Type.INSTANCE.messageClass().id || frame.messageId() != Type.INSTANCE.messageId()) {
+                return false;
+            }
+            PackedReader candidate = frame.payloadReader(this.spare);
+            if(!validLength(candidate)) {
+                return false;
+            }
+            this.spare = this.reader;
+            this.reader = candidate;
+            return true;
+        }
+
+        // Binds to a bare payload slice, e.g. from a log
+        public boolean bind(@NotNull PackedReader payload) {
+            if(!validLength(payload)) {
+                return false;
+            }
+            this.reader.wrap(payload.data(), payload.offset(), payload.length());
+            return true;
+        }
+
+        public long iTOW() {
+            return this.reader.peekU4(0);
+        }
+
+        public int version() {
+            return this.reader.peekU1(4);
+        }
+
+        public int numSvs() {
+            return this.reader.peekU1(5);
+        }
+
+        public int gnssId(int index) {
+            return this.reader.peekU1(this.block(index));
+        }
+
+        public int svId(int index) {
+            return this.reader.peekU1(this.block(index) + 1);
+        }
+
+        public int cno(int index) {
+            return this.reader.peekU1(this.block(index) + 2);
+        }
+
+        public int elev(int index) {
+            return this.reader.peekI1(this.block(index) + 3);
+        }
+
+        public int azim(int index) {
+            return this.reader.peekI2(this.block(index) + 4);
+        }
+
+        public int prRes(int index) {
+            return this.reader.peekI2(this.block(index) + 6);
+        }
+
+        public long flags(int index) {
+            return this.reader.peekU4(this.block(index) + 8);
+        }
+
+        private int block(int index) {
+            return HEADER_LENGTH + Objects.checkIndex(index, this.numSvs()) * BLOCK_LENGTH;
+        }
+
+        @Override
+        public @NotNull UbxMsgNavSat copy() {
+            return decode(this.reader);
+        }
+
+    }
+
+    public final long iTOW;                  // U4, GPS time of week of the navigation epoch [ms]
+    public final int version;                // U1, Message version
+    public final int numSvs;                 // U1, Number of satellites, size of sats
+    public final @NotNull List<Sat> sats;    // Repeated numSvs times
+
+    public UbxMsgNavSat(long iTOW, int version, @NotNull List<Sat> sats) {
+        if(sats.size() > 0xFF) {
+            throw new IllegalArgumentException("Too many sats: " + sats.size());
+        }
+        this.iTOW = iTOW;
+        this.version = version;
+        this.numSvs = sats.size();
+        this.sats = List.copyOf(sats);
+    }
+
+    // Payload length check, together with the block count where there is one
+    private static boolean validLength(@NotNull PackedInput reader) {
+        int blocks = reader.length() - HEADER_LENGTH;
+        return blocks >= 0 && blocks % BLOCK_LENGTH == 0 && blocks / BLOCK_LENGTH == reader.peekU1(5);
+    }
+
+    // Fixed offsets, the reader position is ignored. The payload must have passed validation.
+    public static @NotNull UbxMsgNavSat decode(@NotNull PackedInput reader) {
+        int count = reader.peekU1(5);
+        Sat[] sats = new Sat[count];
+        for(int i = 0; i < count; i++) {
+            sats[i] = Sat.decode(reader, HEADER_LENGTH + i * BLOCK_LENGTH);
+        }
+        return new UbxMsgNavSat(
+                reader.peekU4(0),
+                reader.peekU1(4),
+                List.of(sats)
+        );
+    }
+
+    @Override
+    public UbxMessage.@NotNull Type type() {
+        return Type.INSTANCE;
+    }
+
+    @Override
+    public int payloadLength() {
+        return HEADER_LENGTH + this.sats.size() * BLOCK_LENGTH;
+    }
+
+    @Override
+    public void writePayload(@NotNull PackedOutput output, int offset) {
+        output.pokeU4(offset, this.iTOW);
+        output.pokeU1(offset + 4, this.version);
+        output.pokeU1(offset + 5, this.numSvs);
+        output.pokeI2(offset + 6, 0);
+        for(int i = 0; i < this.sats.size(); i++) {
+            this.sats.get(i).encode(output, offset + HEADER_LENGTH + i * BLOCK_LENGTH);
+        }
+    }
+
+    // Polling packet constructor
+    public static @NotNull Poll poll() {
+        return POLL;
+    }
+
+    // Empty payload requesting the message, stateless and shared
+    public static final class Poll implements UbxMessage {
+
+        private Poll() {
+
+        }
+
+        @Override
+        public @NotNull Type type() {
+            return UbxMsgNavSat.Type.INSTANCE;
+        }
+
+        @Override
+        public int payloadLength() {
+            return 0;
+        }
+
+        @Override
+        public void writePayload(@NotNull PackedOutput output, int offset) {
+
+        }
+
+    }
+
+}
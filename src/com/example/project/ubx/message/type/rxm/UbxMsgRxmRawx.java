@@ -0,0 +1,330 @@
+// Generated by UbxSchemaCompiler from ubx-messages.schema. Do not edit, change the schema and regenerate.
+package com.example.project.ubx.message.type.rxm;
+
+import com.example.project.ubx.frame.UbxFrame;
+import com.example.project.ubx.message.UbxMessage;
+import com.example.project.ubx.message.UbxMessageView;
+import com.example.project.ubx.message.type.UbxMsgRxmType;
+import com.example.project.util.PackedInput;
+import com.example.project.util.PackedOutput;
+import com.example.project.util.PackedReader;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * RXM-RAWX (0x02 0x15): Multi-GNSS raw measurements.
+ * Payload: 16 + 32 * numMeas bytes.
+ */
+public final class UbxMsgRxmRawx implements UbxMessage {
+
+    public static final int HEADER_LENGTH = 16;
+    public static final int BLOCK_LENGTH = 32;
+
+    private static final @NotNull Poll POLL = new Poll();
+
+    public static final class Type extends UbxMsgRxmType {
+
+        public static final @NotNull Type INSTANCE = new Type();
+
+        @Override
+        public int messageId() {
+            return 0x15;
+        }
+
+        @Override
+        public Optional<UbxMessage> unflatten(@NotNull PackedInput reader) {
+            if(!validLength(reader)) {
+                return Optional.empty();
+            }
+            return Optional.of(decode(reader));
+        }
+
+    }
+
+    public static final class Meas {
+
+        public final double prMes;    // R8, Pseudorange measurement [m]
+        public final double cpMes;    // R8, Carrier phase measurement [cycles]
+        public final float doMes;     // R4, Doppler measurement [Hz]
+        public final int gnssId;      // U1, GNSS identifier
+        public final int svId;        // U1, Satellite identifier
+        public final int sigId;       // U1, Signal identifier
+        public final int freqId;      // U1, GLONASS frequency slot + 7, range 0..13
+        public final int locktime;    // U2, Carrier phase locktime counter [ms]
+        public final int cno;         // U1, Carrier to noise ratio [dBHz]
+        public final int prStdev;     // X1, Estimated pseudorange measurement standard deviation
+        public final int cpStdev;     // X1, Estimated carrier phase measurement standard deviation
+        public final int doStdev;     // X1, Estimated Doppler measurement standard deviation
+        public final int trkStat;     // X1, Tracking status bitfield
+
+        public Meas(double prMes, double cpMes, float doMes, int gnssId, int svId, int sigId, int freqId, int locktime, int cno, int prStdev, int cpStdev, int doStdev, int trkStat) {
+            this.prMes = prMes;
+            this.cpMes = cpMes;
+            this.doMes = doMes;
+            this.gnssId = gnssId;
+            this.svId = svId;
+            this.sigId = sigId;
+            this.freqId = freqId;
+            this.locktime = locktime;
+            this.cno = cno;
+            this.prStdev = prStdev;
+            this.cpStdev = cpStdev;
+            this.doStdev = doStdev;
+            this.trkStat = trkStat;
+        }
+
+        private static @NotNull Meas decode(@NotNull PackedInput reader, int offset) {
+            return new Meas(
+                    reader.peekR8(offset),
+                    reader.peekR8(offset + 8),
+                    reader.peekR4(offset + 16),
+                    reader.peekU1(offset + 20),
+                    reader.peekU1(offset + 21),
+                    reader.peekU1(offset + 22),
+                    reader.peekU1(offset + 23),
+                    reader.peekU2(offset + 24),
+                    reader.peekU1(offset + 26),
+                    reader.peekU1(offset + 27),
+                    reader.peekU1(offset + 28),
+                    reader.peekU1(offset + 29),
+                    reader.peekU1(offset + 30)
+            );
+        }
+
+        private void encode(@NotNull PackedOutput output, int offset) {
+            output.pokeR8(offset, this.prMes);
+            output.pokeR8(offset + 8, this.cpMes);
+            output.pokeR4(offset + 16, this.doMes);
+            output.pokeU1(offset + 20, this.gnssId);
+            output.pokeU1(offset + 21, this.svId);
+            output.pokeU1(offset + 22, this.sigId);
+            output.pokeU1(offset + 23, this.freqId);
+            output.pokeU2(offset + 24, this.locktime);
+            output.pokeU1(offset + 26, this.cno);
+            output.pokeU1(offset + 27, this.prStdev);
+            output.pokeU1(offset + 28, this.cpStdev);
+            output.pokeU1(offset + 29, this.doStdev);
+            output.pokeU1(offset + 30, this.trkStat);
+            output.pokeU1(offset + 31, 0);
+        }
+
+    }
+
+    /**
+     * Flyweight RXM-RAWX, decoding fields on access.
+     * Getters return the same values as the fields of {@link UbxMsgRxmRawx}, repeated fields take the block index.
+     */
+    public static final class View implements UbxMessageView {
+
+        private @NotNull PackedReader reader = new PackedReader(new byte[HEADER_LENGTH]);
+        private @NotNull PackedReader spare = new PackedReader(new byte[0]); // Candidate while validating
+
+        @Override
+        public @NotNull Type type() {
+            return Type.INSTANCE;
+        }
+
+        @Override
+        public boolean bind(@NotNull UbxFrame frame) {
+            if(frame.messageClass() != Type.INSTANCE.messageClass().id || frame.messageId() != Type.INSTANCE.messageId()) {
+                return false;
+            }
+            PackedReader candidate = frame.payloadReader(this.spare);
+            if(!validLength(candidate)) {
+                return false;
+            }
+            this.spare = this.reader;
+            this.reader = candidate;
+            return true;
+        }
+
+        // Binds to a bare payload slice, e.g. from a log
+        public boolean bind(@NotNull PackedReader payload) {
+            if(!validLength(payload)) {
+                return false;
+            }
+            this.reader.wrap(payload.data(), payload.offset(), payload.length());
+            return true;
+        }
+
+        public double rcvTow() {
+            return this.reader.peekR8(0);
+        }
+
+        public int week() {
+            return this.reader.peekU2(8);
+        }
+
+        public int leapS() {
+            return this.reader.peekI1(10);
+        }
+
+        public int numMeas() {
+            return this.reader.peekU1(11);
+        }
+
+        public int recStat() {
+            return this.reader.peekU1(12);
+        }
+
+        public double prMes(int index) {
+            return this.reader.peekR8(this.block(index));
+        }
+
+        public double cpMes(int index) {
+            return this.reader.peekR8(this.block(index) + 8);
+        }
+
+        public float doMes(int index) {
+            return this.reader.peekR4(this.block(index) + 16);
+        }
+
+        public int gnssId(int index) {
+            return this.reader.peekU1(this.block(index) + 20);
+        }
+
+        public int svId(int index) {
+            return this.reader.peekU1(this.block(index) + 21);
+        }
+
+        public int sigId(int index) {
+            return this.reader.peekU1(this.block(index) + 22);
+        }
+
+        public int freqId(int index) {
+            return this.reader.peekU1(this.block(index) + 23);
+        }
+
+        public int locktime(int index) {
+            return this.reader.peekU2(this.block(index) + 24);
+        }
+
+        public int cno(int index) {
+            return this.reader.peekU1(this.block(index) + 26);
+        }
+
+        public int prStdev(int index) {
+            return this.reader.peekU1(this.block(index) + 27);
+        }
+
+        public int cpStdev(int index) {
+            return this.reader.peekU1(this.block(index) + 28);
+        }
+
+        public int doStdev(int index) {
+            return this.reader.peekU1(this.block(index) + 29);
+        }
+
+        public int trkStat(int index) {
+            return this.reader.peekU1(this.block(index) + 30);
+        }
+
+        private int block(int index) {
+            return HEADER_LENGTH + Objects.checkIndex(index, this.numMeas()) * BLOCK_LENGTH;
+        }
+
+        @Override
+        public @NotNull UbxMsgRxmRawx copy() {
+            return decode(this.reader);
+        }
+
+    }
+
+    public final double rcvTow;               // R8, Measurement time of week in receiver local time [s]
+    public final int week;                    // U2, GPS week number in receiver local time [weeks]
+    public final int leapS;                   // I1, GPS leap seconds [s]
+    public final int numMeas;                 // U1, Number of measurements to follow, size of meas
+    public final int recStat;                 // X1, Receiver tracking status bitfield
+    public final @NotNull List<Meas> meas;    // Repeated numMeas times
+
+    public UbxMsgRxmRawx(double rcvTow, int week, int leapS, int recStat, @NotNull List<Meas> meas) {
+        if(meas.size() > 0xFF) {
+            throw new IllegalArgumentException("Too many meas: " + meas.size());
+        }
+        this.rcvTow = rcvTow;
+        this.week = week;
+        this.leapS = leapS;
+        this.numMeas = meas.size();
+        this.recStat = recStat;
+        this.meas = List.copyOf(meas);
+    }
+
+    // Payload length check, together with the block count where there is one
+    private static boolean validLength(@NotNull PackedInput reader) {
+        int blocks = reader.length() - HEADER_LENGTH;
+        return blocks >= 0 && blocks % BLOCK_LENGTH == 0 && blocks / BLOCK_LENGTH == reader.peekU1(11);
+    }
+
+    // Fixed offsets, the reader position is ignored. The payload must have passed validation.
+    public static @NotNull UbxMsgRxmRawx decode(@NotNull PackedInput reader) {
+        int count = reader.peekU1(11);
+        Meas[] meas = new Meas[count];
+        for(int i = 0; i < count; i++) {
+            meas[i] = Meas.decode(reader, HEADER_LENGTH + i * BLOCK_LENGTH);
+        }
+        return new UbxMsgRxmRawx(
+                reader.peekR8(0),
+                reader.peekU2(8),
+                reader.peekI1(10),
+                reader.peekU1(12),
+                List.of(meas)
+        );
+    }
+
+    @Override
+    public UbxMessage.@NotNull Type type() {
+        return Type.INSTANCE;
+    }
+
+    @Override
+    public int payloadLength() {
+        return HEADER_LENGTH + this.meas.size() * BLOCK_LENGTH;
+    }
+
+    @Override
+    public void writePayload(@NotNull PackedOutput output, int offset) {
+        output.pokeR8(offset, this.rcvTow);
+        output.pokeU2(offset + 8, this.week);
+        output.pokeI1(offset + 10, this.leapS);
+        output.pokeU1(offset + 11, this.numMeas);
+        output.pokeU1(offset + 12, this.recStat);
+        output.pokeI2(offset + 13, 0);
+        output.pokeU1(offset + 15, 0);
+        for(int i = 0; i < this.meas.size(); i++) {
+            this.meas.get(i).encode(output, offset + HEADER_LENGTH + i * BLOCK_LENGTH);
+        }
+    }
+
+    // Polling packet constructor
+    public static @NotNull Poll poll() {
+        return POLL;
+    }
+
+    // Empty payload requesting the message, stateless and shared
+    public static final class Poll implements UbxMessage {
+
+        private Poll() {
+
+        }
+
+        @Override
+        public @NotNull Type type() {
+            return UbxMsgRxmRawx.Type.INSTANCE;
+        }
+
+        @Override
+        public int payloadLength() {
+            return 0;
+        }
+
+        @Override
+        public void writePayload(@NotNull PackedOutput output, int offset) {
+
+        }
+
+    }
+
+}
@@ -0,0 +1,400 @@
+package com.example.project.ubx.simulator;
+
+import com.example.project.twi.driver.TwiGenericDriver;
+import com.example.project.ubx.frame.UbxFrame;
+import com.example.project.ubx.frame.UbxFrameDecoder;
+import com.example.project.ubx.message.UbxMessageClass;
+import com.example.project.ubx.message.type.nav.UbxMsgNavSat;
+import com.example.project.util.PackedWriter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A simulated u-blox receiver on the DDC (TWI) port, for exercising the UBX stack without hardware.
+ * Models the DDC register map: 0xFD/0xFE hold the pending byte count (big-endian), 0xFF is the data stream.
+ * The register pointer auto-increments and stays at 0xFF. A one-byte write sets the pointer,
+ * longer writes are taken as UBX input and the stream reads 0xFF once empty.
+ * Like a real receiver the count is latched when its high byte is read, while the stream also serves
+ * output produced after that, so a read past the count can return the start of the next epoch.
+ * <p>
+ * Every epoch the device queues a NAV-POSLLH frame plus optional NAV-SAT filler frames of configurable size,
+ * valid registered messages that decoders parse like real traffic.
+ * It answers NAV-POSLLH polls and acknowledges CFG messages with ACK-ACK.
+ * Corruption, address NACKs and partially visible buffers can be injected at configurable rates.
+ * Not thread-safe, wrap it in an async driver to share it.
+ */
+public final class UbxSimulatedDevice extends TwiGenericDriver {
+
+    public static @NotNull Builder builder(int address) {
+        return new Builder(address);
+    }
+
+    public static final class Builder {
+
+        private final int address;
+        private long epochPeriod = TimeUnit.MILLISECONDS.toNanos(100);
+        private int fillerFrames = 0;
+        private int fillerPayloadLength = 0;
+        private int txBufferSize = 4096;
+        private double corruptionRate = 0;
+        private double nackRate = 0;
+        private double partialRate = 0;
+        private @NotNull LongSupplier clock = System::nanoTime;
+        private long seed = 0;
+
+        private Builder(int address) {
+            this.address = address;
+        }
+
+        public @NotNull Builder epochRate(double hertz) {
+            this.epochPeriod = (long) (1e9 / hertz);
+            return this;
+        }
+
+        // Additional NAV-SAT frames per epoch. NAV-SAT payloads are 8 + 12 * numSvs bytes long,
+        // so the length is rounded to the nearest of those with up to 255 satellites (8 to 3068 bytes)
+        public @NotNull Builder fillerFrames(int count, int payloadLength) {
+            if(count < 0 || payloadLength < 0) {
+                throw new IllegalArgumentException("Negative filler frames or payload length");
+            }
+            this.fillerFrames = count;
+            this.fillerPayloadLength = payloadLength;
+            return this;
+        }
+
+        public @NotNull Builder txBufferSize(int size) {
+            this.txBufferSize = size;
+            return this;
+        }
+
+        // Probability of a flipped byte per produced frame
+        public @NotNull Builder corruptionRate(double rate) {
+            this.corruptionRate = rate;
+            return this;
+        }
+
+        // Probability of NACKing an address byte
+        public @NotNull Builder nackRate(double rate) {
+            this.nackRate = rate;
+            return this;
+        }
+
+        // Probability of exposing only part of the pending bytes at a start condition
+        public @NotNull Builder partialRate(double rate) {
+            this.partialRate = rate;
+            return this;
+        }
+
+        // Nanosecond clock driving epoch production, defaults to System.nanoTime
+        public @NotNull Builder clock(@NotNull LongSupplier clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public @NotNull Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public @NotNull UbxSimulatedDevice build() {
+            return new UbxSimulatedDevice(this);
+        }
+
+    }
+
+    private static final int REG_NBYTES_HIGH = 0xFD;
+    private static final int REG_NBYTES_LOW = 0xFE;
+    private static final int REG_DATA = 0xFF;
+
+    private static final int NAV_POSLLH = 0x02;
+    private static final int ACK_ACK = 0x01;
+
+    private static final int MAX_CATCH_UP_EPOCHS = 16;
+    private static final long WEEK_MILLIS = 604_800_000L;
+
+    private final int address;
+    private final long epochPeriod;
+    private final int fillerFrames;
+    private final @NotNull List<UbxMsgNavSat.Sat> fillerSats;
+    private final double corruptionRate;
+    private final double nackRate;
+    private final double partialRate;
+    private final @NotNull LongSupplier clock;
+    private final @NotNull Random random;
+
+    // Receiver TX buffer
+    private final byte[] tx;
+    private int txHead = 0;
+    private int txCount = 0;
+    private int visible = 0; // Bytes exposed to the stream, grows with output produced mid-transaction
+    private int latchedCount = 0; // Byte count as of the last read of 0xFD
+
+    // Receiver input
+    private final @NotNull UbxFrameDecoder input = new UbxFrameDecoder(256);
+    private final byte[] inputByte = new byte[1];
+
+    // Bus state
+    private boolean addressed = false;
+    private boolean reading = false;
+    private int pointer = REG_DATA;
+    private int writeCount = 0;
+    private byte firstWrite = 0;
+
+    // Navigation state
+    private long nextEpoch;
+    private long iTOW = 0;
+
+    // Statistics
+    private long framesProduced = 0;
+    private long framesOverflowed = 0;
+    private long framesCorrupted = 0;
+    private long nacks = 0;
+    private long bytesRead = 0;
+
+    private UbxSimulatedDevice(@NotNull Builder builder) {
+        this.address = builder.address;
+        this.epochPeriod = builder.epochPeriod;
+        this.fillerFrames = builder.fillerFrames;
+        this.fillerSats = fillerSats(builder.fillerPayloadLength);
+        this.corruptionRate = builder.corruptionRate;
+        this.nackRate = builder.nackRate;
+        this.partialRate = builder.partialRate;
+        this.clock = builder.clock;
+        this.random = new Random(builder.seed);
+        this.tx = new byte[builder.txBufferSize];
+        this.nextEpoch = this.clock.getAsLong() + this.epochPeriod;
+    }
+
+    @Override
+    public void open() {
+
+    }
+
+    @Override
+    public void close() {
+        this.flushMetrics();
+    }
+
+    public long framesProduced() {
+        return this.framesProduced;
+    }
+
+    public long framesOverflowed() {
+        return this.framesOverflowed;
+    }
+
+    public long framesCorrupted() {
+        return this.framesCorrupted;
+    }
+
+    public long nacks() {
+        return this.nacks;
+    }
+
+    public long bytesRead() {
+        return this.bytesRead;
+    }
+
+    public int pending() {
+        return this.txCount;
+    }
+
+    // Queues an epoch's worth of output right away, independent of the clock
+    public void produceEpoch() {
+        this.enqueueFrame(UbxMessageClass.NAV.id, NAV_POSLLH, this.posllhPayload());
+        for(int i = 0; i < this.fillerFrames; i++) {
+            this.enqueueFrame(UbxMessageClass.NAV.id, UbxMsgNavSat.Type.INSTANCE.messageId(), this.fillerPayload());
+        }
+        this.iTOW = (this.iTOW + TimeUnit.NANOSECONDS.toMillis(this.epochPeriod)) % WEEK_MILLIS;
+    }
+
+    @Override
+    protected void createStartCondition() {
+        this.endSegment();
+        this.produce();
+        this.visible = this.txCount;
+        if(this.txCount > 0 && this.random.nextDouble() < this.partialRate) {
+            this.visible = this.random.nextInt(this.txCount);
+        }
+    }
+
+    @Override
+    protected void createRepeatedStartCondition() {
+        // No new count here, it is latched when 0xFD is read
+        this.endSegment();
+    }
+
+    @Override
+    protected void createStopCondition() {
+        this.endSegment();
+    }
+
+    @Override
+    protected boolean writeAddressByte(int address, boolean isRead) {
+        if(address != this.address) {
+            return false;
+        }
+        if(this.random.nextDouble() < this.nackRate) {
+            this.nacks++;
+            return false;
+        }
+        this.addressed = true;
+        this.reading = isRead;
+        this.writeCount = 0;
+        return true;
+    }
+
+    @Override
+    protected boolean writeByte(byte data) {
+        if(!this.addressed || this.reading) {
+            return false;
+        }
+        this.writeCount++;
+        if(this.writeCount == 1) {
+            // Register address or first byte of a message, decided at the end of the segment
+            this.firstWrite = data;
+            return true;
+        }
+        if(this.writeCount == 2) {
+            this.receive(this.firstWrite);
+        }
+        this.receive(data);
+        return true;
+    }
+
+    @Override
+    protected byte readByte(boolean ack) {
+        if(!this.addressed || !this.reading) {
+            return (byte) 0xFF;
+        }
+        switch(this.pointer) {
+            case REG_NBYTES_HIGH -> {
+                this.pointer++;
+                this.latchedCount = this.visible;
+                return (byte) (this.latchedCount >> 8);
+            }
+            case REG_NBYTES_LOW -> {
+                this.pointer++;
+                return (byte) this.latchedCount;
+            }
+            case REG_DATA -> {
+                if(this.visible == 0) {
+                    // Output due since the transaction started streams out right away
+                    int count = this.txCount;
+                    this.produce();
+                    this.visible = this.txCount - count;
+                    if(this.visible == 0) {
+                        return (byte) 0xFF;
+                    }
+                }
+                byte data = this.tx[this.txHead];
+                this.txHead = (this.txHead + 1) % this.tx.length;
+                this.txCount--;
+                this.visible--;
+                this.bytesRead++;
+                return data;
+            }
+            default -> {
+                this.pointer++;
+                return 0x00;
+            }
+        }
+    }
+
+    private void endSegment() {
+        if(this.addressed && !this.reading && this.writeCount == 1) {
+            this.pointer = this.firstWrite & 0xFF;
+        }
+        this.addressed = false;
+        this.writeCount = 0;
+    }
+
+    private void receive(byte data) {
+        this.inputByte[0] = data;
+        this.input.feed(this.inputByte, 0, 1);
+        Optional<UbxFrame> frame;
+        while((frame = this.input.next()).isPresent()) {
+            this.handle(frame.get());
+        }
+    }
+
+    private void handle(@NotNull UbxFrame frame) {
+        if(frame.messageClass() == UbxMessageClass.NAV.id && frame.messageId() == NAV_POSLLH && frame.length() == 0) {
+            this.enqueueFrame(UbxMessageClass.NAV.id, NAV_POSLLH, this.posllhPayload());
+        } else if(frame.messageClass() == UbxMessageClass.CFG.id && frame.length() > 0) {
+            this.enqueueFrame(UbxMessageClass.ACK.id, ACK_ACK, new byte[] { (byte) frame.messageClass(), (byte) frame.messageId() });
+        }
+    }
+
+    private void produce() {
+        long now = this.clock.getAsLong();
+        int epochs = 0;
+        while(now - this.nextEpoch >= 0) {
+            if(epochs++ == MAX_CATCH_UP_EPOCHS) {
+                // Clock jumped, skip ahead instead of flooding the buffer
+                this.nextEpoch = now + this.epochPeriod;
+                break;
+            }
+            this.produceEpoch();
+            this.nextEpoch += this.epochPeriod;
+        }
+    }
+
+    private byte[] posllhPayload() {
+        double t = this.iTOW / 1000.0;
+        PackedWriter writer = new PackedWriter(28);
+        writer.writeU4(this.iTOW);
+        writer.writeI4(1_139_000_000 + (int) (Math.sin(t / 60) * 1000)); // lon [deg * 1e-7]
+        writer.writeI4(481_000_000 + (int) (Math.cos(t / 60) * 1000)); // lat [deg * 1e-7]
+        writer.writeI4(520_000 + this.random.nextInt(200)); // height [mm]
+        writer.writeI4(470_000 + this.random.nextInt(200)); // hMSL [mm]
+        writer.writeU4(1200 + this.random.nextInt(300)); // hAcc [mm]
+        writer.writeU4(2000 + this.random.nextInt(500)); // vAcc [mm]
+        return writer.data();
+    }
+
+    private byte[] fillerPayload() {
+        UbxMsgNavSat message = new UbxMsgNavSat(this.iTOW, 1, this.fillerSats);
+        PackedWriter writer = new PackedWriter(message.payloadLength());
+        message.writePayload(writer, 0);
+        return writer.data();
+    }
+
+    // Fixed constellation with as many satellites as fit the requested payload length, rounded to the nearest
+    private static @NotNull List<UbxMsgNavSat.Sat> fillerSats(int payloadLength) {
+        long blocks = Math.round((payloadLength - UbxMsgNavSat.HEADER_LENGTH) / (double) UbxMsgNavSat.BLOCK_LENGTH);
+        int count = (int) Math.max(0, Math.min(0xFF, blocks));
+        List<UbxMsgNavSat.Sat> sats = new ArrayList<>(count);
+        for(int i = 0; i < count; i++) {
+            // GPS, svId 1.., used for navigation (flags bit 3) with a plausible sky position
+            sats.add(new UbxMsgNavSat.Sat(0, 1 + i, 30 + i % 20, 10 + i % 80, (i * 37) % 360, (i % 11) - 5, 0x08));
+        }
+        return List.copyOf(sats);
+    }
+
+    private void enqueueFrame(int messageClass, int messageId, byte[] payload) {
+        byte[] frame = new UbxFrame(messageClass, messageId, payload).serialize();
+        this.framesProduced++;
+        if(frame.length > this.tx.length - this.txCount) {
+            this.framesOverflowed++;
+            return;
+        }
+        if(this.random.nextDouble() < this.corruptionRate) {
+            // Keep the sync bytes so the receiving decoder has to reject it by checksum
+            int position = 2 + this.random.nextInt(frame.length - 2);
+            frame[position] ^= (byte) (1 << this.random.nextInt(8));
+            this.framesCorrupted++;
+        }
+        for(byte b : frame) {
+            this.tx[(this.txHead + this.txCount) % this.tx.length] = b;
+            this.txCount++;
+        }
+    }
+
+}
@@ -0,0 +1,267 @@
+package com.example.project.ubx.store;
+
+import com.example.project.ubx.message.type.nav.UbxMsgNavPosllh;
+import com.example.project.util.PackedOutput;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Append-only columnar store of NAV-POSLLH fixes for trajectory analysis.
+ * Every field is kept as a 32-bit column in fixed-size int[] blocks, 28 bytes per fix
+ * against roughly 64 for a {@link UbxMsgNavPosllh} object and its reference.
+ * U4 fields are stored by their bits and widened on access.
+ * <p>
+ * Rows are ordered by iTOW, which makes time lookups a binary search.
+ * iTOW restarts every GPS week, so a store covers one week: start a new store at the rollover.
+ * Scans run over plain int[] ranges which the JIT vectorizes.
+ * Not thread-safe, readers must not run concurrently with appends.
+ */
+public final class UbxPositionStore {
+
+    public enum Column {
+        ITOW, LON, LAT, HEIGHT, HMSL, HACC, VACC
+    }
+
+    // Bounding box over a row range, in the units of the columns
+    public record Extent(int minLon, int maxLon, int minLat, int maxLat, int minHMSL, int maxHMSL) {
+
+    }
+
+    private static final int BLOCK_SHIFT = 14;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+    private static final int COLUMNS = Column.values().length;
+
+    private int[][][] blocks = new int[16][][]; // [block][column][row]
+    private int size = 0;
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    // Bytes held by the column blocks
+    public long footprint() {
+        long allocated = (long) ((this.size + BLOCK_MASK) >>> BLOCK_SHIFT) << BLOCK_SHIFT;
+        return allocated * COLUMNS * Integer.BYTES;
+    }
+
+    public boolean append(@NotNull UbxMsgNavPosllh fix) {
+        return this.append(fix.iTOW, fix.lon, fix.lat, fix.height, fix.hMSL, fix.hAcc, fix.vAcc);
+    }
+
+    // Copies straight from a bound view, nothing is allocated
+    public boolean append(@NotNull UbxMsgNavPosllh.View fix) {
+        return this.append(fix.iTOW(), fix.lon(), fix.lat(), fix.height(), fix.hMSL(), fix.hAcc(), fix.vAcc());
+    }
+
+    /**
+     * Appends a fix, returns false and keeps the store unchanged if it is older than the last one.
+     * Fixes with the same iTOW are kept in arrival order.
+     */
+    public boolean append(long iTOW, int lon, int lat, int height, int hMSL, long hAcc, long vAcc) {
+        if(this.size > 0 && iTOW < this.iTOW(this.size - 1)) {
+            return false;
+        }
+        int row = this.size & BLOCK_MASK;
+        int[][] block = this.block(this.size >>> BLOCK_SHIFT);
+        block[Column.ITOW.ordinal()][row] = (int) iTOW;
+        block[Column.LON.ordinal()][row] = lon;
+        block[Column.LAT.ordinal()][row] = lat;
+        block[Column.HEIGHT.ordinal()][row] = height;
+        block[Column.HMSL.ordinal()][row] = hMSL;
+        block[Column.HACC.ordinal()][row] = (int) hAcc;
+        block[Column.VACC.ordinal()][row] = (int) vAcc;
+        this.size++;
+        return true;
+    }
+
+    public void clear() {
+        this.blocks = new int[16][][];
+        this.size = 0;
+    }
+
+    public long iTOW(int row) {
+        return Integer.toUnsignedLong(this.get(Column.ITOW, row));
+    }
+
+    public int lon(int row) {
+        return this.get(Column.LON, row);
+    }
+
+    public int lat(int row) {
+        return this.get(Column.LAT, row);
+    }
+
+    public int height(int row) {
+        return this.get(Column.HEIGHT, row);
+    }
+
+    public int hMSL(int row) {
+        return this.get(Column.HMSL, row);
+    }
+
+    public long hAcc(int row) {
+        return Integer.toUnsignedLong(this.get(Column.HACC, row));
+    }
+
+    public long vAcc(int row) {
+        return Integer.toUnsignedLong(this.get(Column.VACC, row));
+    }
+
+    // Raw column bits, U4 columns come back as signed ints
+    public int get(@NotNull Column column, int row) {
+        Objects.checkIndex(row, this.size);
+        return this.blocks[row >>> BLOCK_SHIFT][column.ordinal()][row & BLOCK_MASK];
+    }
+
+    public @NotNull UbxMsgNavPosllh fix(int row) {
+        return new UbxMsgNavPosllh(this.iTOW(row), this.lon(row), this.lat(row), this.height(row), this.hMSL(row), this.hAcc(row), this.vAcc(row));
+    }
+
+    /**
+     * First row with an iTOW at or after the given one, {@link #size()} if there is none.
+     * Together with a second search gives the row range of a time window: search(from) until search(to + 1).
+     */
+    public int search(long iTOW) {
+        if(this.size == 0 || iTOW > this.iTOW(this.size - 1)) {
+            return this.size;
+        }
+        // Last block starting before iTOW, then within it
+        int blockCount = (this.size + BLOCK_MASK) >>> BLOCK_SHIFT;
+        int low = 0;
+        int high = blockCount - 1;
+        while(low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if(Integer.toUnsignedLong(this.blocks[middle][Column.ITOW.ordinal()][0]) < iTOW) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        int[] times = this.blocks[low][Column.ITOW.ordinal()];
+        int from = 0;
+        int to = Math.min(BLOCK_SIZE, this.size - (low << BLOCK_SHIFT));
+        while(from < to) {
+            int middle = (from + to) >>> 1;
+            if(Integer.toUnsignedLong(times[middle]) < iTOW) {
+                from = middle + 1;
+            } else {
+                to = middle;
+            }
+        }
+        return (low << BLOCK_SHIFT) + from;
+    }
+
+    // Bounding box of the rows from..to (exclusive), the range must not be empty
+    public @NotNull Extent extent(int from, int to) {
+        this.checkRange(from, to);
+        if(from == to) {
+            throw new IllegalArgumentException("Empty range");
+        }
+        int minLon = Integer.MAX_VALUE;
+        int maxLon = Integer.MIN_VALUE;
+        int minLat = Integer.MAX_VALUE;
+        int maxLat = Integer.MIN_VALUE;
+        int minHMSL = Integer.MAX_VALUE;
+        int maxHMSL = Integer.MIN_VALUE;
+        for(int row = from; row < to; ) {
+            int[][] block = this.blocks[row >>> BLOCK_SHIFT];
+            int start = row & BLOCK_MASK;
+            int end = Math.min(BLOCK_SIZE, start + to - row);
+            int[] lon = block[Column.LON.ordinal()];
+            int[] lat = block[Column.LAT.ordinal()];
+            int[] hMSL = block[Column.HMSL.ordinal()];
+            for(int i = start; i < end; i++) {
+                minLon = Math.min(minLon, lon[i]);
+                maxLon = Math.max(maxLon, lon[i]);
+            }
+            for(int i = start; i < end; i++) {
+                minLat = Math.min(minLat, lat[i]);
+                maxLat = Math.max(maxLat, lat[i]);
+            }
+            for(int i = start; i < end; i++) {
+                minHMSL = Math.min(minHMSL, hMSL[i]);
+                maxHMSL = Math.max(maxHMSL, hMSL[i]);
+            }
+            row += end - start;
+        }
+        return new Extent(minLon, maxLon, minLat, maxLat, minHMSL, maxHMSL);
+    }
+
+    // Rows from..to (exclusive) whose accuracy column is at most the limit, for HACC or VACC
+    public int countAccurate(@NotNull Column column, int from, int to, long limit) {
+        if(column != Column.HACC && column != Column.VACC) {
+            throw new IllegalArgumentException("Not an accuracy column: " + column);
+        }
+        this.checkRange(from, to);
+        if(limit < 0) {
+            return 0;
+        }
+        // Unsigned compare as a signed one with the sign bits flipped
+        int bound = (int) Math.min(limit, 0xFFFFFFFFL) ^ Integer.MIN_VALUE;
+        int count = 0;
+        for(int row = from; row < to; ) {
+            int[] values = this.blocks[row >>> BLOCK_SHIFT][column.ordinal()];
+            int start = row & BLOCK_MASK;
+            int end = Math.min(BLOCK_SIZE, start + to - row);
+            for(int i = start; i < end; i++) {
+                count += (values[i] ^ Integer.MIN_VALUE) <= bound ? 1 : 0;
+            }
+            row += end - start;
+        }
+        return count;
+    }
+
+    // Copies the raw bits of a column range into target, returns the number of values copied
+    public int export(@NotNull Column column, int from, int to, int[] target, int offset) {
+        this.checkRange(from, to);
+        for(int row = from; row < to; ) {
+            int start = row & BLOCK_MASK;
+            int length = Math.min(BLOCK_SIZE - start, to - row);
+            System.arraycopy(this.blocks[row >>> BLOCK_SHIFT][column.ordinal()], start, target, offset + row - from, length);
+            row += length;
+        }
+        return to - from;
+    }
+
+    /**
+     * Writes the rows from..to (exclusive) as consecutive NAV-POSLLH payloads starting at offset,
+     * e.g. to re-frame them or hand them to another tool. Returns the number of bytes written.
+     */
+    public int export(int from, int to, @NotNull PackedOutput output, int offset) {
+        this.checkRange(from, to);
+        int position = offset;
+        for(int row = from; row < to; row++) {
+            int[][] block = this.blocks[row >>> BLOCK_SHIFT];
+            int i = row & BLOCK_MASK;
+            for(int column = 0; column < COLUMNS; column++) {
+                output.pokeI4(position + column * 4, block[column][i]);
+            }
+            position += UbxMsgNavPosllh.LENGTH;
+        }
+        return position - offset;
+    }
+
+    private int[][] block(int index) {
+        if(index == this.blocks.length) {
+            this.blocks = Arrays.copyOf(this.blocks, index * 2);
+        }
+        int[][] block = this.blocks[index];
+        if(block == null) {
+            block = new int[COLUMNS][BLOCK_SIZE];
+            this.blocks[index] = block;
+        }
+        return block;
+    }
+
+    private void checkRange(int from, int to) {
+        Objects.checkFromToIndex(from, to, this.size);
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.example.project.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * {@link PackedInput} over a {@link ByteBuffer}, so data in direct, mapped or foreign memory is decoded in place.
+ * The input spans the buffer's remaining bytes at construction time, the buffer's own position and order are left untouched.
+ * Memory segments can be read through their {@code asByteBuffer()} view without copying.
+ */
+public final class PackedBufferReader implements PackedInput {
+
+    private final ByteBuffer buffer; // Little-endian slice
+    private final int length;
+
+    private int position;
+
+    public PackedBufferReader(ByteBuffer buffer) {
+        this(buffer, buffer.position(), buffer.remaining());
+    }
+
+    // Reader over an absolute range of the buffer, positions are relative to offset
+    public PackedBufferReader(ByteBuffer buffer, int offset, int length) {
+        this.buffer = buffer.slice(offset, length).order(ByteOrder.LITTLE_ENDIAN);
+        this.length = length;
+        this.position = 0;
+    }
+
+    @Override
+    public int length() {
+        return this.length;
+    }
+
+    @Override
+    public int position() {
+        return this.position;
+    }
+
+    @Override
+    public void position(int position) {
+        if(position < 0) {
+            position = this.length + position;
+        }
+        this.position = position;
+    }
+
+    private int adjustNegativePosition(int position) {
+        if(position >= 0) {
+            return position;
+        }
+        return this.length + position;
+    }
+
+    @Override
+    public int peekU1(int position) {
+        return this.buffer.get(this.adjustNegativePosition(position)) & 0xFF;
+    }
+
+    @Override
+    public int peekI1(int position) {
+        return this.buffer.get(this.adjustNegativePosition(position));
+    }
+
+    @Override
+    public int peekU2(int position) {
+        return this.buffer.getShort(this.adjustNegativePosition(position)) & 0xFFFF;
+    }
+
+    @Override
+    public int peekI2(int position) {
+        return this.buffer.getShort(this.adjustNegativePosition(position));
+    }
+
+    @Override
+    public int peekU2n(int position) {
+        return Short.reverseBytes(this.buffer.getShort(this.adjustNegativePosition(position))) & 0xFFFF;
+    }
+
+    @Override
+    public int peekI2n(int position) {
+        return Short.reverseBytes(this.buffer.getShort(this.adjustNegativePosition(position)));
+    }
+
+    @Override
+    public long peekU4(int position) {
+        return this.buffer.getInt(this.adjustNegativePosition(position)) & 0xFFFFFFFFL;
+    }
+
+    @Override
+    public int peekI4(int position) {
+        return this.buffer.getInt(this.adjustNegativePosition(position));
+    }
+
+    @Override
+    public long peekU4n(int position) {
+        return Integer.reverseBytes(this.buffer.getInt(this.adjustNegativePosition(position))) & 0xFFFFFFFFL;
+    }
+
+    @Override
+    public int peekI4n(int position) {
+        return Integer.reverseBytes(this.buffer.getInt(this.adjustNegativePosition(position)));
+    }
+
+    @Override
+    public long peekI8(int position) {
+        return this.buffer.getLong(this.adjustNegativePosition(position));
+    }
+
+    @Override
+    public float peekR4(int position) {
+        return Float.intBitsToFloat(this.peekI4(position));
+    }
+
+    @Override
+    public double peekR8(int position) {
+        return Double.longBitsToDouble(this.peekI8(position));
+    }
+
+    @Override
+    public char peekCh(int position) {
+        return (char) (this.buffer.get(this.adjustNegativePosition(position)) & 0xFF);
+    }
+
+    @Override
+    public byte[] peekArray(int position, int length) {
+        byte[] result = new byte[length];
+        this.buffer.get(this.adjustNegativePosition(position), result, 0, length);
+        return result;
+    }
+
+    // Copies a slice into an existing array
+    public void peekArray(int position, byte[] destination, int offset, int length) {
+        this.buffer.get(this.adjustNegativePosition(position), destination, offset, length);
+    }
+
+}
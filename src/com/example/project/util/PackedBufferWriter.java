@@ -0,0 +1,123 @@
+package com.example.project.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * {@link PackedOutput} over a {@link ByteBuffer}, so data is encoded straight into direct, mapped or foreign memory.
+ * The output spans the buffer's remaining bytes at construction time, the buffer's own position and order are left untouched.
+ */
+public final class PackedBufferWriter implements PackedOutput {
+
+    private final ByteBuffer buffer; // Little-endian slice
+    private final int length;
+
+    private int position;
+
+    public PackedBufferWriter(ByteBuffer buffer) {
+        this.buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        this.length = this.buffer.remaining();
+        this.position = 0;
+    }
+
+    @Override
+    public int length() {
+        return this.length;
+    }
+
+    @Override
+    public int position() {
+        return this.position;
+    }
+
+    @Override
+    public void position(int position) {
+        if(position < 0) {
+            position = this.length + position;
+        }
+        this.position = position;
+    }
+
+    private int adjustNegativePosition(int position) {
+        if(position >= 0) {
+            return position;
+        }
+        return this.length + position;
+    }
+
+    @Override
+    public void pokeU1(int position, int value) {
+        this.buffer.put(this.adjustNegativePosition(position), (byte) value);
+    }
+
+    @Override
+    public void pokeI1(int position, int value) {
+        this.buffer.put(this.adjustNegativePosition(position), (byte) value);
+    }
+
+    @Override
+    public void pokeU2(int position, int value) {
+        this.buffer.putShort(this.adjustNegativePosition(position), (short) value);
+    }
+
+    @Override
+    public void pokeI2(int position, int value) {
+        this.buffer.putShort(this.adjustNegativePosition(position), (short) value);
+    }
+
+    @Override
+    public void pokeU2n(int position, int value) {
+        this.buffer.putShort(this.adjustNegativePosition(position), Short.reverseBytes((short) value));
+    }
+
+    @Override
+    public void pokeI2n(int position, int value) {
+        this.buffer.putShort(this.adjustNegativePosition(position), Short.reverseBytes((short) value));
+    }
+
+    @Override
+    public void pokeU4(int position, long value) {
+        this.buffer.putInt(this.adjustNegativePosition(position), (int) value);
+    }
+
+    @Override
+    public void pokeI4(int position, int value) {
+        this.buffer.putInt(this.adjustNegativePosition(position), value);
+    }
+
+    @Override
+    public void pokeU4n(int position, long value) {
+        this.buffer.putInt(this.adjustNegativePosition(position), Integer.reverseBytes((int) value));
+    }
+
+    @Override
+    public void pokeI4n(int position, int value) {
+        this.buffer.putInt(this.adjustNegativePosition(position), Integer.reverseBytes(value));
+    }
+
+    @Override
+    public void pokeI8(int position, long value) {
+        this.buffer.putLong(this.adjustNegativePosition(position), value);
+    }
+
+    @Override
+    public void pokeR4(int position, float value) {
+        this.pokeI4(position, Float.floatToIntBits(value));
+    }
+
+    @Override
+    public void pokeR8(int position, double value) {
+        this.pokeI8(position, Double.doubleToLongBits(value));
+    }
+
+    @Override
+    public void pokeCh(int position, char value) {
+        this.buffer.put(this.adjustNegativePosition(position), (byte) value);
+    }
+
+    @Override
+    public void pokeArray(int position, byte[] value, int offset, int length) {
+        this.buffer.put(this.adjustNegativePosition(position), value, offset, length);
+    }
+
+}
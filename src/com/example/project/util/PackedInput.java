@@ -0,0 +1,251 @@
+package com.example.project.util;
+
+/**
+ * Read side of the packed codec, independent of where the bytes live.
+ * Positions are relative to the start of the input, negative positions count from its end.
+ * Implemented by {@link PackedReader} for byte arrays and {@link PackedBufferReader} for heap, direct and mapped buffers.
+ * Only the peek methods are required, the relative reads are derived from them.
+ */
+public interface PackedInput {
+
+    int length();
+
+    int position();
+
+    void position(int position);
+
+    default void reset() {
+        this.position(0);
+    }
+
+    // Unsigned 8-bit integer
+    int peekU1(int position);
+
+    default int readU1() {
+        int position = this.position();
+        int value = this.peekU1(position);
+        this.position(position + 1);
+        return value;
+    }
+
+    // Signed 8-bit integer
+    int peekI1(int position);
+
+    default int readI1() {
+        int position = this.position();
+        int value = this.peekI1(position);
+        this.position(position + 1);
+        return value;
+    }
+
+    // Unsigned little-endian 16-bit integer
+    int peekU2(int position);
+
+    default int readU2() {
+        int position = this.position();
+        int value = this.peekU2(position);
+        this.position(position + 2);
+        return value;
+    }
+
+    // Signed little-endian 16-bit integer
+    int peekI2(int position);
+
+    default int readI2() {
+        int position = this.position();
+        int value = this.peekI2(position);
+        this.position(position + 2);
+        return value;
+    }
+
+    // Unsigned big-endian 16-bit integer
+    int peekU2n(int position);
+
+    default int readU2n() {
+        int position = this.position();
+        int value = this.peekU2n(position);
+        this.position(position + 2);
+        return value;
+    }
+
+    // Signed big-endian 16-bit integer
+    int peekI2n(int position);
+
+    default int readI2n() {
+        int position = this.position();
+        int value = this.peekI2n(position);
+        this.position(position + 2);
+        return value;
+    }
+
+    // Unsigned little-endian 32-bit integer
+    long peekU4(int position);
+
+    default long readU4() {
+        int position = this.position();
+        long value = this.peekU4(position);
+        this.position(position + 4);
+        return value;
+    }
+
+    // Signed little-endian 32-bit integer
+    int peekI4(int position);
+
+    default int readI4() {
+        int position = this.position();
+        int value = this.peekI4(position);
+        this.position(position + 4);
+        return value;
+    }
+
+    // Unsigned big-endian 32-bit integer
+    long peekU4n(int position);
+
+    default long readU4n() {
+        int position = this.position();
+        long value = this.peekU4n(position);
+        this.position(position + 4);
+        return value;
+    }
+
+    // Signed big-endian 32-bit integer
+    int peekI4n(int position);
+
+    default int readI4n() {
+        int position = this.position();
+        int value = this.peekI4n(position);
+        this.position(position + 4);
+        return value;
+    }
+
+    // Signed little-endian 64-bit integer
+    long peekI8(int position);
+
+    default long readI8() {
+        int position = this.position();
+        long value = this.peekI8(position);
+        this.position(position + 8);
+        return value;
+    }
+
+    // IEEE 754 32-bit floating point number, little endian
+    float peekR4(int position);
+
+    default float readR4() {
+        int position = this.position();
+        float value = this.peekR4(position);
+        this.position(position + 4);
+        return value;
+    }
+
+    // IEEE 754 64-bit floating point number, little endian
+    double peekR8(int position);
+
+    default double readR8() {
+        int position = this.position();
+        double value = this.peekR8(position);
+        this.position(position + 8);
+        return value;
+    }
+
+    // Singular ASCII character (1 byte)
+    char peekCh(int position);
+
+    default char readCh() {
+        int position = this.position();
+        char value = this.peekCh(position);
+        this.position(position + 1);
+        return value;
+    }
+
+    // Byte array
+    byte[] peekArray(int position, int length);
+
+    default byte[] readArray(int length) {
+        int position = this.position();
+        byte[] value = this.peekArray(position, length);
+        this.position(position + length);
+        return value;
+    }
+
+    // Consecutive signed little-endian 16-bit integers, copied into an existing array
+    default void peekI2Array(int position, short[] destination, int offset, int count) {
+        if(position < 0) {
+            position = this.length() + position;
+        }
+        for(int i = 0; i < count; i++) {
+            destination[offset + i] = (short) this.peekI2(position + 2 * i);
+        }
+    }
+
+    default void readI2Array(short[] destination, int offset, int count) {
+        int position = this.position();
+        this.peekI2Array(position, destination, offset, count);
+        this.position(position + 2 * count);
+    }
+
+    // Consecutive signed little-endian 32-bit integers, copied into an existing array
+    default void peekI4Array(int position, int[] destination, int offset, int count) {
+        if(position < 0) {
+            position = this.length() + position;
+        }
+        for(int i = 0; i < count; i++) {
+            destination[offset + i] = this.peekI4(position + 4 * i);
+        }
+    }
+
+    default void readI4Array(int[] destination, int offset, int count) {
+        int position = this.position();
+        this.peekI4Array(position, destination, offset, count);
+        this.position(position + 4 * count);
+    }
+
+    // Consecutive signed little-endian 64-bit integers, copied into an existing array
+    default void peekI8Array(int position, long[] destination, int offset, int count) {
+        if(position < 0) {
+            position = this.length() + position;
+        }
+        for(int i = 0; i < count; i++) {
+            destination[offset + i] = this.peekI8(position + 8 * i);
+        }
+    }
+
+    default void readI8Array(long[] destination, int offset, int count) {
+        int position = this.position();
+        this.peekI8Array(position, destination, offset, count);
+        this.position(position + 8 * count);
+    }
+
+    // Consecutive IEEE 754 32-bit floating point numbers, little endian, copied into an existing array
+    default void peekR4Array(int position, float[] destination, int offset, int count) {
+        if(position < 0) {
+            position = this.length() + position;
+        }
+        for(int i = 0; i < count; i++) {
+            destination[offset + i] = this.peekR4(position + 4 * i);
+        }
+    }
+
+    default void readR4Array(float[] destination, int offset, int count) {
+        int position = this.position();
+        this.peekR4Array(position, destination, offset, count);
+        this.position(position + 4 * count);
+    }
+
+    // Consecutive IEEE 754 64-bit floating point numbers, little endian, copied into an existing array
+    default void peekR8Array(int position, double[] destination, int offset, int count) {
+        if(position < 0) {
+            position = this.length() + position;
+        }
+        for(int i = 0; i < count; i++) {
+            destination[offset + i] = this.peekR8(position + 8 * i);
+        }
+    }
+
+    default void readR8Array(double[] destination, int offset, int count) {
+        int position = this.position();
+        this.peekR8Array(position, destination, offset, count);
+        this.position(position + 8 * count);
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.example.project.util;
+
+/**
+ * Write side of the packed codec, independent of where the bytes live.
+ * Positions are relative to the start of the output, negative positions count from its end.
+ * Implemented by {@link PackedWriter} for byte arrays and {@link PackedBufferWriter} for heap, direct and mapped buffers.
+ * Only the poke methods are required, the relative writes are derived from them.
+ */
+public interface PackedOutput {
+
+    int length();
+
+    int position();
+
+    void position(int position);
+
+    default void reset() {
+        this.position(0);
+    }
+
+    // Unsigned 8-bit integer
+    void pokeU1(int position, int value);
+
+    default void writeU1(int value) {
+        int position = this.position();
+        this.pokeU1(position, value);
+        this.position(position + 1);
+    }
+
+    // Signed 8-bit integer
+    void pokeI1(int position, int value);
+
+    default void writeI1(int value) {
+        int position = this.position();
+        this.pokeI1(position, value);
+        this.position(position + 1);
+    }
+
+    // Unsigned little-endian 16-bit integer
+    void pokeU2(int position, int value);
+
+    default void writeU2(int value) {
+        int position = this.position();
+        this.pokeU2(position, value);
+        this.position(position + 2);
+    }
+
+    // Signed little-endian 16-bit integer
+    void pokeI2(int position, int value);
+
+    default void writeI2(int value) {
+        int position = this.position();
+        this.pokeI2(position, value);
+        this.position(position + 2);
+    }
+
+    // Unsigned big-endian 16-bit integer
+    void pokeU2n(int position, int value);
+
+    default void writeU2n(int value) {
+        int position = this.position();
+        this.pokeU2n(position, value);
+        this.position(position + 2);
+    }
+
+    // Signed big-endian 16-bit integer
+    void pokeI2n(int position, int value);
+
+    default void writeI2n(int value) {
+        int position = this.position();
+        this.pokeI2n(position, value);
+        this.position(position + 2);
+    }
+
+    // Unsigned little-endian 32-bit integer
+    void pokeU4(int position, long value);
+
+    default void writeU4(long value) {
+        int position = this.position();
+        this.pokeU4(position, value);
+        this.position(position + 4);
+    }
+
+    // Signed little-endian 32-bit integer
+    void pokeI4(int position, int value);
+
+    default void writeI4(int value) {
+        int position = this.position();
+        this.pokeI4(position, value);
+        this.position(position + 4);
+    }
+
+    // Unsigned big-endian 32-bit integer
+    void pokeU4n(int position, long value);
+
+    default void writeU4n(long value) {
+        int position = this.position();
+        this.pokeU4n(position, value);
+        this.position(position + 4);
+    }
+
+    // Signed big-endian 32-bit integer
+    void pokeI4n(int position, int value);
+
+    default void writeI4n(int value) {
+        int position = this.position();
+        this.pokeI4n(position, value);
+        this.position(position + 4);
+    }
+
+    // Signed little-endian 64-bit integer
+    void pokeI8(int position, long value);
+
+    default void writeI8(long value) {
+        int position = this.position();
+        this.pokeI8(position, value);
+        this.position(position + 8);
+    }
+
+    // IEEE 754 32-bit floating point number, little endian
+    void pokeR4(int position, float value);
+
+    default void writeR4(float value) {
+        int position = this.position();
+        this.pokeR4(position, value);
+        this.position(position + 4);
+    }
+
+    // IEEE 754 64-bit floating point number, little endian
+    void pokeR8(int position, double value);
+
+    default void writeR8(double value) {
+        int position = this.position();
+        this.pokeR8(position, value);
+        this.position(position + 8);
+    }
+
+    // Singular ASCII character (1 byte)
+    void pokeCh(int position, char value);
+
+    default void writeCh(char value) {
+        int position = this.position();
+        this.pokeCh(position, value);
+        this.position(position + 1);
+    }
+
+    // Byte array slice
+    void pokeArray(int position, byte[] value, int offset, int length);
+
+    default void writeArray(byte[] value, int offset, int length) {
+        int position = this.position();
+        this.pokeArray(position, value, offset, length);
+        this.position(position + length);
+    }
+
+    // Byte array
+    default void pokeArray(int position, byte[] value) {
+        this.pokeArray(position, value, 0, value.length);
+    }
+
+    default void writeArray(byte[] value) {
+        this.writeArray(value, 0, value.length);
+    }
+
+}
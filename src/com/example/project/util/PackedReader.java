@@ -1,73 +1,131 @@
 package com.example.project.util;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
 /**
  * UBX data types. Pay extra attention to endianness.
+ * Multi-byte values are loaded through byte array view handles instead of being assembled byte by byte.
  */
-public final class PackedReader {
+public final class PackedReader implements PackedInput {
+
+    // Little-endian views, suffix N for the big-endian (network order) ones
+    private static final VarHandle I2 = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle I2N = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle I4 = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle I4N = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle I8 = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
 
-    private final byte[] data;
+    private byte[] data;
+    private int offset;
+    private int length;
 
     private int position;
 
     public PackedReader(byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    // Reader over a slice of a shared buffer, positions are relative to offset
+    public PackedReader(byte[] data, int offset, int length) {
+        this.wrap(data, offset, length);
+    }
+
+    // Rebinds this reader to another slice and rewinds it, for readers reused across buffers
+    public PackedReader wrap(byte[] data, int offset, int length) {
+        if(offset < 0 || length < 0 || offset + length > data.length) {
+            throw new IndexOutOfBoundsException("Slice out of bounds: offset=" + offset + ", length=" + length);
+        }
         this.data = data;
+        this.offset = offset;
+        this.length = length;
         this.position = 0;
+        return this;
     }
 
+    @Override
     public int length() {
-        return this.data.length;
+        return this.length;
     }
 
+    // Backing buffer, shared with the caller
     public byte[] data() {
         return this.data;
     }
 
+    public int offset() {
+        return this.offset;
+    }
+
+    @Override
     public void reset() {
         this.position = 0;
     }
 
+    @Override
     public int position() {
         return this.position;
     }
 
+    @Override
     public void position(int position) {
         if(position < 0) {
-            position = this.data.length + position;
+            position = this.length + position;
         }
         this.position = position;
     }
 
-    private int adjustNegativePosition(int position) {
+    // Absolute index into data of width bytes at position, negative positions count from the end of the slice.
+    // Checked against the slice, the backing array alone would let reads run into a neighbouring slice
+    private int adjustNegativePosition(int position, int width) {
+        if(position < 0) {
+            position = this.length + position;
+        }
+        Objects.checkFromIndexSize(position, width, this.length);
+        return this.offset + position;
+    }
+
+    // Same for count elements of the given size, checking the destination range before anything is copied
+    private int adjustNegativePosition(int position, int size, int destinationLength, int offset, int count) {
+        Objects.checkFromIndexSize(offset, count, destinationLength);
         if(position < 0) {
-            return this.data.length + position;
+            position = this.length + position;
         }
-        return position;
+        Objects.checkFromIndexSize(position, (long) size * count, this.length);
+        return this.offset + position;
     }
 
     // Unsigned 8-bit integer
+    @Override
     public int peekU1(int position) {
-        return this.data[this.adjustNegativePosition(position)] & 0xFF;
+        return this.data[this.adjustNegativePosition(position, 1)] & 0xFF;
     }
     
+    @Override
     public int readU1() {
         return this.peekU1(this.position++);
     }
     
     // Signed 8-bit integer
+    @Override
     public int peekI1(int position) {
-        return this.data[this.adjustNegativePosition(position)];
+        return this.data[this.adjustNegativePosition(position, 1)];
     }
     
+    @Override
     public int readI1() {
         return this.peekI1(this.position++);
     }
     
     // Unsigned little-endian 16-bit integer
+    @Override
     public int peekU2(int position) {
-        position = this.adjustNegativePosition(position);
-        return ((this.data[position + 1] & 0xFF) << 8) | (this.data[position] & 0xFF);
+        return (short) I2.get(this.data, this.adjustNegativePosition(position, 2)) & 0xFFFF;
     }
     
+    @Override
     public int readU2() {
         int value = this.peekU2(this.position);
         this.position += 2;
@@ -75,11 +133,12 @@ public final class PackedReader {
     }
     
     // Signed little-endian 16-bit integer
+    @Override
     public int peekI2(int position) {
-        position = this.adjustNegativePosition(position);
-        return (short)(((this.data[position + 1] & 0xFF) << 8) | (this.data[position] & 0xFF));
+        return (short) I2.get(this.data, this.adjustNegativePosition(position, 2));
     }
     
+    @Override
     public int readI2() {
         int value = this.peekI2(this.position);
         this.position += 2;
@@ -87,11 +146,12 @@ public final class PackedReader {
     }
     
     // Unsigned big-endian 16-bit integer
+    @Override
     public int peekU2n(int position) {
-        position = this.adjustNegativePosition(position);
-        return ((this.data[position] & 0xFF) << 8) | (this.data[position + 1] & 0xFF);
+        return (short) I2N.get(this.data, this.adjustNegativePosition(position, 2)) & 0xFFFF;
     }
     
+    @Override
     public int readU2n() {
         int value = this.peekU2n(this.position);
         this.position += 2;
@@ -99,11 +159,12 @@ public final class PackedReader {
     }
     
     // Signed big-endian 16-bit integer
+    @Override
     public int peekI2n(int position) {
-        position = this.adjustNegativePosition(position);
-        return (short)(((this.data[position] & 0xFF) << 8) | (this.data[position + 1] & 0xFF));
+        return (short) I2N.get(this.data, this.adjustNegativePosition(position, 2));
     }
     
+    @Override
     public int readI2n() {
         int value = this.peekI2n(this.position);
         this.position += 2;
@@ -111,14 +172,12 @@ public final class PackedReader {
     }
     
     // Unsigned little-endian 32-bit integer
+    @Override
     public long peekU4(int position) {
-        position = this.adjustNegativePosition(position);
-        return ((long)(this.data[position + 3] & 0xFF) << 24) | 
-               ((long)(this.data[position + 2] & 0xFF) << 16) | 
-               ((this.data[position + 1] & 0xFF) << 8) | 
-               (this.data[position] & 0xFF);
+        return (int) I4.get(this.data, this.adjustNegativePosition(position, 4)) & 0xFFFFFFFFL;
     }
     
+    @Override
     public long readU4() {
         long value = this.peekU4(this.position);
         this.position += 4;
@@ -126,14 +185,12 @@ public final class PackedReader {
     }
     
     // Signed little-endian 32-bit integer
+    @Override
     public int peekI4(int position) {
-        position = this.adjustNegativePosition(position);
-        return ((this.data[position + 3] & 0xFF) << 24) | 
-               ((this.data[position + 2] & 0xFF) << 16) | 
-               ((this.data[position + 1] & 0xFF) << 8) | 
-               (this.data[position] & 0xFF);
+        return (int) I4.get(this.data, this.adjustNegativePosition(position, 4));
     }
     
+    @Override
     public int readI4() {
         int value = this.peekI4(this.position);
         this.position += 4;
@@ -141,14 +198,12 @@ public final class PackedReader {
     }
     
     // Unsigned big-endian 32-bit integer
+    @Override
     public long peekU4n(int position) {
-        position = this.adjustNegativePosition(position);
-        return ((long)(this.data[position] & 0xFF) << 24) | 
-               ((long)(this.data[position + 1] & 0xFF) << 16) | 
-               ((this.data[position + 2] & 0xFF) << 8) | 
-               (this.data[position + 3] & 0xFF);
+        return (int) I4N.get(this.data, this.adjustNegativePosition(position, 4)) & 0xFFFFFFFFL;
     }
     
+    @Override
     public long readU4n() {
         long value = this.peekU4n(this.position);
         this.position += 4;
@@ -156,25 +211,38 @@ public final class PackedReader {
     }
     
     // Signed big-endian 32-bit integer
+    @Override
     public int peekI4n(int position) {
-        position = this.adjustNegativePosition(position);
-        return ((this.data[position] & 0xFF) << 24) | 
-               ((this.data[position + 1] & 0xFF) << 16) | 
-               ((this.data[position + 2] & 0xFF) << 8) | 
-               (this.data[position + 3] & 0xFF);
+        return (int) I4N.get(this.data, this.adjustNegativePosition(position, 4));
     }
     
+    @Override
     public int readI4n() {
         int value = this.peekI4n(this.position);
         this.position += 4;
         return value;
     }
     
+    // Signed little-endian 64-bit integer
+    @Override
+    public long peekI8(int position) {
+        return (long) I8.get(this.data, this.adjustNegativePosition(position, 8));
+    }
+
+    @Override
+    public long readI8() {
+        long value = this.peekI8(this.position);
+        this.position += 8;
+        return value;
+    }
+    
     // IEEE 754 32-bit floating point number, little endian
+    @Override
     public float peekR4(int position) {
         return Float.intBitsToFloat(this.peekI4(position));
     }
     
+    @Override
     public float readR4() {
         float value = this.peekR4(this.position);
         this.position += 4;
@@ -182,19 +250,12 @@ public final class PackedReader {
     }
     
     // IEEE 754 64-bit floating point number, little endian
+    @Override
     public double peekR8(int position) {
-        position = this.adjustNegativePosition(position);
-        long bits = ((long)(this.data[position + 7] & 0xFF) << 56) |
-                    ((long)(this.data[position + 6] & 0xFF) << 48) |
-                    ((long)(this.data[position + 5] & 0xFF) << 40) |
-                    ((long)(this.data[position + 4] & 0xFF) << 32) |
-                    ((long)(this.data[position + 3] & 0xFF) << 24) |
-                    ((long)(this.data[position + 2] & 0xFF) << 16) |
-                    ((long)(this.data[position + 1] & 0xFF) << 8) |
-                    (this.data[position] & 0xFF);
-        return Double.longBitsToDouble(bits);
+        return Double.longBitsToDouble(this.peekI8(position));
     }
     
+    @Override
     public double readR8() {
         double value = this.peekR8(this.position);
         this.position += 8;
@@ -202,26 +263,105 @@ public final class PackedReader {
     }
 
     // Singular ASCII character (1 byte)
+    @Override
     public char peekCh(int position) {
-        return (char)(this.data[this.adjustNegativePosition(position)] & 0xFF);
+        return (char)(this.data[this.adjustNegativePosition(position, 1)] & 0xFF);
     }
 
+    @Override
     public char readCh() {
         return this.peekCh(this.position++);
     }
     
     // Byte array
+    @Override
     public byte[] peekArray(int position, int length) {
-        position = this.adjustNegativePosition(position);
+        position = this.adjustNegativePosition(position, length);
         byte[] result = new byte[length];
         System.arraycopy(this.data, position, result, 0, length);
         return result;
     }
     
+    @Override
     public byte[] readArray(int length) {
         byte[] result = this.peekArray(this.position, length);
         this.position += length;
         return result;
     }
 
+    // Consecutive signed little-endian 16-bit integers, copied into an existing array
+    @Override
+    public void peekI2Array(int position, short[] destination, int offset, int count) {
+        int index = this.adjustNegativePosition(position, 2, destination.length, offset, count);
+        for(int i = 0; i < count; i++) {
+            destination[offset + i] = (short) I2.get(this.data, index + 2 * i);
+        }
+    }
+
+    @Override
+    public void readI2Array(short[] destination, int offset, int count) {
+        this.peekI2Array(this.position, destination, offset, count);
+        this.position += 2 * count;
+    }
+
+    // Consecutive signed little-endian 32-bit integers
+    @Override
+    public void peekI4Array(int position, int[] destination, int offset, int count) {
+        int index = this.adjustNegativePosition(position, 4, destination.length, offset, count);
+        for(int i = 0; i < count; i++) {
+            destination[offset + i] = (int) I4.get(this.data, index + 4 * i);
+        }
+    }
+
+    @Override
+    public void readI4Array(int[] destination, int offset, int count) {
+        this.peekI4Array(this.position, destination, offset, count);
+        this.position += 4 * count;
+    }
+
+    // Consecutive signed little-endian 64-bit integers
+    @Override
+    public void peekI8Array(int position, long[] destination, int offset, int count) {
+        int index = this.adjustNegativePosition(position, 8, destination.length, offset, count);
+        for(int i = 0; i < count; i++) {
+            destination[offset + i] = (long) I8.get(this.data, index + 8 * i);
+        }
+    }
+
+    @Override
+    public void readI8Array(long[] destination, int offset, int count) {
+        this.peekI8Array(this.position, destination, offset, count);
+        this.position += 8 * count;
+    }
+
+    // Consecutive IEEE 754 32-bit floating point numbers, little endian
+    @Override
+    public void peekR4Array(int position, float[] destination, int offset, int count) {
+        int index = this.adjustNegativePosition(position, 4, destination.length, offset, count);
+        for(int i = 0; i < count; i++) {
+            destination[offset + i] = Float.intBitsToFloat((int) I4.get(this.data, index + 4 * i));
+        }
+    }
+
+    @Override
+    public void readR4Array(float[] destination, int offset, int count) {
+        this.peekR4Array(this.position, destination, offset, count);
+        this.position += 4 * count;
+    }
+
+    // Consecutive IEEE 754 64-bit floating point numbers, little endian
+    @Override
+    public void peekR8Array(int position, double[] destination, int offset, int count) {
+        int index = this.adjustNegativePosition(position, 8, destination.length, offset, count);
+        for(int i = 0; i < count; i++) {
+            destination[offset + i] = Double.longBitsToDouble((long) I8.get(this.data, index + 8 * i));
+        }
+    }
+
+    @Override
+    public void readR8Array(double[] destination, int offset, int count) {
+        this.peekR8Array(this.position, destination, offset, count);
+        this.position += 8 * count;
+    }
+
 }
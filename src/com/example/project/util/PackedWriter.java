@@ -1,19 +1,37 @@
 package com.example.project.util;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
 /**
  * UBX data types. Pay extra attention to endianness.
+ * Multi-byte values are stored through byte array view handles instead of being split byte by byte.
  */
-public final class PackedWriter {
+public final class PackedWriter implements PackedOutput {
+
+    // Little-endian views, suffix N for the big-endian (network order) ones
+    private static final VarHandle I2 = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle I2N = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle I4 = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle I4N = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle I8 = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
 
     private final byte[] data;
 
     private int position;
 
     public PackedWriter(int size) {
-        this.data = new byte[size];
+        this(new byte[size]);
+    }
+
+    // Writer over an existing buffer, shared with the caller
+    public PackedWriter(byte[] data) {
+        this.data = data;
         this.position = 0;
     }
 
+    @Override
     public int length() {
         return this.data.length;
     }
@@ -22,14 +40,17 @@ public final class PackedWriter {
         return this.data;
     }
 
+    @Override
     public void reset() {
         this.position = 0;
     }
 
+    @Override
     public int position() {
         return this.position;
     }
 
+    @Override
     public void position(int position) {
         if(position < 0) {
             position = this.data.length + position;
@@ -38,177 +59,201 @@ public final class PackedWriter {
     }
 
     private int adjustNegativePosition(int position) {
-        if(position < 0) {
-            return this.data.length + position;
+        if(position >= 0) {
+            return position;
         }
-        return position;
+        return this.data.length + position;
     }
 
     // Unsigned 8-bit integer
+    @Override
     public void pokeU1(int position, int value) {
         this.data[this.adjustNegativePosition(position)] = (byte) value;
     }
     
+    @Override
     public void writeU1(int value) {
         this.pokeU1(this.position++, value);
     }
     
     // Signed 8-bit integer
+    @Override
     public void pokeI1(int position, int value) {
         this.data[this.adjustNegativePosition(position)] = (byte) value;
     }
     
+    @Override
     public void writeI1(int value) {
         this.pokeI1(this.position++, value);
     }
     
     // Unsigned little-endian 16-bit integer
+    @Override
     public void pokeU2(int position, int value) {
-        position = this.adjustNegativePosition(position);
-        this.data[position] = (byte) (value & 0xFF);
-        this.data[position + 1] = (byte) ((value >> 8) & 0xFF);
+        I2.set(this.data, this.adjustNegativePosition(position), (short) value);
     }
     
+    @Override
     public void writeU2(int value) {
         this.pokeU2(this.position, value);
         this.position += 2;
     }
     
     // Signed little-endian 16-bit integer
+    @Override
     public void pokeI2(int position, int value) {
         this.pokeU2(position, value);
     }
     
+    @Override
     public void writeI2(int value) {
         this.pokeI2(this.position, value);
         this.position += 2;
     }
     
     // Unsigned big-endian 16-bit integer
+    @Override
     public void pokeU2n(int position, int value) {
-        position = this.adjustNegativePosition(position);
-        this.data[position] = (byte) ((value >> 8) & 0xFF);
-        this.data[position + 1] = (byte) (value & 0xFF);
+        I2N.set(this.data, this.adjustNegativePosition(position), (short) value);
     }
     
+    @Override
     public void writeU2n(int value) {
         this.pokeU2n(this.position, value);
         this.position += 2;
     }
     
     // Signed big-endian 16-bit integer
+    @Override
     public void pokeI2n(int position, int value) {
         this.pokeU2n(position, value);
     }
     
+    @Override
     public void writeI2n(int value) {
         this.pokeI2n(this.position, value);
         this.position += 2;
     }
     
     // Unsigned little-endian 32-bit integer
+    @Override
     public void pokeU4(int position, long value) {
-        position = this.adjustNegativePosition(position);
-        this.data[position] = (byte) (value & 0xFF);
-        this.data[position + 1] = (byte) ((value >> 8) & 0xFF);
-        this.data[position + 2] = (byte) ((value >> 16) & 0xFF);
-        this.data[position + 3] = (byte) ((value >> 24) & 0xFF);
+        I4.set(this.data, this.adjustNegativePosition(position), (int) value);
     }
     
+    @Override
     public void writeU4(long value) {
         this.pokeU4(this.position, value);
         this.position += 4;
     }
     
     // Signed little-endian 32-bit integer
+    @Override
     public void pokeI4(int position, int value) {
-        position = this.adjustNegativePosition(position);
-        this.data[position] = (byte) (value & 0xFF);
-        this.data[position + 1] = (byte) ((value >> 8) & 0xFF);
-        this.data[position + 2] = (byte) ((value >> 16) & 0xFF);
-        this.data[position + 3] = (byte) ((value >> 24) & 0xFF);
+        I4.set(this.data, this.adjustNegativePosition(position), value);
     }
     
+    @Override
     public void writeI4(int value) {
         this.pokeI4(this.position, value);
         this.position += 4;
     }
     
     // Unsigned big-endian 32-bit integer
+    @Override
     public void pokeU4n(int position, long value) {
-        position = this.adjustNegativePosition(position);
-        this.data[position] = (byte) ((value >> 24) & 0xFF);
-        this.data[position + 1] = (byte) ((value >> 16) & 0xFF);
-        this.data[position + 2] = (byte) ((value >> 8) & 0xFF);
-        this.data[position + 3] = (byte) (value & 0xFF);
+        I4N.set(this.data, this.adjustNegativePosition(position), (int) value);
     }
     
+    @Override
     public void writeU4n(long value) {
         this.pokeU4n(this.position, value);
         this.position += 4;
     }
     
     // Signed big-endian 32-bit integer
+    @Override
     public void pokeI4n(int position, int value) {
-        position = this.adjustNegativePosition(position);
-        this.data[position] = (byte) ((value >> 24) & 0xFF);
-        this.data[position + 1] = (byte) ((value >> 16) & 0xFF);
-        this.data[position + 2] = (byte) ((value >> 8) & 0xFF);
-        this.data[position + 3] = (byte) (value & 0xFF);
+        I4N.set(this.data, this.adjustNegativePosition(position), value);
     }
     
+    @Override
     public void writeI4n(int value) {
         this.pokeI4n(this.position, value);
         this.position += 4;
     }
     
+    // Signed little-endian 64-bit integer
+    @Override
+    public void pokeI8(int position, long value) {
+        I8.set(this.data, this.adjustNegativePosition(position), value);
+    }
+
+    @Override
+    public void writeI8(long value) {
+        this.pokeI8(this.position, value);
+        this.position += 8;
+    }
+    
     // IEEE 754 32-bit floating point number, little endian
+    @Override
     public void pokeR4(int position, float value) {
         this.pokeI4(position, Float.floatToIntBits(value));
     }
     
+    @Override
     public void writeR4(float value) {
         this.pokeR4(this.position, value);
         this.position += 4;
     }
     
     // IEEE 754 64-bit floating point number, little endian
+    @Override
     public void pokeR8(int position, double value) {
-        position = this.adjustNegativePosition(position);
-        long bits = Double.doubleToLongBits(value);
-        this.data[position] = (byte) (bits & 0xFF);
-        this.data[position + 1] = (byte) ((bits >> 8) & 0xFF);
-        this.data[position + 2] = (byte) ((bits >> 16) & 0xFF);
-        this.data[position + 3] = (byte) ((bits >> 24) & 0xFF);
-        this.data[position + 4] = (byte) ((bits >> 32) & 0xFF);
-        this.data[position + 5] = (byte) ((bits >> 40) & 0xFF);
-        this.data[position + 6] = (byte) ((bits >> 48) & 0xFF);
-        this.data[position + 7] = (byte) ((bits >> 56) & 0xFF);
+        this.pokeI8(position, Double.doubleToLongBits(value));
     }
     
+    @Override
     public void writeR8(double value) {
         this.pokeR8(this.position, value);
         this.position += 8;
     }
     
     // Singular ASCII character (1 byte)
+    @Override
     public void pokeCh(int position, char value) {
         this.data[this.adjustNegativePosition(position)] = (byte) value;
     }
     
+    @Override
     public void writeCh(char value) {
         this.pokeCh(this.position++, value);
     }
     
     // Byte array
+    @Override
     public void pokeArray(int position, byte[] value) {
         position = this.adjustNegativePosition(position);
         System.arraycopy(value, 0, this.data, position, value.length);
     }
     
+    @Override
     public void writeArray(byte[] value) {
         this.pokeArray(this.position, value);
         this.position += value.length;
     }
 
+    // Byte array slice
+    @Override
+    public void pokeArray(int position, byte[] value, int offset, int length) {
+        position = this.adjustNegativePosition(position);
+        System.arraycopy(value, offset, this.data, position, length);
+    }
+
+    @Override
+    public void writeArray(byte[] value, int offset, int length) {
+        this.pokeArray(this.position, value, offset, length);
+        this.position += length;
+    }
+
 }
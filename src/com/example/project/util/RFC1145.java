@@ -1,10 +1,44 @@
 package com.example.project.util;
 
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+
 /**
- * Fletcher checksum algorithm implementation (UBX checksums)
+ * Fletcher checksum algorithm implementation (UBX checksums).
+ * Array updates of {@link #VECTOR_THRESHOLD} bytes and more run on RFC1145Vector when the UbxTemplate-vector module
+ * is on the class path and the JVM was started with {@code --add-modules jdk.incubator.vector}.
  */
 public final class RFC1145 {
 
+    public static final int VECTOR_THRESHOLD = 64;
+
+    // Implemented by RFC1145Vector in the UbxTemplate-vector module
+    interface Bulk {
+
+        void update(RFC1145 checksum, byte[] data, int offset, int length);
+
+    }
+
+    private static final @Nullable Bulk VECTOR = vector();
+
+    private static @Nullable Bulk vector() {
+        if(ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            return (Bulk) Class.forName("com.example.project.util.RFC1145Vector").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Module not on the class path
+            return null;
+        }
+    }
+
+    // True if large array updates run on jdk.incubator.vector
+    public static boolean vectorized() {
+        return VECTOR != null;
+    }
+
     private int a = 0;
     private int b = 0;
 
@@ -18,6 +52,55 @@ public final class RFC1145 {
         update8(d & 0xFF);
     }
 
+    /*
+     * Bulk update with the modulo reduction deferred to the end of the block.
+     * Over n bytes, A grows by the plain sum and B by n * A + sum((n - i) * d[i]).
+     * Both are independent reductions without a carried dependency, which the JIT can vectorize.
+     * Intermediate sums wrap modulo 2^32, which leaves them intact modulo 256.
+     */
+    public void update(byte[] data, int offset, int length) {
+        if(length >= VECTOR_THRESHOLD && VECTOR != null) {
+            VECTOR.update(this, data, offset, length);
+            return;
+        }
+        int sum = 0;
+        int weighted = 0;
+        for(int i = 0; i < length; i++) {
+            int d = data[offset + i] & 0xFF;
+            sum += d;
+            weighted += (length - i) * d;
+        }
+        this.add(length, sum, weighted);
+    }
+
+    // Consumes the remaining bytes of the buffer
+    public void update(ByteBuffer buffer) {
+        this.update(buffer, buffer.position(), buffer.remaining());
+        buffer.position(buffer.limit());
+    }
+
+    // Absolute bulk update, the buffer's position is left untouched so it can be shared between readers
+    public void update(ByteBuffer buffer, int offset, int length) {
+        if(buffer.hasArray()) {
+            this.update(buffer.array(), buffer.arrayOffset() + offset, length);
+            return;
+        }
+        int sum = 0;
+        int weighted = 0;
+        for(int i = 0; i < length; i++) {
+            int d = buffer.get(offset + i) & 0xFF;
+            sum += d;
+            weighted += (length - i) * d;
+        }
+        this.add(length, sum, weighted);
+    }
+
+    // Folds in a block of the given length, with its plain and position-weighted sums, also used by RFC1145Vector
+    void add(int length, int sum, int weighted) {
+        b = (b + length * a + weighted) & 0xFF;
+        a = (a + sum) & 0xFF;
+    }
+
     // Big-endian packed checksum
     public int get() {
         return (a << 8) | b;
@@ -0,0 +1,59 @@
+package com.example.project.util;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@link RFC1145} bulk update on {@code jdk.incubator.vector}, for large payloads like RXM-RAWX and MON frames.
+ * Computes the same plain and position-weighted sums as {@link RFC1145#update(byte[], int, int)},
+ * widening each byte vector into int lanes, so it can be mixed freely with the other updates.
+ * Lives in the UbxTemplate-vector module, the only one compiled with {@code --add-modules jdk.incubator.vector},
+ * which also has to be given at run time. With both, {@link RFC1145} hands it array updates of {@link RFC1145#VECTOR_THRESHOLD} bytes and more.
+ */
+public final class RFC1145Vector implements RFC1145.Bulk {
+
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final int PARTS = BYTES.length() / INTS.length(); // Int vectors per byte vector
+
+    // Lane index 0, 1, 2, ... for the weights
+    private static final @NotNull IntVector LANES = IntVector.zero(INTS).addIndex(1);
+
+    // Instantiated by RFC1145 when the incubator module is present
+    public RFC1145Vector() {
+
+    }
+
+    @Override
+    public void update(@NotNull RFC1145 checksum, byte @NotNull [] data, int offset, int length) {
+        IntVector sums = IntVector.zero(INTS);
+        IntVector weightedSums = IntVector.zero(INTS);
+        // Weight of each lane, length minus its index in the block, sums wrap modulo 2^32 like the scalar ones
+        IntVector weights = IntVector.broadcast(INTS, length).sub(LANES);
+        IntVector step = IntVector.broadcast(INTS, INTS.length());
+        int i = 0;
+        int bound = BYTES.loopBound(length);
+        for(; i < bound; i += BYTES.length()) {
+            ByteVector bytes = ByteVector.fromArray(BYTES, data, offset + i);
+            for(int part = 0; part < PARTS; part++) {
+                IntVector d = (IntVector) bytes.convertShape(VectorOperators.ZERO_EXTEND_B2I, INTS, part);
+                sums = sums.add(d);
+                weightedSums = weightedSums.add(d.mul(weights));
+                weights = weights.sub(step);
+            }
+        }
+        int sum = sums.reduceLanes(VectorOperators.ADD);
+        int weighted = weightedSums.reduceLanes(VectorOperators.ADD);
+        // Tail
+        for(; i < length; i++) {
+            int d = data[offset + i] & 0xFF;
+            sum += d;
+            weighted += (length - i) * d;
+        }
+        checksum.add(length, sum, weighted);
+    }
+
+}